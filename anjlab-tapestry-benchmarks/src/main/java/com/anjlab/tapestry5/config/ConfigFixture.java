@@ -0,0 +1,118 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tapestry5.commons.MappedConfiguration;
+
+/**
+ * Synthetic properties files for {@link ConfigHelper} benchmarks.
+ */
+final class ConfigFixture
+{
+    private ConfigFixture()
+    {
+    }
+
+    static String propertyName(int index)
+    {
+        return "app.module" + (index % 50) + ".property" + index;
+    }
+
+    /**
+     * Writes a chain of <code>depth + 1</code> files, where every file extends the next one.
+     * Properties are split evenly between the files, and every file also overrides a few properties of the next one.
+     *
+     * @return The first file of the chain.
+     */
+    static File writeExtendChain(File directory, int properties, int depth) throws IOException
+    {
+        int perFile = properties / (depth + 1);
+
+        for (int level = 0; level <= depth; level++)
+        {
+            Writer writer = new OutputStreamWriter(
+                    Files.newOutputStream(new File(directory, "level" + level + ".properties").toPath()),
+                    StandardCharsets.UTF_8);
+            try
+            {
+                if (level < depth)
+                {
+                    writer.write(ConfigHelper.EXTEND + "=level" + (level + 1) + ".properties\n");
+                }
+
+                int first = level * perFile;
+                int last = level == depth ? properties : first + perFile;
+
+                for (int i = first; i < last; i++)
+                {
+                    writer.write(propertyName(i) + "=" + i + "\n");
+                }
+
+                //  Overrides of the extended file
+                for (int i = last; i < Math.min(last + 10, properties); i++)
+                {
+                    writer.write(propertyName(i) + "=" + -i + "\n");
+                }
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+
+        return new File(directory, "level0.properties");
+    }
+
+    static File createDirectory() throws IOException
+    {
+        return Files.createTempDirectory("config-benchmark").toFile();
+    }
+
+    static void deleteDirectory(File directory) throws IOException
+    {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    /**
+     * @return Symbol provider configuration that ignores all contributions.
+     */
+    @SuppressWarnings("unchecked")
+    static MappedConfiguration<String, Object> nullConfiguration()
+    {
+        return (MappedConfiguration<String, Object>) Proxy.newProxyInstance(
+                MappedConfiguration.class.getClassLoader(),
+                new Class<?>[] { MappedConfiguration.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        return null;
+                    }
+                });
+    }
+}
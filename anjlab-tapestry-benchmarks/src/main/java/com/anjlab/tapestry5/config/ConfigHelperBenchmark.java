@@ -0,0 +1,122 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.commons.MappedConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading of a {@link ConfigHelper} with a chain of <code>extend</code>ed files,
+ * from the parse cache and with all files read again by {@link ConfigHelper#reload()},
+ * and lookups of raw and typed values of its properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigHelperBenchmark
+{
+    @Param({ "1000", "20000" })
+    public int properties;
+
+    @Param({ "0", "4" })
+    public int depth;
+
+    private File directory;
+
+    private File configFile;
+
+    private ConfigHelper configHelper;
+
+    private String[] propertyNames;
+
+    private int next;
+
+    private final MappedConfiguration<String, Object> configuration = ConfigFixture.nullConfiguration();
+
+    @Setup
+    public void setup() throws IOException
+    {
+        directory = ConfigFixture.createDirectory();
+        configFile = ConfigFixture.writeExtendChain(directory, properties, depth);
+        configHelper = ConfigHelper.fromFile(configFile);
+
+        //  Power of two to pick names with a mask
+        propertyNames = new String[Integer.highestOneBit(properties)];
+        for (int i = 0; i < propertyNames.length; i++)
+        {
+            propertyNames[i] = ConfigFixture.propertyName((int) ((i * 2654435761L) % properties));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        ConfigFixture.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ConfigHelper load() throws IOException
+    {
+        return ConfigHelper.fromFile(configFile);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean reload() throws IOException
+    {
+        return configHelper.reload();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String getRaw()
+    {
+        return configHelper.getRaw(propertyNames[next++ & (propertyNames.length - 1)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int getInt()
+    {
+        return configHelper.getInt(propertyNames[next++ & (propertyNames.length - 1)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void add()
+    {
+        configHelper.add(Integer.class, propertyNames[next++ & (propertyNames.length - 1)], configuration);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.commons.MappedConfiguration;
+import org.apache.tapestry5.commons.services.TypeCoercer;
+import org.apache.tapestry5.ioc.Registry;
+import org.apache.tapestry5.ioc.RegistryBuilder;
+import org.apache.tapestry5.ioc.services.SymbolSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PropertyTypeValidator} with Tapestry {@link TypeCoercer} and {@link SymbolSource}
+ * over a config where every property has a type and every tenth one refers to a symbol.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyTypeValidatorBenchmark
+{
+    private static final String SYMBOL = "benchmark.port";
+
+    private static final Class<?>[] TYPES = { Integer.class, Long.class, Boolean.class, String.class };
+
+    @Param({ "1000", "20000" })
+    public int properties;
+
+    private Registry registry;
+
+    private ConfigHelper configHelper;
+
+    private PropertyTypeValidator validator;
+
+    @Setup
+    public void setup()
+    {
+        System.setProperty(SYMBOL, "8080");
+
+        registry = RegistryBuilder.buildAndStartupRegistry();
+
+        Properties values = new Properties();
+        for (int i = 0; i < properties; i++)
+        {
+            Class<?> type = TYPES[i % TYPES.length];
+
+            String value = i % 10 == 0 && type != Boolean.class
+                    ? "${" + SYMBOL + "}"
+                    : type == Boolean.class ? String.valueOf(i % 3 == 0) : String.valueOf(i);
+
+            values.setProperty(ConfigFixture.propertyName(i), value);
+        }
+
+        configHelper = new ConfigHelper(values);
+
+        MappedConfiguration<String, Object> configuration = ConfigFixture.nullConfiguration();
+        for (int i = 0; i < properties; i++)
+        {
+            configHelper.add(TYPES[i % TYPES.length], ConfigFixture.propertyName(i), configuration);
+        }
+
+        validator = new PropertyTypeValidator(
+                registry.getService(TypeCoercer.class),
+                registry.getService(SymbolSource.class));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        registry.shutdown();
+        System.clearProperty(SYMBOL);
+    }
+
+    @Benchmark
+    public ConfigHelper validate()
+    {
+        validator.validate(configHelper);
+        return configHelper;
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures cold {@link ClasspathUtils#autobindServices} with and without {@link ServiceIndex},
+ * and {@link ClasspathScanner} scans of a synthetic jar with thousands of classes.
+ * <p>
+ * Every invocation uses a fresh class loader and drops shared scan results, as it happens on registry startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClasspathUtilsBenchmark
+{
+    @Param({ "500", "2000" })
+    public int services;
+
+    @Param({ "5000" })
+    public int fillers;
+
+    @Param({ "false", "true" })
+    public boolean index;
+
+    private File jar;
+
+    private URLClassLoader classLoader;
+
+    private ClassLoader contextClassLoader;
+
+    @Setup
+    public void writeJar() throws IOException
+    {
+        jar = new SyntheticServicesJar(services, fillers, index)
+                .write(File.createTempFile("synthetic-services", ".jar"));
+    }
+
+    @TearDown
+    public void deleteJar()
+    {
+        jar.delete();
+    }
+
+    @Setup(Level.Invocation)
+    public void createClassLoader() throws IOException
+    {
+        classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() },
+                ClasspathUtilsBenchmark.class.getClassLoader());
+
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(classLoader);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeClassLoader() throws IOException
+    {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+
+        ClasspathUtils.releaseScanResources();
+        classLoader.close();
+    }
+
+    @Benchmark
+    public RecordingServiceBinder autobindServices() throws ClassNotFoundException
+    {
+        Package servicesPackage =
+                Class.forName(SyntheticServicesJar.serviceName(0), false, classLoader).getPackage();
+
+        RecordingServiceBinder binder = new RecordingServiceBinder();
+        ClasspathUtils.autobindServices(binder.getBinder(), servicesPackage);
+        return binder;
+    }
+
+    @Benchmark
+    public List<ClassFileHeader> scanPackage() throws IOException
+    {
+        return new ClasspathScanner(classLoader, null, null).scan(SyntheticServicesJar.SERVICES_PACKAGE);
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.commons.ObjectLocator;
+import org.apache.tapestry5.ioc.annotations.Inject;
+import org.apache.tapestry5.ioc.annotations.PostInjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+
+/**
+ * Compares {@link InjectionStrategy}s of {@link InjectionHelper#inject(Object)} for a target
+ * with injection resources only, so that the cost of field writes and post-injection calls is measured
+ * rather than service lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionHelperBenchmark
+{
+    public static class Target
+    {
+        @Inject
+        private ObjectLocator locator;
+
+        @Inject
+        private Logger logger;
+
+        private ObjectLocator postInjectionLocator;
+
+        @PostInjection
+        public void postInjection(ObjectLocator locator)
+        {
+            this.postInjectionLocator = locator;
+        }
+    }
+
+    @Param({ "REFLECTION", "METHOD_HANDLES" })
+    public InjectionStrategy strategy;
+
+    private InjectionHelper injectionHelper;
+
+    @Setup
+    public void setup()
+    {
+        ObjectLocator locator = (ObjectLocator) Proxy.newProxyInstance(
+                ObjectLocator.class.getClassLoader(),
+                new Class<?>[] { ObjectLocator.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        throw new UnsupportedOperationException(method.toString());
+                    }
+                });
+
+        injectionHelper = new InjectionHelperImpl(locator, strategy, new Executor()
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                command.run();
+            }
+        }, 500);
+    }
+
+    @Benchmark
+    public Target inject()
+    {
+        Target target = new Target();
+        injectionHelper.inject(target);
+        return target;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.liquibase;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Hashtable;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.spi.InitialContextFactory;
+import javax.sql.DataSource;
+
+/**
+ * Serves the data source of the current benchmark iteration to the Liquibase servlet listener,
+ * which looks it up with <code>new InitialContext()</code>. Other names are not bound.
+ */
+public class BenchmarkContextFactory implements InitialContextFactory
+{
+    static final String DATA_SOURCE = "jdbc/benchmark";
+
+    static volatile DataSource dataSource;
+
+    static void install()
+    {
+        System.setProperty(Context.INITIAL_CONTEXT_FACTORY, BenchmarkContextFactory.class.getName());
+    }
+
+    @Override
+    public Context getInitialContext(Hashtable<?, ?> environment)
+    {
+        return (Context) Proxy.newProxyInstance(
+                Context.class.getClassLoader(),
+                new Class<?>[] { Context.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+                    {
+                        if (!method.getName().equals("lookup"))
+                        {
+                            return null;
+                        }
+
+                        String name = String.valueOf(args[0]);
+
+                        if (name.endsWith(DATA_SOURCE))
+                        {
+                            return dataSource;
+                        }
+
+                        throw new NameNotFoundException(name);
+                    }
+                });
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.liquibase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tapestry5.http.services.ApplicationInitializer;
+import org.apache.tapestry5.http.services.Context;
+import org.apache.tapestry5.ioc.Registry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link LiquibaseInitializer} applying a changelog of 30 change sets to an empty in-memory H2 database,
+ * as it happens on the first startup of an application.
+ * <p>
+ * The initializer applies its configurations once, so every single shot uses a fresh registry and database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class LiquibaseInitializerBenchmark
+{
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private static final ApplicationInitializer TERMINATOR = new ApplicationInitializer()
+    {
+        @Override
+        public void initializeApplication(Context context)
+        {
+        }
+    };
+
+    private Registry registry;
+
+    private LiquibaseInitializer initializer;
+
+    private JdbcDataSource dataSource;
+
+    @Setup(Level.Iteration)
+    public void setup()
+    {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:benchmark-" + databases.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+
+        BenchmarkContextFactory.install();
+        BenchmarkContextFactory.dataSource = dataSource;
+
+        registry = LiquibaseRegistry.build();
+
+        initializer = registry.getService(LiquibaseInitializer.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException
+    {
+        registry.shutdown();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement())
+        {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    public void update()
+    {
+        initializer.initializeApplication(null, TERMINATOR);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.liquibase;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+
+import javax.servlet.ServletContext;
+
+import org.apache.tapestry5.commons.MappedConfiguration;
+import org.apache.tapestry5.http.modules.TapestryHttpModule;
+import org.apache.tapestry5.http.services.ApplicationGlobals;
+import org.apache.tapestry5.ioc.Registry;
+import org.apache.tapestry5.ioc.RegistryBuilder;
+
+final class LiquibaseRegistry
+{
+    static final String CHANGELOG = "liquibase/benchmark-changelog.xml";
+
+    private LiquibaseRegistry()
+    {
+    }
+
+    public static class BenchmarkModule
+    {
+        public static void contributeApplicationDefaults(MappedConfiguration<String, Object> configuration)
+        {
+            configuration.add(LiquibaseModule.LIQUIBASE_CHANGELOG, CHANGELOG);
+            configuration.add(LiquibaseModule.LIQUIBASE_DATA_SOURCE, BenchmarkContextFactory.DATA_SOURCE);
+        }
+    }
+
+    static Registry build()
+    {
+        Registry registry = new RegistryBuilder().add(
+                        TapestryHttpModule.class,
+                        LiquibaseModule.class,
+                        BenchmarkModule.class)
+                .build();
+
+        registry.performRegistryStartup();
+
+        //  TapestryFilter stores the servlet context in web applications, LiquibaseInitializerImpl decorates it
+        registry.getService(ApplicationGlobals.class).storeServletContext(emptyServletContext());
+
+        return registry;
+    }
+
+    private static ServletContext emptyServletContext()
+    {
+        return (ServletContext) Proxy.newProxyInstance(
+                ServletContext.class.getClassLoader(),
+                new Class<?>[] { ServletContext.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        if (method.getName().equals("getInitParameterNames"))
+                        {
+                            return Collections.emptyEnumeration();
+                        }
+
+                        return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.quartz;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.tapestry5.ioc.Registry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+
+/**
+ * Measures latency from scheduling a job that starts now until {@link QuartzJobFuture#get(long, TimeUnit)}
+ * returns its result. This includes the scheduler thread wake up, job instantiation, execution, and
+ * notification of the job listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuartzJobFutureBenchmark
+{
+    private Registry registry;
+
+    private Scheduler scheduler;
+
+    @Setup
+    public void setup()
+    {
+        registry = QuartzRegistry.build();
+
+        scheduler = registry.getService(Scheduler.class);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        registry.shutdown();
+    }
+
+    @Benchmark
+    public String completion()
+            throws SchedulerException, InterruptedException, ExecutionException, TimeoutException
+    {
+        JobDetail job = JobBuilder.newJob(BenchmarkJob.class).build();
+
+        job.getJobDataMap().put("username", "John Smith");
+
+        Trigger trigger = TriggerBuilder.newTrigger().startNow().build();
+
+        QuartzJobFuture<String> future = new QuartzJobFuture<>(scheduler, job.getKey());
+
+        scheduler.scheduleJob(job, trigger);
+
+        return future.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.quartz;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.ioc.Registry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.TriggerBuilder;
+import org.quartz.spi.JobFactory;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+
+/**
+ * Measures {@link QuatrzJobFactory#newJob(TriggerFiredBundle, Scheduler)}, i.e. autobuilding a job with Tapestry IoC
+ * and setting its properties from the job data maps, which happens on every trigger fire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuatrzJobFactoryBenchmark
+{
+    private Registry registry;
+
+    private JobFactory jobFactory;
+
+    private Scheduler scheduler;
+
+    private TriggerFiredBundle bundle;
+
+    @Setup
+    public void setup()
+    {
+        registry = QuartzRegistry.build();
+
+        jobFactory = registry.getService(JobFactory.class);
+        scheduler = registry.getService(Scheduler.class);
+
+        JobDetail jobDetail = JobBuilder.newJob(BenchmarkJob.class).build();
+        jobDetail.getJobDataMap().put("username", "John Smith");
+
+        OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger().startNow().build();
+
+        Date now = new Date();
+
+        bundle = new TriggerFiredBundle(jobDetail, trigger, null, false, now, now, null, null);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        registry.shutdown();
+    }
+
+    @Benchmark
+    public Job newJob() throws SchedulerException
+    {
+        return jobFactory.newJob(bundle, scheduler);
+    }
+}
@@ -0,0 +1,348 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+
+/**
+ * Access log of {@link MDCInsertingServletFilter} that doesn't log on request threads.
+ * <p>
+ * Request threads put records to a preallocated ring buffer, a single background thread takes
+ * up to {@link #BATCH_SIZE} records at a time, puts request ID and session ID of each record to its MDC
+ * and logs the record with a separate logger call.
+ * <p>
+ * Records are stored column-wise in arrays, a slot is claimed with a CAS on the shared tail counter
+ * and published by writing its sequence number, so appending a record takes no locks and allocates nothing.
+ */
+final class AsyncAccessLog
+{
+    enum OverflowPolicy
+    {
+        /**
+         * Records that don't fit into the buffer are counted and dropped.
+         */
+        DROP,
+        /**
+         * Request threads wait for free space in the buffer.
+         */
+        BLOCK
+    }
+
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * Status of a slot claimed by a producer that saw the log closed after claiming it.
+     */
+    private static final int DROPPED = Integer.MIN_VALUE;
+
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Logger logger;
+    private final OverflowPolicy overflowPolicy;
+
+    private final int mask;
+
+    /**
+     * Slot <code>i</code> can be written by the producer that claimed position <code>p</code>
+     * when its sequence is <code>p</code>, and read by the consumer when its sequence is <code>p + 1</code>.
+     */
+    private final AtomicLongArray sequences;
+
+    private final String[] methods;
+    private final String[] uris;
+    private final String[] queryStrings;
+    private final String[] requestIds;
+    private final String[] sessionIds;
+    private final int[] statuses;
+    private final long[] durationsMillis;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Only accessed by the consumer thread.
+     */
+    private long head;
+
+    private final Thread consumer;
+
+    private volatile boolean closed;
+
+    /**
+     * @param capacity Number of records in the buffer, rounded up to a power of two.
+     */
+    AsyncAccessLog(Logger logger, int capacity, OverflowPolicy overflowPolicy)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("Access log capacity should be positive: " + capacity);
+        }
+
+        this.logger = logger;
+        this.overflowPolicy = overflowPolicy;
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+        {
+            size <<= 1;
+        }
+
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+        {
+            sequences.set(i, i);
+        }
+
+        this.methods = new String[size];
+        this.uris = new String[size];
+        this.queryStrings = new String[size];
+        this.requestIds = new String[size];
+        this.sessionIds = new String[size];
+        this.statuses = new int[size];
+        this.durationsMillis = new long[size];
+
+        this.consumer = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                consume();
+            }
+        }, "access-log");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    int capacity()
+    {
+        return mask + 1;
+    }
+
+    long getDroppedCount()
+    {
+        return dropped.get();
+    }
+
+    boolean append(String method, String uri, String queryString, String requestId, String sessionId)
+    {
+        return append(method, uri, queryString, requestId, sessionId, -1, -1);
+    }
+
+    /**
+     * @param status         Response status, or <code>-1</code> if the request is logged before it's handled.
+     * @param durationMillis Request duration, ignored if <code>status</code> is <code>-1</code>.
+     * @return <code>false</code> if the record was dropped because the buffer is full or the log is closed.
+     */
+    boolean append(String method, String uri, String queryString, String requestId, String sessionId,
+            int status, long durationMillis)
+    {
+        long position;
+        int spins = 0;
+
+        while (true)
+        {
+            if (closed)
+            {
+                dropped.incrementAndGet();
+                return false;
+            }
+
+            position = tail.get();
+            long sequence = sequences.get((int) position & mask);
+
+            if (sequence == position)
+            {
+                if (tail.compareAndSet(position, position + 1))
+                {
+                    break;
+                }
+            }
+            else if (sequence < position)
+            {
+                //  The slot wasn't consumed yet, the buffer is full
+                if (overflowPolicy == OverflowPolicy.DROP)
+                {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+
+                LockSupport.unpark(consumer);
+
+                if (++spins < 100)
+                {
+                    Thread.yield();
+                }
+                else
+                {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                }
+            }
+            //  Otherwise another producer claimed this position, retry with the new tail
+        }
+
+        int index = (int) position & mask;
+
+        if (closed)
+        {
+            //  The consumer may have seen the flag and finished before this slot was claimed,
+            //  publish the slot as dropped so the record is either skipped by the consumer or never read
+            statuses[index] = DROPPED;
+            sequences.set(index, position + 1);
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        methods[index] = method;
+        uris[index] = uri;
+        queryStrings[index] = queryString;
+        requestIds[index] = requestId;
+        sessionIds[index] = sessionId;
+        statuses[index] = status;
+        durationsMillis[index] = durationMillis;
+
+        sequences.set(index, position + 1);
+
+        return true;
+    }
+
+    /**
+     * Stops accepting new records, writes buffered records and stops the background thread.
+     */
+    void close()
+    {
+        closed = true;
+
+        LockSupport.unpark(consumer);
+
+        try
+        {
+            consumer.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume()
+    {
+        long reportedDrops = 0;
+        long parkNanos = 0;
+
+        while (true)
+        {
+            int count = drain();
+
+            long drops = dropped.get();
+            if (drops != reportedDrops)
+            {
+                logger.warn("{} access log record(s) dropped, the access log buffer of {} records is full",
+                        drops - reportedDrops, capacity());
+                reportedDrops = drops;
+            }
+
+            if (count > 0)
+            {
+                parkNanos = 0;
+                continue;
+            }
+
+            if (closed)
+            {
+                //  Records could be published after the last drain, but before producers saw the flag.
+                //  Producers that claim a slot after this check see the flag and drop their records
+                if (tail.get() == head)
+                {
+                    return;
+                }
+                Thread.yield();
+                continue;
+            }
+
+            parkNanos = Math.min(Math.max(parkNanos * 2, TimeUnit.MICROSECONDS.toNanos(50)), MAX_IDLE_PARK_NANOS);
+            LockSupport.parkNanos(this, parkNanos);
+        }
+    }
+
+    private int drain()
+    {
+        int count = 0;
+
+        while (count < BATCH_SIZE)
+        {
+            int index = (int) head & mask;
+
+            if (sequences.get(index) != head + 1)
+            {
+                break;
+            }
+
+            if (statuses[index] != DROPPED)
+            {
+                write(methods[index], uris[index], queryStrings[index], requestIds[index], sessionIds[index],
+                        statuses[index], durationsMillis[index]);
+            }
+
+            methods[index] = null;
+            uris[index] = null;
+            queryStrings[index] = null;
+            requestIds[index] = null;
+            sessionIds[index] = null;
+
+            sequences.set(index, head + mask + 1);
+
+            head++;
+            count++;
+        }
+
+        return count;
+    }
+
+    private void write(String method, String uri, String queryString, String requestId, String sessionId,
+            int status, long durationMillis)
+    {
+        MDC.put(MDCInsertingServletFilter.REQUEST_ID, requestId);
+        MDC.put(MDCInsertingServletFilter.REQUEST_SESSION_ID, sessionId);
+        try
+        {
+            if (status < 0)
+            {
+                logger.info("{} {}{}", method, uri, queryString == null ? "" : "?" + queryString);
+            }
+            else
+            {
+                logger.info("{} {}{} {} {}ms", method, uri, queryString == null ? "" : "?" + queryString,
+                        status, durationMillis);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            //  Keep the consumer alive, the appender has likely reported the error already
+        }
+        finally
+        {
+            MDC.remove(MDCInsertingServletFilter.REQUEST_ID);
+            MDC.remove(MDCInsertingServletFilter.REQUEST_SESSION_ID);
+        }
+    }
+}
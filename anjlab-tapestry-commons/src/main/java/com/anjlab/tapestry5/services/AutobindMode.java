@@ -0,0 +1,40 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import org.apache.tapestry5.ioc.ServiceBinder;
+
+/**
+ * Defines when implementation classes are loaded by
+ * {@link ClasspathUtils#autobindServices(ServiceBinder, Package, AutobindMode)}.
+ */
+public enum AutobindMode
+{
+    /**
+     * Implementation classes are loaded when services are bound, same as with {@link ServiceBinder#bind(Class, Class)}.
+     */
+    EAGER,
+
+    /**
+     * Only service interfaces are loaded when services are bound. Each implementation class is loaded,
+     * initialized and autobuilt when its service is realized for the first time.
+     * <p>
+     * Since Tapestry doesn't see implementation classes at bind time, annotations on implementation classes,
+     * like <code>@Scope</code>, <code>@EagerLoad</code> or <code>@Marker</code>, are not taken into account,
+     * and services are not reloaded when implementation classes change.
+     */
+    LAZY
+}
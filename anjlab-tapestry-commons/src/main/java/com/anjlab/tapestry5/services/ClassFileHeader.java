@@ -0,0 +1,430 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Name, access flags, super types and annotations of a class read directly from its class file,
+ * without loading the class.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se11/html/jvms-4.html">The class File Format</a>
+ */
+public final class ClassFileHeader
+{
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_INTERFACE = 0x0200;
+    public static final int ACC_ABSTRACT = 0x0400;
+    public static final int ACC_SYNTHETIC = 0x1000;
+    public static final int ACC_ANNOTATION = 0x2000;
+    public static final int ACC_ENUM = 0x4000;
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS = {
+            'R', 'u', 'n', 't', 'i', 'm', 'e', 'V', 'i', 's', 'i', 'b', 'l', 'e',
+            'A', 'n', 'n', 'o', 't', 'a', 't', 'i', 'o', 'n', 's' };
+
+    private final String name;
+    private final int accessFlags;
+    private final String superName;
+    private final List<String> interfaceNames;
+    private final List<String> annotationNames;
+
+    public ClassFileHeader(String name, int accessFlags, String superName, List<String> interfaceNames)
+    {
+        this(name, accessFlags, superName, interfaceNames, Collections.<String> emptyList());
+    }
+
+    public ClassFileHeader(String name, int accessFlags, String superName, List<String> interfaceNames,
+            List<String> annotationNames)
+    {
+        this.name = name;
+        this.accessFlags = accessFlags;
+        this.superName = superName;
+        this.interfaceNames = Collections.unmodifiableList(interfaceNames);
+        this.annotationNames = Collections.unmodifiableList(annotationNames);
+    }
+
+    /**
+     * Reads header of the class file from the given stream. The stream is not closed.
+     *
+     * @param input Stream with the class file content.
+     * @return Parsed header.
+     * @throws IOException if the stream can't be read or doesn't contain a class file.
+     */
+    public static ClassFileHeader read(InputStream input) throws IOException
+    {
+        DataInputStream data = new DataInputStream(input);
+
+        if (data.readInt() != MAGIC)
+        {
+            throw new IOException("Not a class file");
+        }
+
+        //  minor_version, major_version
+        data.readUnsignedShort();
+        data.readUnsignedShort();
+
+        int constantPoolCount = data.readUnsignedShort();
+
+        //  Only UTF8 and Class constants are needed for the header
+        byte[][] utf8 = new byte[constantPoolCount][];
+        int[] classNameIndexes = new int[constantPoolCount];
+
+        for (int i = 1; i < constantPoolCount; i++)
+        {
+            int tag = data.readUnsignedByte();
+
+            switch (tag)
+            {
+            case CONSTANT_UTF8:
+                utf8[i] = new byte[data.readUnsignedShort()];
+                data.readFully(utf8[i]);
+                break;
+            case CONSTANT_CLASS:
+                classNameIndexes[i] = data.readUnsignedShort();
+                break;
+            case CONSTANT_STRING:
+            case CONSTANT_METHOD_TYPE:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                skip(data, 2);
+                break;
+            case CONSTANT_METHOD_HANDLE:
+                skip(data, 3);
+                break;
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELDREF:
+            case CONSTANT_METHODREF:
+            case CONSTANT_INTERFACE_METHODREF:
+            case CONSTANT_NAME_AND_TYPE:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                skip(data, 4);
+                break;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                skip(data, 8);
+                //  8-byte constants take two entries in the constant pool
+                i++;
+                break;
+            default:
+                throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        int accessFlags = data.readUnsignedShort();
+        String name = className(utf8, classNameIndexes, data.readUnsignedShort());
+        String superName = className(utf8, classNameIndexes, data.readUnsignedShort());
+
+        String[] interfaceNames = new String[data.readUnsignedShort()];
+        for (int i = 0; i < interfaceNames.length; i++)
+        {
+            interfaceNames[i] = className(utf8, classNameIndexes, data.readUnsignedShort());
+        }
+
+        //  Fields and methods
+        for (int i = 0; i < 2; i++)
+        {
+            int memberCount = data.readUnsignedShort();
+            for (int j = 0; j < memberCount; j++)
+            {
+                //  access_flags, name_index, descriptor_index
+                skip(data, 6);
+                skipAttributes(data);
+            }
+        }
+
+        List<String> annotationNames = Collections.emptyList();
+
+        int attributeCount = data.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++)
+        {
+            int nameIndex = data.readUnsignedShort();
+            int length = data.readInt();
+
+            if (nameIndex < utf8.length && Arrays.equals(RUNTIME_VISIBLE_ANNOTATIONS, utf8[nameIndex]))
+            {
+                annotationNames = readAnnotationNames(data, utf8);
+            }
+            else
+            {
+                skip(data, length);
+            }
+        }
+
+        return new ClassFileHeader(name, accessFlags, superName, Arrays.asList(interfaceNames), annotationNames);
+    }
+
+    private static void skipAttributes(DataInputStream data) throws IOException
+    {
+        int attributeCount = data.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++)
+        {
+            //  attribute_name_index
+            skip(data, 2);
+            skip(data, data.readInt());
+        }
+    }
+
+    private static List<String> readAnnotationNames(DataInputStream data, byte[][] utf8) throws IOException
+    {
+        String[] annotationNames = new String[data.readUnsignedShort()];
+
+        for (int i = 0; i < annotationNames.length; i++)
+        {
+            annotationNames[i] = typeName(utf8, data.readUnsignedShort());
+            skipElementValuePairs(data);
+        }
+
+        return Arrays.asList(annotationNames);
+    }
+
+    private static void skipElementValuePairs(DataInputStream data) throws IOException
+    {
+        int pairCount = data.readUnsignedShort();
+        for (int i = 0; i < pairCount; i++)
+        {
+            //  element_name_index
+            skip(data, 2);
+            skipElementValue(data);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream data) throws IOException
+    {
+        int tag = data.readUnsignedByte();
+
+        switch (tag)
+        {
+        case 'B':
+        case 'C':
+        case 'D':
+        case 'F':
+        case 'I':
+        case 'J':
+        case 'S':
+        case 'Z':
+        case 's':
+        case 'c':
+            skip(data, 2);
+            break;
+        case 'e':
+            skip(data, 4);
+            break;
+        case '@':
+            //  type_index
+            skip(data, 2);
+            skipElementValuePairs(data);
+            break;
+        case '[':
+            int valueCount = data.readUnsignedShort();
+            for (int i = 0; i < valueCount; i++)
+            {
+                skipElementValue(data);
+            }
+            break;
+        default:
+            throw new IOException("Unknown element value tag " + (char) tag);
+        }
+    }
+
+    private static String typeName(byte[][] utf8, int descriptorIndex) throws IOException
+    {
+        if (descriptorIndex >= utf8.length || utf8[descriptorIndex] == null)
+        {
+            throw new IOException("Invalid type descriptor in constant pool: #" + descriptorIndex);
+        }
+
+        String descriptor = decode(utf8[descriptorIndex]);
+
+        if (descriptor.length() < 3 || descriptor.charAt(0) != 'L' || !descriptor.endsWith(";"))
+        {
+            throw new IOException("Invalid type descriptor: " + descriptor);
+        }
+
+        //  Lcom/example/Foo;
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    private static void skip(DataInputStream data, int count) throws IOException
+    {
+        if (data.skipBytes(count) != count)
+        {
+            throw new IOException("Unexpected end of class file");
+        }
+    }
+
+    private static String className(byte[][] utf8, int[] classNameIndexes, int classIndex) throws IOException
+    {
+        if (classIndex == 0)
+        {
+            //  super_class of java.lang.Object and module-info
+            return null;
+        }
+
+        if (classIndex >= classNameIndexes.length || utf8[classNameIndexes[classIndex]] == null)
+        {
+            throw new IOException("Invalid class reference in constant pool: #" + classIndex);
+        }
+
+        return decode(utf8[classNameIndexes[classIndex]]).replace('/', '.');
+    }
+
+    private static String decode(byte[] bytes) throws IOException
+    {
+        //  Class files use modified UTF-8, same as DataInput#readUTF()
+        byte[] prefixed = new byte[bytes.length + 2];
+        prefixed[0] = (byte) (bytes.length >>> 8);
+        prefixed[1] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, prefixed, 2, bytes.length);
+
+        return new DataInputStream(new ByteArrayInputStream(prefixed)).readUTF();
+    }
+
+    /**
+     * @return Fully qualified name of the class, i.e. <code>com.example.Foo$Bar</code>.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    public String getPackageName()
+    {
+        int lastDot = name.lastIndexOf('.');
+
+        return lastDot < 0 ? "" : name.substring(0, lastDot);
+    }
+
+    /**
+     * @return Name of the class without package name, for nested classes includes names of enclosing classes,
+     * i.e. <code>Foo$Bar</code>.
+     */
+    public String getSimpleName()
+    {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    public int getAccessFlags()
+    {
+        return accessFlags;
+    }
+
+    /**
+     * @return Fully qualified name of the super class or <code>null</code> for {@link Object}.
+     */
+    public String getSuperName()
+    {
+        return superName;
+    }
+
+    public List<String> getInterfaceNames()
+    {
+        return interfaceNames;
+    }
+
+    /**
+     * @return Fully qualified names of annotations with runtime retention present on the class.
+     * Inherited annotations are not included.
+     */
+    public List<String> getAnnotationNames()
+    {
+        return annotationNames;
+    }
+
+    public boolean isAnnotatedWith(String annotationName)
+    {
+        return annotationNames.contains(annotationName);
+    }
+
+    public boolean isAnnotatedWith(Class<? extends Annotation> annotationClass)
+    {
+        return isAnnotatedWith(annotationClass.getName());
+    }
+
+    public boolean isPublic()
+    {
+        return (accessFlags & ACC_PUBLIC) != 0;
+    }
+
+    public boolean isInterface()
+    {
+        return (accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAbstract()
+    {
+        return (accessFlags & ACC_ABSTRACT) != 0;
+    }
+
+    public boolean isAnnotation()
+    {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isEnum()
+    {
+        return (accessFlags & ACC_ENUM) != 0;
+    }
+
+    public boolean isSynthetic()
+    {
+        return (accessFlags & ACC_SYNTHETIC) != 0;
+    }
+
+    /**
+     * @return <code>true</code> if this is a top-level class, judging by the absence of <code>$</code> in its name.
+     */
+    public boolean isTopLevel()
+    {
+        return getSimpleName().indexOf('$') < 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Query of classes from the classpath, created with {@link ClasspathUtils#query(String)}:
+ *
+ * <pre>
+ * List&lt;Class&lt;?&gt;&gt; entities = ClasspathUtils.query("com.example")
+ *         .recursive()
+ *         .include("com.example.**.entities.*")
+ *         .exclude("**Test")
+ *         .annotatedWith(Entity.class)
+ *         .classes();
+ * </pre>
+ *
+ * Include and exclude patterns are matched against fully qualified class names, <code>*</code> matches
+ * any part of a single package or class name, <code>**</code> matches across package names and <code>?</code> matches
+ * a single character. Classes are selected if they match any of the include patterns (or if there are none)
+ * and none of the exclude patterns.
+ * <p>
+ * All filters are applied to {@link ClassFileHeader}s, so classes that don't pass them are never loaded.
+ */
+public class ClasspathQuery
+{
+    private final String packageName;
+
+    private boolean recursive;
+
+    private final List<Pattern> includes = new ArrayList<Pattern>();
+    private final List<Pattern> excludes = new ArrayList<Pattern>();
+    private final List<Predicate<? super ClassFileHeader>> filters =
+            new ArrayList<Predicate<? super ClassFileHeader>>();
+
+    ClasspathQuery(String packageName)
+    {
+        this.packageName = packageName;
+    }
+
+    /**
+     * Include classes from all sub-packages of the package.
+     */
+    public ClasspathQuery recursive()
+    {
+        this.recursive = true;
+        return this;
+    }
+
+    public ClasspathQuery include(String... patterns)
+    {
+        for (String pattern : patterns)
+        {
+            includes.add(compile(pattern));
+        }
+        return this;
+    }
+
+    public ClasspathQuery exclude(String... patterns)
+    {
+        for (String pattern : patterns)
+        {
+            excludes.add(compile(pattern));
+        }
+        return this;
+    }
+
+    /**
+     * Only select classes that have the given annotation. The annotation must have runtime retention.
+     */
+    public ClasspathQuery annotatedWith(Class<? extends Annotation> annotationClass)
+    {
+        return annotatedWith(annotationClass.getName());
+    }
+
+    /**
+     * @param annotationName Fully qualified name of the annotation.
+     * @see #annotatedWith(Class)
+     */
+    public ClasspathQuery annotatedWith(final String annotationName)
+    {
+        return filter(new Predicate<ClassFileHeader>()
+        {
+            @Override
+            public boolean test(ClassFileHeader header)
+            {
+                return header.isAnnotatedWith(annotationName);
+            }
+        });
+    }
+
+    public ClasspathQuery filter(Predicate<? super ClassFileHeader> filter)
+    {
+        filters.add(filter);
+        return this;
+    }
+
+    /**
+     * @return Headers of the matching classes sorted by class name.
+     * @throws ClassNotFoundException if the classpath can't be scanned.
+     */
+    public List<ClassFileHeader> headers() throws ClassNotFoundException
+    {
+        List<ClassFileHeader> headers = new ArrayList<ClassFileHeader>();
+
+        for (ClassFileHeader header : ClasspathUtils.scanPackage(packageName, recursive))
+        {
+            if (matches(header))
+            {
+                headers.add(header);
+            }
+        }
+
+        return headers;
+    }
+
+    /**
+     * Loads and initializes the matching classes.
+     *
+     * @return Matching classes sorted by class name.
+     * @throws ClassNotFoundException if the classpath can't be scanned.
+     */
+    public List<Class<?>> classes() throws ClassNotFoundException
+    {
+        return ClasspathUtils.loadClasses(headers());
+    }
+
+    private boolean matches(ClassFileHeader header)
+    {
+        String name = header.getName();
+
+        if (!includes.isEmpty() && !matchesAny(includes, name))
+        {
+            return false;
+        }
+
+        if (matchesAny(excludes, name))
+        {
+            return false;
+        }
+
+        for (Predicate<? super ClassFileHeader> filter : filters)
+        {
+            if (!filter.test(header))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String name)
+    {
+        for (Pattern pattern : patterns)
+        {
+            if (pattern.matcher(name).matches())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Pattern compile(String glob)
+    {
+        StringBuilder regex = new StringBuilder();
+
+        int literalStart = 0;
+
+        for (int i = 0; i < glob.length(); i++)
+        {
+            char c = glob.charAt(i);
+
+            if (c != '*' && c != '?')
+            {
+                continue;
+            }
+
+            if (i > literalStart)
+            {
+                regex.append(Pattern.quote(glob.substring(literalStart, i)));
+            }
+
+            if (c == '?')
+            {
+                regex.append("[^.]");
+            }
+            else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*')
+            {
+                regex.append(".*");
+                i++;
+            }
+            else
+            {
+                regex.append("[^.]*");
+            }
+
+            literalStart = i + 1;
+        }
+
+        if (literalStart < glob.length())
+        {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,432 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of {@link ClasspathScanner} results.
+ * <p>
+ * Results are kept per package per jar, together with a fingerprint of the jar (size and modification time),
+ * so only jars that have changed since the cache was written will be scanned again.
+ * <p>
+ * The cache file is memory-mapped when the cache is opened, and only the keys and fingerprints are read at that
+ * time. Class file headers of an entry are decoded from the mapping when the entry is requested for the first
+ * time. The file is rewritten atomically by {@link #save()}, entries that were not requested are copied from the
+ * mapping as is. Cache {@link #inMemory() without a file} only keeps results for the lifetime of the instance.
+ */
+class ClasspathScanCache
+{
+    private static final Logger logger = LoggerFactory.getLogger(ClasspathScanCache.class);
+
+    private static final int MAGIC = 0x414E4A53;
+    private static final int VERSION = 3;
+
+    private final File file;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    private MappedByteBuffer mapping;
+
+    private volatile boolean modified;
+
+    private ClasspathScanCache(File file)
+    {
+        this.file = file;
+    }
+
+    static ClasspathScanCache inMemory()
+    {
+        return new ClasspathScanCache(null);
+    }
+
+    /**
+     * Opens cache from the given file. Missing or corrupted file is treated as an empty cache.
+     */
+    static ClasspathScanCache open(File file)
+    {
+        ClasspathScanCache cache = new ClasspathScanCache(file);
+
+        if (file.isFile())
+        {
+            try
+            {
+                cache.readKeys();
+            }
+            catch (IOException | RuntimeException e)
+            {
+                logger.warn("Ignoring corrupted classpath scan cache {}: {}", file, e.getMessage());
+                cache.entries.clear();
+                cache.mapping = null;
+            }
+        }
+
+        return cache;
+    }
+
+    boolean isFor(File file)
+    {
+        return this.file == null ? file == null : this.file.equals(file);
+    }
+
+    /**
+     * @param key Name of the jar plus the package path.
+     * @param fingerprint Current fingerprint of the jar.
+     * @return Cached headers or <code>null</code> if there are no cached results for the given fingerprint.
+     */
+    List<ClassFileHeader> get(String key, long[] fingerprint)
+    {
+        Entry entry = entries.get(key);
+
+        if (entry == null || !Arrays.equals(entry.fingerprint, fingerprint))
+        {
+            return null;
+        }
+
+        List<ClassFileHeader> headers = entry.headers;
+
+        if (headers == null)
+        {
+            try
+            {
+                headers = readHeaders(entry);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                logger.warn("Ignoring corrupted entry {} of classpath scan cache {}: {}", key, file, e.getMessage());
+                entries.remove(key, entry);
+                modified = true;
+                return null;
+            }
+
+            entry.headers = headers;
+        }
+
+        return headers;
+    }
+
+    void put(String key, long[] fingerprint, List<ClassFileHeader> headers)
+    {
+        Entry entry = new Entry(fingerprint, -1, 0);
+        entry.headers = Collections.unmodifiableList(new ArrayList<ClassFileHeader>(headers));
+
+        entries.put(key, entry);
+        modified = true;
+    }
+
+    /**
+     * Writes the cache file if new results were added since the cache was read.
+     * Entries of jars that no longer exist are dropped.
+     * <p>
+     * {@link ClasspathUtils#releaseScanResources()} calls this once all modules have been bound,
+     * so the file is written once per start.
+     */
+    synchronized void save()
+    {
+        if (!modified || file == null)
+        {
+            return;
+        }
+
+        modified = false;
+
+        Path target = file.toPath();
+
+        try
+        {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+
+            Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), file.getName(), ".tmp");
+            try
+            {
+                write(temp);
+
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                Files.deleteIfExists(temp);
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn("Unable to write classpath scan cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void readKeys() throws IOException
+    {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try
+        {
+            //  The mapping stays valid after the channel is closed
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        finally
+        {
+            channel.close();
+        }
+
+        ByteBuffer buffer = mapping.duplicate();
+
+        DataInputStream input = new DataInputStream(new ByteBufferInputStream(buffer));
+
+        if (input.readInt() != MAGIC || input.readInt() != VERSION)
+        {
+            throw new IOException("Unsupported format");
+        }
+
+        int entryCount = input.readInt();
+
+        for (int i = 0; i < entryCount; i++)
+        {
+            String key = input.readUTF();
+            long[] fingerprint = new long[] { input.readLong(), input.readLong() };
+            int length = input.readInt();
+
+            if (length < 0 || length > buffer.remaining())
+            {
+                throw new IOException("Truncated entry " + key);
+            }
+
+            entries.put(key, new Entry(fingerprint, buffer.position(), length));
+
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    private List<ClassFileHeader> readHeaders(Entry entry) throws IOException
+    {
+        ByteBuffer buffer = mapping.duplicate();
+        buffer.position(entry.offset);
+        buffer.limit(entry.offset + entry.length);
+
+        DataInputStream input = new DataInputStream(new ByteBufferInputStream(buffer));
+
+        ClassFileHeader[] headers = new ClassFileHeader[input.readInt()];
+
+        for (int j = 0; j < headers.length; j++)
+        {
+            String name = input.readUTF();
+            int accessFlags = input.readUnsignedShort();
+            String superName = input.readBoolean() ? input.readUTF() : null;
+
+            String[] interfaceNames = new String[input.readUnsignedShort()];
+            for (int k = 0; k < interfaceNames.length; k++)
+            {
+                interfaceNames[k] = input.readUTF();
+            }
+
+            String[] annotationNames = new String[input.readUnsignedShort()];
+            for (int k = 0; k < annotationNames.length; k++)
+            {
+                annotationNames[k] = input.readUTF();
+            }
+
+            headers[j] = new ClassFileHeader(name, accessFlags, superName,
+                    Arrays.asList(interfaceNames), Arrays.asList(annotationNames));
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(headers));
+    }
+
+    private void write(Path path) throws IOException
+    {
+        List<Map.Entry<String, Entry>> live = new ArrayList<Map.Entry<String, Entry>>();
+
+        for (Map.Entry<String, Entry> entry : entries.entrySet())
+        {
+            if (sourceOf(rootOf(entry.getKey())).exists())
+            {
+                live.add(entry);
+            }
+        }
+
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        try
+        {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(live.size());
+
+            for (Map.Entry<String, Entry> entry : live)
+            {
+                Entry value = entry.getValue();
+
+                output.writeUTF(entry.getKey());
+                output.writeLong(value.fingerprint[0]);
+                output.writeLong(value.fingerprint[1]);
+
+                if (value.offset >= 0)
+                {
+                    //  Copy entries that were read from the file without decoding them
+                    ByteBuffer bytes = mapping.duplicate();
+                    bytes.position(value.offset);
+                    bytes.limit(value.offset + value.length);
+
+                    output.writeInt(value.length);
+                    output.flush();
+                    writeFully(bytes, output);
+                }
+                else
+                {
+                    byte[] bytes = encode(value.headers);
+                    output.writeInt(bytes.length);
+                    output.write(bytes);
+                }
+            }
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    private static void writeFully(ByteBuffer bytes, DataOutputStream output) throws IOException
+    {
+        byte[] chunk = new byte[Math.min(bytes.remaining(), 8192)];
+
+        while (bytes.hasRemaining())
+        {
+            int count = Math.min(chunk.length, bytes.remaining());
+            bytes.get(chunk, 0, count);
+            output.write(chunk, 0, count);
+        }
+    }
+
+    private static byte[] encode(List<ClassFileHeader> headers) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        output.writeInt(headers.size());
+
+        for (ClassFileHeader header : headers)
+        {
+            output.writeUTF(header.getName());
+            output.writeShort(header.getAccessFlags());
+            output.writeBoolean(header.getSuperName() != null);
+            if (header.getSuperName() != null)
+            {
+                output.writeUTF(header.getSuperName());
+            }
+            output.writeShort(header.getInterfaceNames().size());
+            for (String interfaceName : header.getInterfaceNames())
+            {
+                output.writeUTF(interfaceName);
+            }
+            output.writeShort(header.getAnnotationNames().size());
+            for (String annotationName : header.getAnnotationNames())
+            {
+                output.writeUTF(annotationName);
+            }
+        }
+
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    static String key(String root, String packagePath)
+    {
+        return root + '!' + packagePath;
+    }
+
+    private static String rootOf(String key)
+    {
+        return key.substring(0, key.lastIndexOf('!'));
+    }
+
+    /**
+     * @return File of the jar, or of the outer jar for nested jars, i.e. <code>/app.jar!/lib/services.jar</code>.
+     */
+    private static File sourceOf(String root)
+    {
+        int separator = root.indexOf('!');
+
+        return new File(separator < 0 ? root : root.substring(0, separator));
+    }
+
+    private static class Entry
+    {
+        private final long[] fingerprint;
+
+        /**
+         * Position of encoded headers in the mapping, or <code>-1</code> for entries added since the file was read.
+         */
+        private final int offset;
+        private final int length;
+
+        private volatile List<ClassFileHeader> headers;
+
+        Entry(long[] fingerprint, int offset, int length)
+        {
+            this.fingerprint = fingerprint;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream
+    {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read()
+        {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length)
+        {
+            if (!buffer.hasRemaining())
+            {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a single {@link ClasspathScanner#scan(String, boolean)}.
+ */
+@Name("com.anjlab.tapestry5.ClasspathScan")
+@Label("Classpath Scan")
+@Category({ "AnjLab Tapestry", "Classpath" })
+@Description("Scan of a package for class file headers")
+@StackTrace(false)
+class ClasspathScanEvent extends jdk.jfr.Event
+{
+    @Label("Package")
+    String packageName;
+
+    @Label("Recursive")
+    boolean recursive;
+
+    @Label("Roots")
+    @Description("Number of jars and directories that contain the package")
+    int rootCount;
+
+    @Label("Classes")
+    int classCount;
+}
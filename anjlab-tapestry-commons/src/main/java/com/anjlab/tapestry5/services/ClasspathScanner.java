@@ -0,0 +1,509 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.JarEntry;
+
+/**
+ * Finds classes of a package and, optionally, its sub-packages by reading their {@link ClassFileHeader}s,
+ * without loading the classes.
+ * <p>
+ * Jars and directories that contain the package are listed in parallel using {@link ForkJoinPool},
+ * and reading class files is further split between worker threads.
+ * Jars that haven't changed since the last scan are not read if {@link ClasspathScanCache} is used.
+ */
+class ClasspathScanner
+{
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    /**
+     * Number of class files read by a single fork/join task.
+     */
+    private static final int READ_BATCH_SIZE = 64;
+
+    private static final Comparator<ClassFileHeader> BY_NAME = new Comparator<ClassFileHeader>()
+    {
+        @Override
+        public int compare(ClassFileHeader o1, ClassFileHeader o2)
+        {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+
+    private final ClassLoader classLoader;
+    private final ForkJoinPool pool;
+    private final ClasspathScanCache cache;
+    private final JarFileCache jarFiles;
+
+    ClasspathScanner(ClassLoader classLoader, ClasspathScanCache cache, JarFileCache jarFiles)
+    {
+        this(classLoader, ForkJoinPool.commonPool(), cache, jarFiles);
+    }
+
+    /**
+     * @param cache Cache of scan results, may be <code>null</code>.
+     * @param jarFiles Jar files shared between scans, if <code>null</code> jar files will be closed after each scan.
+     */
+    ClasspathScanner(ClassLoader classLoader, ForkJoinPool pool, ClasspathScanCache cache, JarFileCache jarFiles)
+    {
+        this.classLoader = classLoader;
+        this.pool = pool;
+        this.cache = cache;
+        this.jarFiles = jarFiles;
+    }
+
+    /**
+     * @param packageName Name of the package to scan, sub-packages are not included.
+     * @return Headers of all classes from the package sorted by class name.
+     * Nested classes and <code>package-info</code> are not included.
+     * @throws IOException on class path read errors.
+     */
+    List<ClassFileHeader> scan(String packageName) throws IOException
+    {
+        return scan(packageName, false);
+    }
+
+    /**
+     * @param packageName Name of the package to scan.
+     * @param recursive Whether classes of all sub-packages should be included.
+     * @return Headers of all classes from the package sorted by class name.
+     * Nested classes and <code>package-info</code> are not included.
+     * @throws IOException on class path read errors.
+     */
+    List<ClassFileHeader> scan(String packageName, boolean recursive) throws IOException
+    {
+        return scan(packageName, recursive, Collections.<String>emptySet());
+    }
+
+    /**
+     * @param packageName Name of the package to scan.
+     * @param recursive Whether classes of all sub-packages should be included.
+     * @param excludedRoots Class path roots that should not be scanned, see {@link ServiceIndex#rootOf(URL, String)}.
+     * @return Headers of all classes from the package sorted by class name.
+     * Nested classes and <code>package-info</code> are not included.
+     * @throws IOException on class path read errors.
+     */
+    List<ClassFileHeader> scan(String packageName, boolean recursive, Set<String> excludedRoots) throws IOException
+    {
+        return scan(packageName, recursive, recursive, excludedRoots);
+    }
+
+    /**
+     * Scans the package the way {@link ClasspathUtils#getClassesForPackage(String)} always did:
+     * sub-packages are included for jars, but not for directories.
+     *
+     * @param packageName Name of the package to scan.
+     * @return Headers of all classes found sorted by class name.
+     * @throws IOException on class path read errors.
+     */
+    List<ClassFileHeader> scanWithSubPackagesOfJars(String packageName) throws IOException
+    {
+        return scan(packageName, false, true, Collections.<String>emptySet());
+    }
+
+    private List<ClassFileHeader> scan(String packageName, boolean recursive, boolean recursiveInJars,
+            Set<String> excludedRoots) throws IOException
+    {
+        ClasspathScanEvent event = new ClasspathScanEvent();
+        event.begin();
+
+        String packagePath = packageName.replace('.', '/');
+
+        JarFileCache jarFiles = this.jarFiles == null ? new JarFileCache() : this.jarFiles;
+
+        List<ClassFileHeader> headers;
+        try
+        {
+            List<ListTask> roots = new ArrayList<ListTask>();
+
+            Enumeration<URL> resources = classLoader.getResources(packagePath);
+            while (resources.hasMoreElements())
+            {
+                URL resource = resources.nextElement();
+
+                if (excludedRoots.contains(ServiceIndex.rootOf(resource, packagePath)))
+                {
+                    continue;
+                }
+
+                if (resource.getProtocol().equalsIgnoreCase("jar"))
+                {
+                    roots.add(new ListJarTask(cache, jarFiles.get(resource), packagePath, recursiveInJars));
+                }
+                else
+                {
+                    roots.add(new ListDirectoryTask(cache,
+                            new File(URLDecoder.decode(resource.getPath(), "UTF-8")), packageName, recursive));
+                }
+            }
+
+            event.rootCount = roots.size();
+
+            headers = pool.invoke(new ScanTask(roots));
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            if (jarFiles != this.jarFiles)
+            {
+                jarFiles.close();
+            }
+        }
+
+        Collections.sort(headers, BY_NAME);
+
+        if (event.shouldCommit())
+        {
+            event.packageName = packageName;
+            event.recursive = recursive;
+            event.classCount = headers.size();
+            event.commit();
+        }
+
+        return headers;
+    }
+
+    private static boolean isClassFile(String fileName)
+    {
+        return fileName.endsWith(CLASS_FILE_SUFFIX)
+                //  Nested classes
+                && fileName.indexOf('$') < 0
+                //  package-info.class, module-info.class
+                && fileName.indexOf('-') < 0;
+    }
+
+    private interface ClassFile
+    {
+        InputStream open() throws IOException;
+    }
+
+    private static class ScanTask extends RecursiveTask<List<ClassFileHeader>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ListTask> roots;
+
+        ScanTask(List<ListTask> roots)
+        {
+            this.roots = roots;
+        }
+
+        @Override
+        protected List<ClassFileHeader> compute()
+        {
+            invokeAll(roots);
+
+            List<ClassFileHeader> headers = new ArrayList<ClassFileHeader>();
+            for (ListTask root : roots)
+            {
+                headers.addAll(root.join());
+            }
+            return headers;
+        }
+    }
+
+    private abstract static class ListTask extends RecursiveTask<List<ClassFileHeader>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final ClasspathScanCache cache;
+        private final String cacheKeySuffix;
+
+        ListTask(ClasspathScanCache cache, String packagePath, boolean recursive)
+        {
+            this.cache = cache;
+            this.cacheKeySuffix = recursive ? packagePath + "/**" : packagePath;
+        }
+
+        @Override
+        protected List<ClassFileHeader> compute()
+        {
+            try
+            {
+                long[] fingerprint = cache == null ? null : fingerprint();
+                String key = fingerprint == null ? null : ClasspathScanCache.key(getRoot(), cacheKeySuffix);
+
+                if (key != null)
+                {
+                    List<ClassFileHeader> cached = cache.get(key, fingerprint);
+
+                    if (cached != null)
+                    {
+                        return new ArrayList<ClassFileHeader>(cached);
+                    }
+                }
+
+                List<ClassFile> classFiles = list();
+
+                List<ClassFileHeader> headers = new ReadTask(classFiles, 0, classFiles.size()).compute();
+
+                if (key != null)
+                {
+                    cache.put(key, fingerprint, headers);
+                }
+
+                return headers;
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * @return Path of the jar or directory.
+         */
+        protected abstract String getRoot();
+
+        /**
+         * @return Values that change whenever content of the jar or directory changes,
+         * or <code>null</code> if results for this jar or directory can't be cached.
+         */
+        protected abstract long[] fingerprint() throws IOException;
+
+        protected abstract List<ClassFile> list() throws IOException;
+    }
+
+    private static class ListJarTask extends ListTask
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final JarFileCache.CachedJar jar;
+        private final String packagePath;
+        private final boolean recursive;
+
+        ListJarTask(ClasspathScanCache cache, JarFileCache.CachedJar jar, String packagePath, boolean recursive)
+        {
+            super(cache, packagePath, recursive);
+            this.jar = jar;
+            this.packagePath = packagePath;
+            this.recursive = recursive;
+        }
+
+        @Override
+        protected String getRoot()
+        {
+            return jar.getRoot();
+        }
+
+        @Override
+        protected long[] fingerprint()
+        {
+            return jar.getFingerprint();
+        }
+
+        @Override
+        protected List<ClassFile> list()
+        {
+            List<ClassFile> classFiles = new ArrayList<ClassFile>();
+
+            for (final JarEntry entry : jar.getClassEntries())
+            {
+                String name = entry.getName();
+
+                if (name.length() > packagePath.length() + 1
+                        && name.startsWith(packagePath)
+                        && name.charAt(packagePath.length()) == '/'
+                        && (recursive || name.indexOf('/', packagePath.length() + 1) < 0)
+                        && isClassFile(name.substring(name.lastIndexOf('/') + 1)))
+                {
+                    classFiles.add(new ClassFile()
+                    {
+                        @Override
+                        public InputStream open() throws IOException
+                        {
+                            return jar.getFile().getInputStream(entry);
+                        }
+                    });
+                }
+            }
+
+            return classFiles;
+        }
+    }
+
+    private static class ListDirectoryTask extends ListTask
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+        private final String packageName;
+        private final boolean recursive;
+
+        private List<File> files;
+
+        ListDirectoryTask(ClasspathScanCache cache, File directory, String packageName, boolean recursive)
+        {
+            super(cache, packageName.replace('.', '/'), recursive);
+            this.directory = directory;
+            this.packageName = packageName;
+            this.recursive = recursive;
+        }
+
+        @Override
+        protected String getRoot()
+        {
+            return directory.getAbsolutePath();
+        }
+
+        @Override
+        protected long[] fingerprint()
+        {
+            //  Telling whether a directory has changed takes a stat of every file in it,
+            //  which costs about as much as reading class file headers, so directories are never cached
+            return null;
+        }
+
+        /**
+         * @return Class files of the package, and of sub-packages in recursive mode.
+         */
+        private List<File> listFiles() throws IOException
+        {
+            if (files == null)
+            {
+                List<File> classFiles = new ArrayList<File>();
+
+                listFiles(directory, classFiles);
+
+                files = classFiles;
+            }
+
+            return files;
+        }
+
+        private void listFiles(File directory, List<File> classFiles) throws IOException
+        {
+            File[] children = directory.listFiles();
+
+            if (children == null)
+            {
+                throw new FileNotFoundException(packageName + " (" + directory.getPath()
+                        + ") does not appear to be a valid package");
+            }
+
+            for (File child : children)
+            {
+                if (child.isDirectory())
+                {
+                    if (recursive)
+                    {
+                        listFiles(child, classFiles);
+                    }
+                }
+                else if (isClassFile(child.getName()))
+                {
+                    classFiles.add(child);
+                }
+            }
+        }
+
+        @Override
+        protected List<ClassFile> list() throws IOException
+        {
+            List<ClassFile> classFiles = new ArrayList<ClassFile>();
+
+            for (final File file : listFiles())
+            {
+                classFiles.add(new ClassFile()
+                {
+                    @Override
+                    public InputStream open() throws IOException
+                    {
+                        return new FileInputStream(file);
+                    }
+                });
+            }
+
+            return classFiles;
+        }
+    }
+
+    private static class ReadTask extends RecursiveTask<List<ClassFileHeader>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ClassFile> classFiles;
+        private final int from;
+        private final int to;
+
+        ReadTask(List<ClassFile> classFiles, int from, int to)
+        {
+            this.classFiles = classFiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<ClassFileHeader> compute()
+        {
+            if (to - from > READ_BATCH_SIZE)
+            {
+                int middle = (from + to) >>> 1;
+
+                ReadTask left = new ReadTask(classFiles, from, middle);
+                left.fork();
+
+                List<ClassFileHeader> headers = new ReadTask(classFiles, middle, to).compute();
+                headers.addAll(left.join());
+                return headers;
+            }
+
+            List<ClassFileHeader> headers = new ArrayList<ClassFileHeader>(to - from);
+
+            for (int i = from; i < to; i++)
+            {
+                try
+                {
+                    InputStream input = new BufferedInputStream(classFiles.get(i).open());
+                    try
+                    {
+                        headers.add(ClassFileHeader.read(input));
+                    }
+                    finally
+                    {
+                        input.close();
+                    }
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            return headers;
+        }
+    }
+}
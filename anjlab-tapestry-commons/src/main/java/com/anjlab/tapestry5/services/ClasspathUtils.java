@@ -17,101 +17,375 @@ package com.anjlab.tapestry5.services;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.net.JarURLConnection;
-import java.net.URL;
-import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.tapestry5.ioc.ServiceBinder;
+import org.apache.tapestry5.ioc.ServiceBuilder;
+import org.apache.tapestry5.ioc.ServiceResources;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.anjlab.tapestry5.services.metrics.StartupPhase;
+import com.anjlab.tapestry5.services.metrics.StartupTimeline;
+
 public class ClasspathUtils
 {
     private static final Logger logger = LoggerFactory.getLogger(ClasspathUtils.class);
-    
-    @SuppressWarnings({ "rawtypes", "unchecked" })
+
+    /**
+     * Name of the system property with path to a file where results of {@link #scanPackage(String)} will be kept
+     * between restarts. Jars that didn't change since the previous start won't be scanned again,
+     * directories are always scanned. The file is written by {@link #releaseScanResources()}.
+     * <p>
+     * If this property is not set, scan results are only kept in memory until {@link #releaseScanResources()}.
+     */
+    public static final String SCAN_CACHE_FILE = "anjlab.classpath.scanCacheFile";
+
+    private static ClasspathScanCache scanCache;
+
+    private static JarFileCache jarFiles;
+
+    /**
+     * Binds every class from the <code>interfacesPackage</code> to its implementation
+     * from the <code>impl</code> sub-package with the <code>Impl</code> suffix,
+     * i.e. <code>com.example.services.impl.FooImpl</code> for <code>com.example.services.Foo</code>.
+     * <p>
+     * Classes listed in {@link ServiceIndex} generated by the {@link ServiceIndexProcessor} are bound without
+     * scanning. Jars and directories that contain the <code>interfacesPackage</code> but have no index entries
+     * for it are scanned using {@link #scanPackage(String)}, and only classes that have implementations
+     * will be loaded.
+     *
+     * @param binder Service binder of the Tapestry IoC module.
+     * @param interfacesPackage Package with service interfaces.
+     * @throws ClassNotFoundException if the package can't be scanned.
+     */
     public static void autobindServices(ServiceBinder binder, Package interfacesPackage) throws ClassNotFoundException
     {
-        List<Class<?>> interfaces = getClassesForPackage(interfacesPackage.getName());
-        for (Class intf : interfaces) {
-            String className = interfacesPackage.getName() + ".impl." + intf.getSimpleName() + "Impl";
+        autobindServices(binder, interfacesPackage, AutobindMode.EAGER);
+    }
+
+    /**
+     * Same as {@link #autobindServices(ServiceBinder, Package)}, but with {@link AutobindMode#LAZY}
+     * implementation classes are only loaded when services are realized.
+     * <p>
+     * Implementations that couldn't be found are reported in a single warning.
+     *
+     * @param binder Service binder of the Tapestry IoC module.
+     * @param interfacesPackage Package with service interfaces.
+     * @param mode Defines when implementation classes are loaded.
+     * @throws ClassNotFoundException if the package can't be scanned.
+     */
+    public static void autobindServices(ServiceBinder binder, Package interfacesPackage, AutobindMode mode)
+            throws ClassNotFoundException
+    {
+        String packageName = interfacesPackage.getName();
+
+        StartupPhase phase = StartupTimeline.getDefault().begin("autobind " + packageName);
+        try {
+            autobindServices(binder, packageName, mode);
+        } finally {
+            phase.end();
+        }
+    }
+
+    private static void autobindServices(ServiceBinder binder, String packageName, AutobindMode mode)
+            throws ClassNotFoundException
+    {
+        ClassLoader cld = getClassLoader();
+
+        List<String> missing = new ArrayList<String>();
+
+        Set<String> indexedRoots = new HashSet<String>();
+
+        Map<String, String> services = new TreeMap<String, String>();
+
+        Map<String, String> indexed = readServiceIndex(packageName, indexedRoots);
+
+        if (indexed != null) {
+            services.putAll(findIndexedServices(cld, indexed, missing));
+        }
+
+        //  The package may be split between jars and directories, some of them without an index
+        for (Map.Entry<String, String> entry : findScannedServices(packageName, indexedRoots, missing).entrySet()) {
+            if (!services.containsKey(entry.getKey())) {
+                services.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        for (Map.Entry<String, String> entry : services.entrySet()) {
+            String className = entry.getValue();
             try {
-                Class impl = Class.forName(className);
-                binder.bind(intf, impl);
+                Class<?> intf = Class.forName(entry.getKey(), false, cld);
+                if (mode == AutobindMode.LAZY) {
+                    bind(binder, intf, new LazyServiceBuilder<Object>(className, cld));
+                } else {
+                    bind(binder, intf, Class.forName(className, false, cld));
+                }
             }
             catch (ClassNotFoundException e) {
-                logger.warn("Class not found during autobinding: {}", className);
+                missing.add(className);
             }
         }
+
+        if (!missing.isEmpty()) {
+            logger.warn("{} class(es) not found during autobinding of {}: {}", missing.size(), packageName, missing);
+        }
     }
-    
-    public static List<Class<?>> getClassesForPackage(String packageName)
+
+    private static Map<String, String> findScannedServices(String packageName, Set<String> indexedRoots,
+            List<String> missing) throws ClassNotFoundException
+    {
+        Map<String, String> services = new TreeMap<String, String>();
+
+        List<ClassFileHeader> interfaces = scanPackage(packageName, false, indexedRoots);
+
+        if (interfaces.isEmpty()) {
+            return services;
+        }
+
+        Set<String> implementations = new HashSet<String>();
+        for (ClassFileHeader header : scanPackage(packageName + ".impl")) {
+            implementations.add(header.getName());
+        }
+
+        for (ClassFileHeader header : interfaces) {
+            String className = ServiceIndex.implementationName(header.getName());
+            if (implementations.contains(className)) {
+                services.put(header.getName(), className);
+            } else {
+                missing.add(className);
+            }
+        }
+        return services;
+    }
+
+    private static Map<String, String> readServiceIndex(String packageName, Set<String> indexedRoots)
             throws ClassNotFoundException
     {
-        // This will hold a list of directories matching the packageName.
-        // There may be more than one if a package is split over multiple
-        // jars/paths
-        List<Class<?>> classes = new ArrayList<Class<?>>();
-        List<File> directories = new ArrayList<File>();
         try {
-            ClassLoader cld = Thread.currentThread().getContextClassLoader();
-            if (cld == null) {
-                throw new ClassNotFoundException("Can't get class loader.");
+            return ServiceIndex.read(getClassLoader(), packageName, indexedRoots);
+        } catch (IOException e) {
+            logger.warn("Error reading service index, falling back to classpath scanning", e);
+            indexedRoots.clear();
+            return null;
+        }
+    }
+
+    private static Map<String, String> findIndexedServices(ClassLoader cld, Map<String, String> indexed,
+            List<String> missing)
+    {
+        Map<String, String> services = new TreeMap<String, String>();
+        for (Map.Entry<String, String> entry : indexed.entrySet()) {
+            String className = entry.getValue();
+            //  Check the class file without loading the class
+            if (cld.getResource(className.replace('.', '/') + ".class") != null) {
+                services.put(entry.getKey(), className);
+            } else {
+                missing.add(className);
             }
-            // Ask for all resources for the path
-            Enumeration<URL> resources = cld.getResources(packageName.replace('.', '/'));
-            while (resources.hasMoreElements()) {
-                URL res = resources.nextElement();
-                if (res.getProtocol().equalsIgnoreCase("jar")) {
-                    JarURLConnection conn = (JarURLConnection) res.openConnection();
-                    JarFile jar = conn.getJarFile();
-                    for (JarEntry e : Collections.list(jar.entries())) {
-
-                        if (e.getName().startsWith(packageName.replace('.', '/')) && e.getName().endsWith(".class")
-                                && !e.getName().contains("$")) {
-                            String className = e.getName().replace("/", ".").substring(0, e.getName().length() - ".class".length());
-                            classes.add(Class.forName(className));
-                        }
-                    }
-                } else {
-                    directories.add(new File(URLDecoder.decode(res.getPath(), "UTF-8")));
-                }
+        }
+        return services;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static void bind(ServiceBinder binder, Class intf, Class impl)
+    {
+        binder.bind(intf, impl);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static void bind(ServiceBinder binder, Class intf, ServiceBuilder builder)
+    {
+        binder.bind(intf, builder);
+    }
+
+    private static ClassLoader getClassLoader() throws ClassNotFoundException
+    {
+        ClassLoader cld = Thread.currentThread().getContextClassLoader();
+        if (cld == null) {
+            throw new ClassNotFoundException("Can't get class loader.");
+        }
+        return cld;
+    }
+
+    private static synchronized ClasspathScanCache getScanCache()
+    {
+        String fileName = System.getProperty(SCAN_CACHE_FILE);
+
+        File file = fileName == null || fileName.trim().isEmpty() ? null : new File(fileName);
+
+        if (scanCache == null || !scanCache.isFor(file)) {
+            if (scanCache != null) {
+                scanCache.save();
             }
-        } catch (NullPointerException x) {
-            throw new ClassNotFoundException(packageName + " does not appear to be "
-                    + "a valid package (Null pointer exception)");
-        } catch (UnsupportedEncodingException encex) {
-            throw new ClassNotFoundException(packageName + " does not appear to be "
-                    + "a valid package (Unsupported encoding)");
+            scanCache = file == null ? ClasspathScanCache.inMemory() : ClasspathScanCache.open(file);
+        }
+        return scanCache;
+    }
+
+    private static synchronized JarFileCache getJarFiles()
+    {
+        if (jarFiles == null) {
+            jarFiles = new JarFileCache();
+        }
+        return jarFiles;
+    }
+
+    /**
+     * Closes jar files, writes the {@link #SCAN_CACHE_FILE scan cache file} and drops in-memory scan results
+     * shared by all scans since the first one.
+     * {@link CommonsModule} calls this on registry startup, once all modules have been bound, and again
+     * when the registry shuts down. Scans made after this will open the jar files again.
+     */
+    public static synchronized void releaseScanResources()
+    {
+        if (jarFiles != null) {
+            jarFiles.close();
+            jarFiles = null;
+        }
+        if (scanCache != null) {
+            scanCache.save();
+            scanCache = null;
+        }
+    }
+
+    /**
+     * Creates query of classes from the given package.
+     *
+     * @param packageName Name of the package.
+     * @return New query, sub-packages are not included unless {@link ClasspathQuery#recursive()} is set.
+     */
+    public static ClasspathQuery query(String packageName)
+    {
+        return new ClasspathQuery(packageName);
+    }
+
+    /**
+     * Reads headers of all classes from the given package without loading the classes.
+     *
+     * @param packageName Name of the package, sub-packages are not included.
+     * @return Headers of top-level classes from the package sorted by class name.
+     * @throws ClassNotFoundException if the package can't be scanned.
+     */
+    public static List<ClassFileHeader> scanPackage(String packageName) throws ClassNotFoundException
+    {
+        return scanPackage(packageName, false);
+    }
+
+    /**
+     * Reads headers of all classes from the given package without loading the classes.
+     *
+     * @param packageName Name of the package.
+     * @param recursive Whether classes of all sub-packages should be included.
+     * @return Headers of top-level classes sorted by class name.
+     * @throws ClassNotFoundException if the package can't be scanned.
+     */
+    public static List<ClassFileHeader> scanPackage(String packageName, boolean recursive)
+            throws ClassNotFoundException
+    {
+        return scanPackage(packageName, recursive, Collections.<String>emptySet());
+    }
+
+    private static List<ClassFileHeader> scanPackage(String packageName, boolean recursive, Set<String> excludedRoots)
+            throws ClassNotFoundException
+    {
+        try {
+            return new ClasspathScanner(getClassLoader(), getScanCache(), getJarFiles())
+                    .scan(packageName, recursive, excludedRoots);
         } catch (IOException ioex) {
             throw new ClassNotFoundException("IOException was thrown when trying " + "to get all resources for "
-                    + packageName);
-        }
-
-        // For every directory identified capture all the .class files
-        for (File directory : directories) {
-            if (directory.exists()) {
-                // Get the list of the files contained in the package
-                String[] files = directory.list();
-                for (String file : files) {
-                    // we are only interested in .class files
-                    if (file.endsWith(".class")) {
-                        // removes the .class extension
-                        classes.add(Class.forName(packageName + '.' + file.substring(0, file.length() - 6)));
-                    }
-                }
-            } else {
-                throw new ClassNotFoundException(packageName + " (" + directory.getPath()
-                        + ") does not appear to be a valid package");
-            }
+                    + packageName, ioex);
+        }
+    }
+
+    /**
+     * Loads and initializes all top-level classes from the given package.
+     * <p>
+     * For compatibility with previous versions, classes of sub-packages are included if the package is found
+     * in a jar, but not if it's found in a directory.
+     *
+     * @param packageName Name of the package.
+     * @return Classes sorted by class name.
+     * @throws ClassNotFoundException if the package can't be scanned.
+     * @deprecated Use {@link #getClassesForPackage(String, boolean)} that treats jars and directories the same way.
+     */
+    @Deprecated
+    public static List<Class<?>> getClassesForPackage(String packageName)
+            throws ClassNotFoundException
+    {
+        try {
+            return loadClasses(new ClasspathScanner(getClassLoader(), getScanCache(), getJarFiles())
+                    .scanWithSubPackagesOfJars(packageName));
+        } catch (IOException ioex) {
+            throw new ClassNotFoundException("IOException was thrown when trying " + "to get all resources for "
+                    + packageName, ioex);
+        }
+    }
+
+    /**
+     * Loads and initializes all top-level classes from the given package.
+     *
+     * @param packageName Name of the package.
+     * @param recursive Whether classes of all sub-packages should be included.
+     * @return Classes sorted by class name.
+     * @throws ClassNotFoundException if the package can't be scanned.
+     * @see #query(String)
+     */
+    public static List<Class<?>> getClassesForPackage(String packageName, boolean recursive)
+            throws ClassNotFoundException
+    {
+        return loadClasses(scanPackage(packageName, recursive));
+    }
+
+    static List<Class<?>> loadClasses(List<ClassFileHeader> headers) throws ClassNotFoundException
+    {
+        ClassLoader cld = getClassLoader();
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (ClassFileHeader header : headers) {
+            classes.add(Class.forName(header.getName(), true, cld));
         }
         return classes;
     }
+
+    /**
+     * Loads the implementation class on the first service realization and autobuilds it.
+     */
+    private static class LazyServiceBuilder<T> implements ServiceBuilder<T>
+    {
+        private final String className;
+        private final ClassLoader cld;
+
+        LazyServiceBuilder(String className, ClassLoader cld)
+        {
+            this.className = className;
+            this.cld = cld;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T buildService(ServiceResources resources)
+        {
+            Class<? extends T> impl;
+            try {
+                impl = (Class<? extends T>) Class.forName(className, true, cld)
+                        .asSubclass(resources.getServiceInterface());
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("Implementation of service '" + resources.getServiceId()
+                        + "' not found: " + className, e);
+            }
+            return resources.autobuild(impl);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Lazy autobuild of " + className;
+        }
+    }
 }
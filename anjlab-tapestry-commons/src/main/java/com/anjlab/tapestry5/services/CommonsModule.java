@@ -15,12 +15,386 @@
  */
 package com.anjlab.tapestry5.services;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+
+import org.apache.tapestry5.commons.Configuration;
+import org.apache.tapestry5.commons.MappedConfiguration;
+import org.apache.tapestry5.commons.OrderedConfiguration;
+import org.apache.tapestry5.http.services.ApplicationInitializer;
+import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
+import org.apache.tapestry5.http.services.Context;
 import org.apache.tapestry5.ioc.ServiceBinder;
+import org.apache.tapestry5.ioc.annotations.Contribute;
+import org.apache.tapestry5.ioc.annotations.Inject;
+import org.apache.tapestry5.ioc.annotations.Marker;
+import org.apache.tapestry5.ioc.annotations.Optional;
+import org.apache.tapestry5.ioc.annotations.Startup;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
+import org.apache.tapestry5.ioc.services.RegistryShutdownHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.anjlab.tapestry5.services.metrics.Gauge;
+import com.anjlab.tapestry5.services.metrics.MeterBinder;
+import com.anjlab.tapestry5.services.metrics.MetricsFileExporter;
+import com.anjlab.tapestry5.services.metrics.MetricsJmxExporter;
+import com.anjlab.tapestry5.services.metrics.MetricsRegistry;
+import com.anjlab.tapestry5.services.metrics.MetricsRegistryImpl;
+import com.anjlab.tapestry5.services.metrics.RequestMetrics;
+import com.anjlab.tapestry5.services.metrics.RequestMetricsSource;
+import com.anjlab.tapestry5.services.metrics.RequestMetricsSourceImpl;
+import com.anjlab.tapestry5.services.metrics.StartupTimeline;
 
 public class CommonsModule
 {
+    /**
+     * How {@link InjectionHelper} writes fields and invokes post-injection methods,
+     * one of {@link InjectionStrategy} names, i.e. <code>reflection</code> (default) or <code>method-handles</code>.
+     */
+    public static final String INJECTION_STRATEGY = "anjlab.injection.strategy";
+
+    /**
+     * Maximal number of objects of the same class that {@link InjectionHelper#injectAll(Iterable)}
+     * injects in a single task.
+     */
+    public static final String INJECTION_BATCH_SIZE = "anjlab.injection.batch-size";
+
+    /**
+     * Number of threads of the <code>MDCExecutorService</code> service.
+     */
+    public static final String MDC_EXECUTOR_THREADS = "anjlab.mdc-executor.threads";
+
+    /**
+     * Whether {@link MetricsRegistry} should be registered in the platform MBean server.
+     */
+    public static final String METRICS_JMX = "anjlab.metrics.jmx";
+
+    /**
+     * Value of the <code>name</code> key of the {@link MetricsRegistry} MBean, that tells registries
+     * of different applications in the same JVM apart. Empty value leaves the key out.
+     */
+    public static final String METRICS_JMX_NAME = "anjlab.metrics.jmx-name";
+
+    /**
+     * Path of the file to periodically write {@link MetricsRegistry} snapshots to, empty to disable.
+     */
+    public static final String METRICS_FILE = "anjlab.metrics.file";
+
+    /**
+     * Interval in milliseconds between writes of {@link #METRICS_FILE}.
+     */
+    public static final String METRICS_FILE_INTERVAL = "anjlab.metrics.file-interval";
+
+    /**
+     * Whether {@link StartupTimeline} report should be logged when the application is initialized.
+     */
+    public static final String STARTUP_REPORT = "anjlab.startup.report";
+
+    /**
+     * Path of the file to write {@link StartupTimeline} trace to when the application is initialized,
+     * empty to disable.
+     */
+    public static final String STARTUP_TRACE_FILE = "anjlab.startup.trace-file";
+
+    /**
+     * Id of {@link ConcurrentApplicationInitializer} among <code>ApplicationInitializer</code> contributions,
+     * it is ordered before <code>ConfigHelper</code> and <code>Liquibase</code> filters.
+     */
+    public static final String CONCURRENT_INITIALIZERS = "ConcurrentInitializers";
+
+    /**
+     * Whether initializers of <code>anjlab-tapestry-config</code> and <code>anjlab-tapestry-liquibase</code> run
+     * on {@link ConcurrentApplicationInitializer}, <code>false</code> by default. Filters ordered before
+     * <code>ConfigHelper</code> or <code>Liquibase</code> should then be ordered before
+     * {@link #CONCURRENT_INITIALIZERS} instead.
+     */
+    public static final String CONCURRENT_MODULE_INITIALIZERS = "anjlab.concurrent-initializer.modules";
+
+    /**
+     * Maximum number of threads that {@link ConcurrentApplicationInitializer} runs initializers on.
+     */
+    public static final String CONCURRENT_INITIALIZER_THREADS = "anjlab.concurrent-initializer.threads";
+
     public static void bind(ServiceBinder binder)
     {
         binder.bind(InjectionHelper.class);
+        binder.bind(RequestMetricsSource.class, RequestMetricsSourceImpl.class);
+        binder.bind(MetricsRegistry.class, MetricsRegistryImpl.class);
+        binder.bind(ConcurrentApplicationInitializer.class, ConcurrentApplicationInitializerImpl.class);
+    }
+
+    public static void contributeFactoryDefaults(MappedConfiguration<String, Object> configuration)
+    {
+        configuration.add(INJECTION_STRATEGY, "reflection");
+        configuration.add(INJECTION_BATCH_SIZE, "500");
+        configuration.add(MDC_EXECUTOR_THREADS, "10");
+        configuration.add(METRICS_JMX, "false");
+        configuration.add(METRICS_JMX_NAME, "");
+        configuration.add(METRICS_FILE, "");
+        configuration.add(METRICS_FILE_INTERVAL, "60000");
+        configuration.add(STARTUP_REPORT, "false");
+        configuration.add(STARTUP_TRACE_FILE, "");
+        configuration.add(CONCURRENT_INITIALIZER_THREADS, "4");
+        configuration.add(CONCURRENT_MODULE_INITIALIZERS, "false");
+    }
+
+    public static void contributeMetricsRegistry(Configuration<MeterBinder> configuration,
+            final RequestMetricsSource requestMetricsSource)
+    {
+        configuration.add(new MeterBinder()
+        {
+            @Override
+            public void bindTo(MetricsRegistry registry)
+            {
+                registry.gauge("http.requests", new Gauge()
+                {
+                    @Override
+                    public double getValue()
+                    {
+                        RequestMetrics metrics = requestMetricsSource.getRequestMetrics();
+                        return metrics == null ? 0 : metrics.getRequestCount();
+                    }
+                });
+                registry.gauge("http.requests.5xx", new Gauge()
+                {
+                    @Override
+                    public double getValue()
+                    {
+                        RequestMetrics metrics = requestMetricsSource.getRequestMetrics();
+                        return metrics == null ? 0 : metrics.getServerErrorCount();
+                    }
+                });
+            }
+        });
+    }
+
+    @Contribute(ApplicationInitializer.class)
+    @Optional
+    public static void addConcurrentInitializers(
+            OrderedConfiguration<ApplicationInitializerFilter> configuration,
+            ConcurrentApplicationInitializer concurrentApplicationInitializer)
+    {
+        configuration.add(CONCURRENT_INITIALIZERS, concurrentApplicationInitializer,
+                "before:ConfigHelper", "before:Liquibase");
+    }
+
+    public static StartupTimeline buildStartupTimeline(RegistryShutdownHub shutdownHub)
+    {
+        final StartupTimeline startupTimeline = StartupTimeline.getDefault();
+
+        shutdownHub.addRegistryShutdownListener(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                startupTimeline.clear();
+            }
+        });
+
+        return startupTimeline;
+    }
+
+    /**
+     * Logs the report and writes the trace of {@link StartupTimeline} if requested, then clears it,
+     * when the application is initialized.
+     */
+    @Contribute(ApplicationInitializer.class)
+    @Optional
+    public static void reportStartupTimeline(
+            OrderedConfiguration<ApplicationInitializerFilter> configuration,
+            final StartupTimeline startupTimeline,
+            @Inject @Symbol(STARTUP_REPORT)
+            final boolean report,
+            @Inject @Symbol(STARTUP_TRACE_FILE)
+            final String traceFile)
+    {
+        configuration.add("StartupTimeline", new ApplicationInitializerFilter()
+        {
+            @Override
+            public void initializeApplication(Context context, ApplicationInitializer initializer)
+            {
+                initializer.initializeApplication(context);
+
+                Logger logger = LoggerFactory.getLogger(StartupTimeline.class);
+
+                try
+                {
+                    if (report)
+                    {
+                        StringWriter writer = new StringWriter();
+                        startupTimeline.writeReport(writer);
+                        logger.info(writer.toString());
+                    }
+
+                    if (!traceFile.isEmpty())
+                    {
+                        Writer writer = new OutputStreamWriter(
+                                new FileOutputStream(traceFile), StandardCharsets.UTF_8);
+                        try
+                        {
+                            startupTimeline.writeTrace(writer);
+                        }
+                        finally
+                        {
+                            writer.close();
+                        }
+                    }
+                }
+                catch (IOException e)
+                {
+                    logger.warn("Unable to write startup timeline", e);
+                }
+                finally
+                {
+                    //  The timeline is static, don't keep phases for the lifetime of the JVM
+                    startupTimeline.clear();
+                }
+            }
+        }, "after:*");
+    }
+
+    @Startup
+    public static void exportMetrics(
+            Logger logger,
+            MetricsRegistry metricsRegistry,
+            @Inject @Symbol(METRICS_JMX)
+            boolean jmx,
+            @Inject @Symbol(METRICS_JMX_NAME)
+            String jmxName,
+            @Inject @Symbol(METRICS_FILE)
+            String file,
+            @Inject @Symbol(METRICS_FILE_INTERVAL)
+            long fileInterval,
+            RegistryShutdownHub shutdownHub)
+    {
+        if (jmx)
+        {
+            final MetricsJmxExporter jmxExporter = new MetricsJmxExporter(metricsRegistry);
+            try
+            {
+                jmxExporter.register(jmxName);
+
+                shutdownHub.addRegistryWillShutdownListener(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            jmxExporter.unregister();
+                        }
+                        catch (JMException e)
+                        {
+                            //  The MBean server is going away with the application
+                        }
+                    }
+                });
+            }
+            catch (JMException e)
+            {
+                logger.warn("Unable to register metrics in JMX", e);
+            }
+        }
+
+        if (!file.isEmpty())
+        {
+            final MetricsFileExporter fileExporter =
+                    new MetricsFileExporter(metricsRegistry, new File(file), fileInterval);
+
+            fileExporter.start();
+
+            shutdownHub.addRegistryWillShutdownListener(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    fileExporter.stop();
+                }
+            });
+        }
+    }
+
+    /**
+     * Executor service that runs tasks with the MDC of the submitting thread, see {@link MDCExecutors}.
+     * Per-thread services are cleaned up after every task, and the executor is shut down with the registry.
+     * <p>
+     * The service is marked with {@link MDCPropagating}, inject it with the marker so it's not confused with
+     * other <code>ExecutorService</code> services of the application.
+     */
+    @Marker(MDCPropagating.class)
+    public static ExecutorService buildMDCExecutorService(
+            @Inject @Symbol(MDC_EXECUTOR_THREADS)
+            int threads,
+            final PerthreadManager perthreadManager,
+            RegistryShutdownHub shutdownHub)
+    {
+        final AtomicInteger threadNumber = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory()
+                {
+                    @Override
+                    public Thread newThread(Runnable runnable)
+                    {
+                        Thread thread = new Thread(runnable, "mdc-executor-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                })
+        {
+            @Override
+            protected void afterExecute(Runnable runnable, Throwable throwable)
+            {
+                perthreadManager.cleanup();
+            }
+        };
+
+        executor.allowCoreThreadTimeOut(true);
+
+        final ExecutorService mdcExecutor = MDCExecutors.wrap(executor);
+
+        shutdownHub.addRegistryWillShutdownListener(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                mdcExecutor.shutdown();
+            }
+        });
+
+        return mdcExecutor;
+    }
+
+    @Startup
+    public static void releaseClasspathScanResources(RegistryShutdownHub shutdownHub)
+    {
+        //  Modules are bound by now, don't keep jar files open for the lifetime of the application
+        ClasspathUtils.releaseScanResources();
+
+        //  Scans made after startup share jar files again, close them so they don't outlive the application
+        shutdownHub.addRegistryShutdownListener(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                ClasspathUtils.releaseScanResources();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
+import org.apache.tapestry5.ioc.annotations.UsesMappedConfiguration;
+
+/**
+ * Application initializer that runs contributed {@link ConcurrentInitializer}s in parallel,
+ * starting every initializer as soon as all of its dependencies have completed.
+ * <p>
+ * If an initializer fails, initializers that depend on it, directly or transitively, are not run, while
+ * the rest still run. After all of them complete the failure of the first failed initializer in dependency order
+ * (ties are broken by name) is thrown, with failures of other initializers added as suppressed exceptions.
+ * So the same initializers are skipped and the same failure is reported whatever order initializers complete in.
+ * <p>
+ * It is contributed to <code>ApplicationInitializer</code> as {@link CommonsModule#CONCURRENT_INITIALIZERS}
+ * before <code>ConfigHelper</code> and <code>Liquibase</code> filters. When
+ * {@link CommonsModule#CONCURRENT_MODULE_INITIALIZERS} symbol is <code>true</code>,
+ * <code>anjlab-tapestry-config</code> and <code>anjlab-tapestry-liquibase</code> contribute their initializers
+ * as <code>ConfigHelper</code> and <code>Liquibase</code> nodes, <code>Liquibase</code> depends on
+ * <code>ConfigHelper</code>.
+ * <p>
+ * Number of threads is set with {@link CommonsModule#CONCURRENT_INITIALIZER_THREADS} symbol.
+ */
+@UsesMappedConfiguration(key = String.class, value = ConcurrentInitializer.class)
+public interface ConcurrentApplicationInitializer extends ApplicationInitializerFilter
+{
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tapestry5.http.services.ApplicationInitializer;
+import org.apache.tapestry5.http.services.Context;
+import org.apache.tapestry5.ioc.annotations.Inject;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.anjlab.tapestry5.services.metrics.StartupPhase;
+import com.anjlab.tapestry5.services.metrics.StartupTimeline;
+
+public class ConcurrentApplicationInitializerImpl implements ConcurrentApplicationInitializer
+{
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentApplicationInitializerImpl.class);
+
+    private final PerthreadManager perthreadManager;
+
+    private final int threads;
+
+    /**
+     * Initializers in dependency order, ties are broken by name.
+     */
+    private final List<Node> nodes;
+
+    private static class Node
+    {
+        final String name;
+        final ConcurrentInitializer initializer;
+        final List<Node> dependents = new ArrayList<Node>();
+
+        int order;
+        int dependencyCount;
+
+        Node(String name, ConcurrentInitializer initializer)
+        {
+            this.name = name;
+            this.initializer = initializer;
+        }
+    }
+
+    private static class Completion
+    {
+        final Node node;
+        final Throwable failure;
+
+        Completion(Node node, Throwable failure)
+        {
+            this.node = node;
+            this.failure = failure;
+        }
+    }
+
+    public ConcurrentApplicationInitializerImpl(
+            Map<String, ConcurrentInitializer> initializers,
+            PerthreadManager perthreadManager,
+            @Inject @Symbol(CommonsModule.CONCURRENT_INITIALIZER_THREADS) int threads)
+    {
+        if (threads < 1)
+        {
+            throw new IllegalArgumentException(
+                    CommonsModule.CONCURRENT_INITIALIZER_THREADS + " should be positive: " + threads);
+        }
+
+        this.perthreadManager = perthreadManager;
+        this.threads = threads;
+        this.nodes = sort(initializers);
+    }
+
+    private static List<Node> sort(Map<String, ConcurrentInitializer> initializers)
+    {
+        Map<String, Node> nodes = new TreeMap<String, Node>();
+
+        for (Map.Entry<String, ConcurrentInitializer> entry : initializers.entrySet())
+        {
+            nodes.put(entry.getKey(), new Node(entry.getKey(), entry.getValue()));
+        }
+
+        for (Node node : nodes.values())
+        {
+            for (String dependency : node.initializer.getDependencies())
+            {
+                Node dependencyNode = nodes.get(dependency);
+
+                if (dependencyNode == null)
+                {
+                    logger.debug("Initializer '{}' depends on '{}' that was not contributed, the dependency is ignored",
+                            node.name, dependency);
+                    continue;
+                }
+
+                if (!dependencyNode.dependents.contains(node))
+                {
+                    dependencyNode.dependents.add(node);
+                    node.dependencyCount++;
+                }
+            }
+        }
+
+        //  Kahn's algorithm, picking initializers in name order when there's a choice
+        Map<String, Integer> remaining = new TreeMap<String, Integer>();
+        TreeSet<String> ready = new TreeSet<String>();
+
+        for (Node node : nodes.values())
+        {
+            remaining.put(node.name, node.dependencyCount);
+            if (node.dependencyCount == 0)
+            {
+                ready.add(node.name);
+            }
+        }
+
+        List<Node> sorted = new ArrayList<Node>(nodes.size());
+
+        while (!ready.isEmpty())
+        {
+            Node node = nodes.get(ready.pollFirst());
+
+            node.order = sorted.size();
+            sorted.add(node);
+
+            for (Node dependent : node.dependents)
+            {
+                int count = remaining.get(dependent.name) - 1;
+                remaining.put(dependent.name, count);
+                if (count == 0)
+                {
+                    ready.add(dependent.name);
+                }
+            }
+        }
+
+        if (sorted.size() < nodes.size())
+        {
+            List<String> cycle = new ArrayList<String>();
+            for (Map.Entry<String, Integer> entry : remaining.entrySet())
+            {
+                if (entry.getValue() > 0)
+                {
+                    cycle.add(entry.getKey());
+                }
+            }
+            throw new IllegalStateException("Initializers have circular dependencies: " + cycle);
+        }
+
+        return Collections.unmodifiableList(sorted);
+    }
+
+    @Override
+    public void initializeApplication(Context context, ApplicationInitializer initializer)
+    {
+        if (!nodes.isEmpty())
+        {
+            runAll(context);
+        }
+
+        initializer.initializeApplication(context);
+    }
+
+    private void runAll(Context context)
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, nodes.size()),
+                new ThreadFactory()
+                {
+                    private final AtomicInteger counter = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable)
+                    {
+                        Thread thread = new Thread(runnable, "initializer-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+        BlockingQueue<Completion> completions = new LinkedBlockingQueue<Completion>();
+
+        //  Only this thread submits initializers, so dependency counts don't need synchronization
+        int[] dependencyCounts = new int[nodes.size()];
+        for (Node node : nodes)
+        {
+            dependencyCounts[node.order] = node.dependencyCount;
+        }
+
+        List<Completion> failures = new ArrayList<Completion>();
+        int running = 0;
+        int completed = 0;
+
+        try
+        {
+            for (Node node : nodes)
+            {
+                if (node.dependencyCount == 0)
+                {
+                    submit(executor, completions, node, context);
+                    running++;
+                }
+            }
+
+            while (running > 0)
+            {
+                Completion completion = completions.take();
+                running--;
+                completed++;
+
+                if (completion.failure != null)
+                {
+                    //  Dependents of the failed initializer are never started, independent ones still run,
+                    //  so the same initializers are skipped whatever order they complete in
+                    failures.add(completion);
+                    continue;
+                }
+
+                for (Node dependent : completion.node.dependents)
+                {
+                    if (--dependencyCounts[dependent.order] == 0)
+                    {
+                        submit(executor, completions, dependent, context);
+                        running++;
+                    }
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for initializers", e);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        if (!failures.isEmpty())
+        {
+            throw failure(failures, nodes.size() - completed);
+        }
+    }
+
+    private void submit(ExecutorService executor, final BlockingQueue<Completion> completions,
+            final Node node, final Context context)
+    {
+        executor.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                Throwable failure = null;
+
+                StartupPhase phase = StartupTimeline.getDefault().begin("initializer " + node.name);
+                try
+                {
+                    final boolean[] continued = new boolean[1];
+
+                    node.initializer.getFilter().initializeApplication(context, new ApplicationInitializer()
+                    {
+                        @Override
+                        public void initializeApplication(Context context)
+                        {
+                            continued[0] = true;
+                        }
+                    });
+
+                    if (!continued[0])
+                    {
+                        throw new IllegalStateException("Initializer '" + node.name
+                                + "' didn't pass control to the next initializer");
+                    }
+                }
+                catch (Throwable e)
+                {
+                    failure = e;
+                }
+                finally
+                {
+                    phase.end();
+
+                    perthreadManager.cleanup();
+
+                    completions.add(new Completion(node, failure));
+                }
+            }
+        });
+    }
+
+    private static RuntimeException failure(List<Completion> failures, int skipped)
+    {
+        List<Completion> sorted = new ArrayList<Completion>(failures);
+        Collections.sort(sorted, new Comparator<Completion>()
+        {
+            @Override
+            public int compare(Completion o1, Completion o2)
+            {
+                return Integer.compare(o1.node.order, o2.node.order);
+            }
+        });
+
+        Completion first = sorted.get(0);
+
+        RuntimeException exception = new RuntimeException("Initializer '" + first.node.name + "' failed"
+                + (sorted.size() > 1 ? ", " + (sorted.size() - 1) + " other initializer(s) failed too" : "")
+                + (skipped > 0 ? ", " + skipped + " initializer(s) were not run" : ""),
+                first.failure);
+
+        for (Completion other : sorted.subList(1, sorted.size()))
+        {
+            exception.addSuppressed(other.failure);
+        }
+
+        return exception;
+    }
+}
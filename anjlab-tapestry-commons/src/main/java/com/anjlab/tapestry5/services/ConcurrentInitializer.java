@@ -0,0 +1,59 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
+
+/**
+ * {@link ApplicationInitializerFilter} run by {@link ConcurrentApplicationInitializer} together with the names of
+ * initializers it depends on.
+ */
+public final class ConcurrentInitializer
+{
+    private final ApplicationInitializerFilter filter;
+    private final List<String> dependencies;
+
+    /**
+     * @param filter Filter that does its work and passes control to the next initializer, the filter is not expected
+     *               to do anything after the next initializer returns.
+     * @param dependencies Names of initializers contributed to {@link ConcurrentApplicationInitializer} that should
+     *                     complete before this one starts. Names that were not contributed are ignored.
+     */
+    public ConcurrentInitializer(ApplicationInitializerFilter filter, String... dependencies)
+    {
+        if (filter == null)
+        {
+            throw new IllegalArgumentException("filter is null");
+        }
+
+        this.filter = filter;
+        this.dependencies = Collections.unmodifiableList(Arrays.asList(dependencies.clone()));
+    }
+
+    public ApplicationInitializerFilter getFilter()
+    {
+        return filter;
+    }
+
+    public List<String> getDependencies()
+    {
+        return dependencies;
+    }
+}
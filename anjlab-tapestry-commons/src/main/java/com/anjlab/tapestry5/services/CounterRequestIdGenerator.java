@@ -0,0 +1,45 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Generates sequential numbers from a single counter, optionally prefixed with the node prefix,
+ * i.e. <code>42</code> or <code>node1-42</code>.
+ */
+public class CounterRequestIdGenerator implements RequestIdGenerator
+{
+    private final String prefix;
+
+    private final AtomicLong requestCounter = new AtomicLong(0);
+
+    /**
+     * @param prefix Prefix that identifies this node in the cluster, may be empty.
+     */
+    public CounterRequestIdGenerator(String prefix)
+    {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void appendRequestId(HttpServletRequest request, StringBuilder buffer)
+    {
+        buffer.append(prefix).append(requestCounter.incrementAndGet());
+    }
+}
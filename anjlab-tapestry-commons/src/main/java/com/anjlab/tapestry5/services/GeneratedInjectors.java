@@ -0,0 +1,235 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import org.apache.tapestry5.internal.plastic.asm.ClassWriter;
+import org.apache.tapestry5.internal.plastic.asm.MethodVisitor;
+import org.apache.tapestry5.internal.plastic.asm.Opcodes;
+import org.apache.tapestry5.internal.plastic.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Generates injectors of {@link InjectionStrategy#METHOD_HANDLES} with the ASM of Plastic.
+ * <p>
+ * Every injector is a class of its own that keeps its {@link MethodHandle}s in <code>static final</code> fields,
+ * so the JIT compiler treats them as constants and inlines field writes and the post-injection method call
+ * into the injector. Handles stored in instance fields are not constants and are invoked without inlining.
+ * <p>
+ * Generated classes only refer to JDK classes and are defined by a class loader of their own, which is
+ * only reachable from the injector. This way they are collected together with the target class and never
+ * keep its class loader reachable.
+ */
+final class GeneratedInjectors
+{
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String OBJECT_ARRAY = Type.getDescriptor(Object[].class);
+    private static final String METHOD_HANDLE = Type.getInternalName(MethodHandle.class);
+    private static final String METHOD_HANDLE_DESCRIPTOR = Type.getDescriptor(MethodHandle.class);
+
+    private GeneratedInjectors()
+    {
+    }
+
+    /**
+     * @param setters Setters of type <code>(Object, Object)void</code>.
+     * @return Injector that calls each setter with the target and the value of the same index.
+     */
+    static BiConsumer<Object, Object[]> fieldsWriter(Class<?> targetClass, MethodHandle[] setters)
+    {
+        String className = targetClass.getName() + "$$FieldsWriter";
+
+        ClassWriter writer = createClass(className, setters.length);
+
+        MethodVisitor method = beginAccept(writer);
+
+        for (int i = 0; i < setters.length; i++)
+        {
+            method.visitFieldInsn(Opcodes.GETSTATIC, internalName(className), "handle" + i, METHOD_HANDLE_DESCRIPTOR);
+            method.visitVarInsn(Opcodes.ALOAD, 1);
+            loadValue(method, i);
+            method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact",
+                    "(Ljava/lang/Object;Ljava/lang/Object;)V", false);
+        }
+
+        endAccept(method);
+
+        return instantiate(className, writer, setters);
+    }
+
+    /**
+     * @param invoker Method handle of type <code>(Object, Object...)void</code> with
+     *                <code>parameterCount</code> parameters after the target.
+     * @return Injector that calls the method with the target and the parameters.
+     */
+    static BiConsumer<Object, Object[]> methodInvoker(Class<?> targetClass, MethodHandle invoker, int parameterCount)
+    {
+        String className = targetClass.getName() + "$$PostInjection";
+
+        ClassWriter writer = createClass(className, 1);
+
+        MethodVisitor method = beginAccept(writer);
+
+        StringBuilder descriptor = new StringBuilder("(Ljava/lang/Object;");
+
+        method.visitFieldInsn(Opcodes.GETSTATIC, internalName(className), "handle0", METHOD_HANDLE_DESCRIPTOR);
+        method.visitVarInsn(Opcodes.ALOAD, 1);
+
+        for (int i = 0; i < parameterCount; i++)
+        {
+            loadValue(method, i);
+            descriptor.append("Ljava/lang/Object;");
+        }
+
+        method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact",
+                descriptor.append(")V").toString(), false);
+
+        endAccept(method);
+
+        return instantiate(className, writer, new MethodHandle[] { invoker });
+    }
+
+    /**
+     * Class with <code>handleN</code> fields that are initialized from {@link InjectorClassLoader#get()}.
+     */
+    private static ClassWriter createClass(String className, int handleCount)
+    {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+                internalName(className), null, OBJECT, new String[] { Type.getInternalName(BiConsumer.class) });
+
+        for (int i = 0; i < handleCount; i++)
+        {
+            writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
+                    "handle" + i, METHOD_HANDLE_DESCRIPTOR, null, null).visitEnd();
+        }
+
+        MethodVisitor initializer = writer.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+        initializer.visitCode();
+        initializer.visitLdcInsn(Type.getObjectType(internalName(className)));
+        initializer.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Class.class),
+                "getClassLoader", "()Ljava/lang/ClassLoader;", false);
+        initializer.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(Supplier.class));
+        initializer.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Supplier.class),
+                "get", "()Ljava/lang/Object;", true);
+        initializer.visitTypeInsn(Opcodes.CHECKCAST, OBJECT_ARRAY);
+        initializer.visitVarInsn(Opcodes.ASTORE, 0);
+        for (int i = 0; i < handleCount; i++)
+        {
+            initializer.visitVarInsn(Opcodes.ALOAD, 0);
+            initializer.visitLdcInsn(i);
+            initializer.visitInsn(Opcodes.AALOAD);
+            initializer.visitTypeInsn(Opcodes.CHECKCAST, METHOD_HANDLE);
+            initializer.visitFieldInsn(Opcodes.PUTSTATIC, internalName(className), "handle" + i,
+                    METHOD_HANDLE_DESCRIPTOR);
+        }
+        initializer.visitInsn(Opcodes.RETURN);
+        initializer.visitMaxs(0, 0);
+        initializer.visitEnd();
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        return writer;
+    }
+
+    /**
+     * Begins <code>accept(Object target, Object values)</code> that keeps values as <code>Object[]</code>
+     * in the local variable 3.
+     */
+    private static MethodVisitor beginAccept(ClassWriter writer)
+    {
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "accept",
+                "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 2);
+        method.visitTypeInsn(Opcodes.CHECKCAST, OBJECT_ARRAY);
+        method.visitVarInsn(Opcodes.ASTORE, 3);
+        return method;
+    }
+
+    private static void loadValue(MethodVisitor method, int index)
+    {
+        method.visitVarInsn(Opcodes.ALOAD, 3);
+        method.visitLdcInsn(index);
+        method.visitInsn(Opcodes.AALOAD);
+    }
+
+    private static void endAccept(MethodVisitor method)
+    {
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object[]> instantiate(String className, ClassWriter writer,
+            MethodHandle[] handles)
+    {
+        writer.visitEnd();
+
+        try
+        {
+            return (BiConsumer<Object, Object[]>) new InjectorClassLoader(handles)
+                    .define(className, writer.toByteArray())
+                    .getConstructor()
+                    .newInstance();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new RuntimeException("Unable to create " + className, e);
+        }
+    }
+
+    private static String internalName(String className)
+    {
+        return className.replace('.', '/');
+    }
+
+    /**
+     * Defines a single injector class and hands the method handles over to its static initializer.
+     */
+    private static final class InjectorClassLoader extends ClassLoader implements Supplier<Object[]>
+    {
+        private final MethodHandle[] handles;
+
+        InjectorClassLoader(MethodHandle[] handles)
+        {
+            super(GeneratedInjectors.class.getClassLoader());
+
+            this.handles = handles;
+        }
+
+        Class<?> define(String className, byte[] bytes)
+        {
+            return defineClass(className, bytes, 0, bytes.length);
+        }
+
+        @Override
+        public Object[] get()
+        {
+            return handles;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Reuses request ID from a header of the incoming request, i.e. <code>X-Request-Id</code> set by a load balancer,
+ * and falls back to another generator if the header is missing.
+ * <p>
+ * Header values longer than {@link #MAX_LENGTH} or with characters other than letters, digits
+ * and <code>.-_:</code> are ignored, so clients can't inject arbitrary text into logs.
+ */
+public class HeaderRequestIdGenerator implements RequestIdGenerator
+{
+    public static final String X_REQUEST_ID = "X-Request-Id";
+
+    static final int MAX_LENGTH = 128;
+
+    private final String headerName;
+
+    private final RequestIdGenerator fallback;
+
+    public HeaderRequestIdGenerator(String headerName, RequestIdGenerator fallback)
+    {
+        this.headerName = headerName;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void appendRequestId(HttpServletRequest request, StringBuilder buffer)
+    {
+        String requestId = request.getHeader(headerName);
+
+        if (isValid(requestId))
+        {
+            buffer.append(requestId);
+        }
+        else
+        {
+            fallback.appendRequestId(request, buffer);
+        }
+    }
+
+    static boolean isValid(String requestId)
+    {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_LENGTH)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < requestId.length(); i++)
+        {
+            char c = requestId.charAt(i);
+
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || c == '-' || c == '_' || c == '.' || c == ':'))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
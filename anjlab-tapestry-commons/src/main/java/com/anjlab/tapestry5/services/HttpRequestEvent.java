@@ -0,0 +1,53 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for the part of a request that {@link MDCInsertingServletFilter} runs on a thread:
+ * from the start of the request, or of the async dispatch, till the filter chain returns.
+ */
+@Name("com.anjlab.tapestry5.HttpRequest")
+@Label("HTTP Request")
+@Category({ "AnjLab Tapestry", "HTTP" })
+@Description("Request handled by MDCInsertingServletFilter")
+@StackTrace(false)
+class HttpRequestEvent extends jdk.jfr.Event
+{
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Request ID")
+    String requestId;
+
+    @Label("Status")
+    @Description("Response status, 500 if the filter chain threw")
+    int status;
+
+    @Label("Async Started")
+    boolean asyncStarted;
+
+    @Label("Async Dispatch")
+    boolean asyncDispatch;
+}
@@ -15,6 +15,7 @@
  */
 package com.anjlab.tapestry5.services;
 
+import java.util.concurrent.CompletableFuture;
 
 public interface InjectionHelper
 {
@@ -25,4 +26,22 @@ public interface InjectionHelper
 
     void inject(Object target);
 
+    /**
+     * Same as {@link #inject(Object)} for every object, objects are grouped by class.
+     * Batches larger than {@link CommonsModule#INJECTION_BATCH_SIZE} are injected in parallel.
+     * <p>
+     * <code>null</code> elements are ignored.
+     */
+    void injectAll(Iterable<?> targets);
+
+    /**
+     * Asynchronous version of {@link #injectAll(Iterable)}, objects are injected using
+     * {@link org.apache.tapestry5.ioc.services.ParallelExecutor}. Batches the executor rejects,
+     * i.e. because its queue is full, are injected by the calling thread.
+     *
+     * @return Future that completes when all objects are injected, or completes exceptionally if injection
+     * of any of them failed.
+     */
+    CompletableFuture<Void> injectAllAsync(Iterable<?> targets);
+
 }
@@ -15,129 +15,383 @@
  */
 package com.anjlab.tapestry5.services;
 
-import org.apache.tapestry5.commons.ObjectCreator;
 import org.apache.tapestry5.commons.ObjectLocator;
-import org.apache.tapestry5.ioc.OperationTracker;
+import org.apache.tapestry5.ioc.Invokable;
 import org.apache.tapestry5.ioc.ReloadAware;
 import org.apache.tapestry5.ioc.annotations.Inject;
-import org.apache.tapestry5.ioc.annotations.PostInjection;
-import org.apache.tapestry5.ioc.internal.OperationTrackerImpl;
+import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.commons.util.CollectionFactory;
 import org.apache.tapestry5.ioc.internal.util.InjectionResources;
-import org.apache.tapestry5.ioc.internal.util.InternalUtils;
 import org.apache.tapestry5.ioc.internal.util.MapInjectionResources;
+import org.apache.tapestry5.ioc.services.ParallelExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.annotation.PostConstruct;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class InjectionHelperImpl implements InjectionHelper, ReloadAware
 {
     private static final Logger logger = LoggerFactory.getLogger(InjectionHelperImpl.class);
 
-    @Inject
-    private ObjectLocator locator;
+    private final ObjectLocator locator;
 
-    private final Map<Class<?>, Method> postInjectionMethodsCache =
-            new ConcurrentHashMap<Class<?>, Method>();
+    private final InjectionResources injectionResources;
 
-    @Override
-    public void inject(Object target)
+    private final InjectionStrategy strategy;
+
+    private final Executor executor;
+
+    private final int batchSize;
+
+    /**
+     * Plans are kept by the classes themselves, so they are collected together with classes of
+     * reloaded or redeployed class loaders, and never keep these class loaders reachable.
+     */
+    private final ClassValue<InjectionPlan> injectionPlans = new ClassValue<InjectionPlan>()
     {
-        injectFields(target);
-        try
+        @Override
+        protected InjectionPlan computeValue(Class<?> targetClass)
         {
-            invokePostInjection(target, false);
+            return InjectionPlan.create(targetClass, injectionResources, strategy);
         }
-        catch (NoSuchMethodException e)
+    };
+
+    /**
+     * Plans bound to this registry, with services and other values that are the same for every object
+     * already looked up. Like {@link #injectionPlans} they are kept by the classes themselves, so plans of classes
+     * of a discarded class loader go away with it, while plans of other classes stay valid: looked up services
+     * are proxies that survive reloading of their implementations.
+     */
+    private final ClassValue<InjectionPlan.Bound> boundPlans = new ClassValue<InjectionPlan.Bound>()
+    {
+        @Override
+        protected InjectionPlan.Bound computeValue(Class<?> targetClass)
         {
-            // This exception shouldn't ever be thrown,
-            // but we still re-throw it just to verify it isn't there in tests
-            throw new RuntimeException(e);
+            //  ClassValue doesn't lock while computing, so looking up values may inject other objects of this helper
+            return injectionPlans.get(targetClass).bind(locator, injectionResources, logger);
+        }
+    };
+
+    public InjectionHelperImpl(
+            ObjectLocator locator,
+            @Inject @Symbol(CommonsModule.INJECTION_STRATEGY) String strategy,
+            final ParallelExecutor parallelExecutor,
+            @Inject @Symbol(CommonsModule.INJECTION_BATCH_SIZE) int batchSize)
+    {
+        this(locator,
+                InjectionStrategy.valueOf(strategy.trim().toUpperCase(Locale.ROOT).replace('-', '_')),
+                new Executor()
+                {
+                    @Override
+                    public void execute(final Runnable command)
+                    {
+                        parallelExecutor.invoke(new Invokable<Void>()
+                        {
+                            @Override
+                            public Void invoke()
+                            {
+                                command.run();
+                                return null;
+                            }
+                        });
+                    }
+                },
+                batchSize);
+    }
+
+    InjectionHelperImpl(ObjectLocator locator, InjectionStrategy strategy, Executor executor, int batchSize)
+    {
+        if (batchSize <= 0)
+        {
+            throw new IllegalArgumentException(CommonsModule.INJECTION_BATCH_SIZE + " must be positive: " + batchSize);
+        }
+
+        this.locator = locator;
+        this.strategy = strategy;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.injectionResources = createInjectionResources(locator);
+    }
+
+    @Override
+    public void inject(Object target)
+    {
+        inject(getInjectionPlan(target.getClass()), target);
+    }
+
+    private static void inject(InjectionPlan.Bound plan, Object target)
+    {
+        plan.injectFields(target);
+
+        if (plan.getPlan().hasPostInjectionMethod())
+        {
+            plan.invokePostInjection(target);
         }
     }
 
     @Override
     public void injectFields(Object target)
     {
-        InternalUtils.injectIntoFields(
-                target, locator, createInjectionResources(), createOperationTracker());
+        getInjectionPlan(target.getClass()).injectFields(target);
     }
 
     @Override
     public void invokePostInjection(Object target) throws NoSuchMethodException
     {
-        invokePostInjection(target, true);
+        InjectionPlan.Bound plan = getInjectionPlan(target.getClass());
+
+        if (!plan.getPlan().hasPostInjectionMethod())
+        {
+            throw new NoSuchMethodException(target.getClass().getName()
+                    + " doesn't have public methods annotated with @PostInjection or @PostConstruct");
+        }
+
+        plan.invokePostInjection(target);
     }
 
-    private void invokePostInjection(Object target, boolean failIfMethodMissing)
-            throws NoSuchMethodException
+    @Override
+    public void injectAll(Iterable<?> targets)
     {
-        Class<?> targetClass = target.getClass();
+        List<Runnable> batches = createBatches(targets);
 
-        final Method method;
+        if (batches.isEmpty())
+        {
+            return;
+        }
+
+        BatchQueue queue = new BatchQueue(batches);
 
-        if (postInjectionMethodsCache.containsKey(targetClass))
+        for (int i = 1; i < batches.size(); i++)
+        {
+            try
+            {
+                executor.execute(queue);
+            }
+            catch (RejectedExecutionException e)
+            {
+                //  Calling thread will inject the rest
+                break;
+            }
+        }
+
+        //  Calling thread takes batches too, so it never waits for batches that are still queued,
+        //  which would starve the executor if injectAll() is called from one of its threads
+        queue.run();
+
+        queue.await();
+    }
+
+    @Override
+    public CompletableFuture<Void> injectAllAsync(Iterable<?> targets)
+    {
+        List<Runnable> batches;
+
+        try
         {
-            method = postInjectionMethodsCache.get(targetClass);
+            //  Binds plans of new classes, which looks up their values
+            batches = createBatches(targets);
         }
-        else
+        catch (RuntimeException e)
         {
-            method = findPostInjectionMethod(targetClass);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return runAsync(batches);
+    }
+
+    private CompletableFuture<Void> runAsync(List<Runnable> batches)
+    {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[batches.size()];
 
-            if (method == null)
+        for (int i = 0; i < futures.length; i++)
+        {
+            try
             {
-                if (failIfMethodMissing)
-                {
-                    throw new NoSuchMethodException(targetClass.getName()
-                            + " doesn't have public methods annotated with @PostInjection or @PostConstruct");
-                }
+                futures[i] = CompletableFuture.runAsync(batches.get(i), executor);
+            }
+            catch (RejectedExecutionException e)
+            {
+                //  Calling thread injects the batch like in injectAll(), failures are reported by the future
+                futures[i] = run(batches.get(i));
+            }
+        }
 
-                return;
+        return CompletableFuture.allOf(futures);
+    }
+
+    private static CompletableFuture<Void> run(Runnable batch)
+    {
+        try
+        {
+            batch.run();
+        }
+        catch (Throwable e)
+        {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Groups objects by class and splits groups into batches of {@link #batchSize} objects.
+     */
+    private List<Runnable> createBatches(Iterable<?> targets)
+    {
+        Map<Class<?>, List<Object>> groups = new LinkedHashMap<Class<?>, List<Object>>();
+
+        for (Object target : targets)
+        {
+            if (target == null)
+            {
+                continue;
+            }
+
+            List<Object> group = groups.get(target.getClass());
+
+            if (group == null)
+            {
+                group = new ArrayList<Object>();
+                groups.put(target.getClass(), group);
             }
 
-            postInjectionMethodsCache.put(targetClass, method);
+            group.add(target);
         }
 
-        if (method != null)
+        List<Runnable> batches = new ArrayList<Runnable>();
+
+        for (Map.Entry<Class<?>, List<Object>> group : groups.entrySet())
         {
-            invokeMethodWithParameters(target, method);
+            InjectionPlan.Bound plan = getInjectionPlan(group.getKey());
+            List<Object> objects = group.getValue();
+
+            for (int from = 0; from < objects.size(); from += batchSize)
+            {
+                batches.add(new Batch(plan, objects.subList(from, Math.min(from + batchSize, objects.size()))));
+            }
         }
+
+        return batches;
     }
 
-    private void invokeMethodWithParameters(Object target, Method method)
+    /**
+     * Batches taken by the calling thread and executor threads, whichever comes first.
+     */
+    private static class BatchQueue implements Runnable
     {
-        ObjectCreator<?>[] parameters = InternalUtils.calculateParametersForMethod(
-                method, locator, createInjectionResources(), createOperationTracker());
+        private final List<Runnable> batches;
+        private final AtomicInteger next = new AtomicInteger();
+        private final CountDownLatch done;
+        private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
 
-        try
+        BatchQueue(List<Runnable> batches)
         {
-            method.invoke(target, InternalUtils.realizeObjects(parameters));
+            this.batches = batches;
+            this.done = new CountDownLatch(batches.size());
         }
-        catch (IllegalAccessException e)
+
+        @Override
+        public void run()
         {
-            throw new RuntimeException(e);
+            for (int i = next.getAndIncrement(); i < batches.size(); i = next.getAndIncrement())
+            {
+                try
+                {
+                    batches.get(i).run();
+                }
+                catch (Throwable e)
+                {
+                    failure.compareAndSet(null, e);
+                }
+                finally
+                {
+                    done.countDown();
+                }
+            }
         }
-        catch (IllegalArgumentException e)
+
+        /**
+         * Waits for batches taken by other threads, these are already running.
+         */
+        void await()
         {
-            throw new RuntimeException(e);
+            boolean interrupted = false;
+
+            while (done.getCount() > 0)
+            {
+                try
+                {
+                    done.await();
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            Throwable e = failure.get();
+
+            if (e instanceof RuntimeException)
+            {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error)
+            {
+                throw (Error) e;
+            }
+            if (e != null)
+            {
+                throw new RuntimeException(e);
+            }
         }
-        catch (InvocationTargetException e)
+    }
+
+    /**
+     * Objects of the same class.
+     */
+    private static class Batch implements Runnable
+    {
+        private final InjectionPlan.Bound plan;
+        private final List<Object> targets;
+
+        Batch(InjectionPlan.Bound plan, List<Object> targets)
         {
-            throw new RuntimeException(e);
+            this.plan = plan;
+            this.targets = targets;
+        }
+
+        @Override
+        public void run()
+        {
+            for (Object target : targets)
+            {
+                inject(plan, target);
+            }
         }
     }
 
-    private OperationTracker createOperationTracker()
+    private InjectionPlan.Bound getInjectionPlan(Class<?> targetClass)
     {
-        return new OperationTrackerImpl(logger);
+        //  Plans are cached for classes without injections and post-injection methods too
+        return boundPlans.get(targetClass);
     }
 
-    private InjectionResources createInjectionResources()
+    private static InjectionResources createInjectionResources(ObjectLocator locator)
     {
         @SuppressWarnings("rawtypes")
         Map<Class, Object> resourceMap = CollectionFactory.newMap();
@@ -149,23 +403,11 @@ public class InjectionHelperImpl implements InjectionHelper, ReloadAware
         return injectionResources;
     }
 
-    private Method findPostInjectionMethod(Class<?> targetClass)
-    {
-        for (Method method : targetClass.getMethods())
-        {
-            if (method.getAnnotation(PostInjection.class) != null
-                    || method.getAnnotation(PostConstruct.class) != null)
-            {
-                return method;
-            }
-        }
-        return null;
-    }
-
     @Override
     public boolean shutdownImplementationForReload()
     {
-        postInjectionMethodsCache.clear();
+        //  Nothing to drop: reloaded classes are new Class instances with their own plans, and plans
+        //  of the discarded Class instances are only reachable from them
         return true;
     }
 
@@ -0,0 +1,602 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import org.apache.tapestry5.commons.AnnotationProvider;
+import org.apache.tapestry5.commons.ObjectLocator;
+import org.apache.tapestry5.ioc.Invokable;
+import org.apache.tapestry5.ioc.OperationTracker;
+import org.apache.tapestry5.ioc.internal.OperationTrackerImpl;
+import org.apache.tapestry5.ioc.annotations.Autobuild;
+import org.apache.tapestry5.ioc.annotations.Inject;
+import org.apache.tapestry5.ioc.annotations.InjectResource;
+import org.apache.tapestry5.ioc.annotations.InjectService;
+import org.apache.tapestry5.ioc.annotations.PostInjection;
+import org.apache.tapestry5.ioc.internal.util.InjectionResources;
+import org.apache.tapestry5.ioc.internal.util.InternalUtils;
+
+import org.slf4j.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Named;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Injectable fields and post-injection method of a class, resolved once per class.
+ * <p>
+ * Fields are resolved with the same rules as
+ * {@link InternalUtils#injectIntoFields(Object, ObjectLocator, InjectionResources, OperationTracker)},
+ * and parameters of the post-injection method with the same rules as
+ * {@link InternalUtils#calculateParametersForMethod(Method, ObjectLocator, InjectionResources, OperationTracker)}.
+ * <p>
+ * Plans don't keep references to the {@link ObjectLocator} or injection resources. This way a plan
+ * only references its own class and can be kept in a {@link ClassValue} without pinning the registry
+ * and its class loader. A plan is {@link #bind bound} to a registry once, which looks up the values
+ * of fields and parameters, except values that must be unique per object,
+ * i.e. fields and parameters annotated with {@link Autobuild}. Only these are looked up on every injection.
+ * <p>
+ * Fields are written and the post-injection method is invoked according to the {@link InjectionStrategy}.
+ */
+final class InjectionPlan
+{
+    private static final FieldInjection[] NO_FIELDS = new FieldInjection[0];
+
+    private final FieldInjection[] fields;
+
+    private final FieldsWriter fieldsWriter;
+
+    private final Method postInjectionMethod;
+
+    private final MethodInvoker postInjectionInvoker;
+
+    private final ValueSource[] postInjectionParameters;
+
+    interface FieldsWriter
+    {
+        /**
+         * @param values Values of fields of the plan, in the same order.
+         */
+        void set(Object target, Object[] values) throws Throwable;
+    }
+
+    interface MethodInvoker
+    {
+        void invoke(Object target, Object[] parameters) throws Throwable;
+    }
+
+    private InjectionPlan(FieldInjection[] fields, FieldsWriter fieldsWriter, Method postInjectionMethod,
+            MethodInvoker postInjectionInvoker, ValueSource[] postInjectionParameters)
+    {
+        this.fields = fields;
+        this.fieldsWriter = fieldsWriter;
+        this.postInjectionMethod = postInjectionMethod;
+        this.postInjectionInvoker = postInjectionInvoker;
+        this.postInjectionParameters = postInjectionParameters;
+    }
+
+    /**
+     * @param resources Injection resources, only used to find out which types are resources.
+     */
+    static InjectionPlan create(Class<?> targetClass, InjectionResources resources, InjectionStrategy strategy)
+    {
+        try
+        {
+            return doCreate(targetClass, resources, strategy);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static InjectionPlan doCreate(Class<?> targetClass, InjectionResources resources,
+            InjectionStrategy strategy) throws IllegalAccessException
+    {
+        List<FieldInjection> fields = new ArrayList<FieldInjection>();
+
+        for (Class<?> clazz = targetClass; clazz != Object.class && clazz != null; clazz = clazz.getSuperclass())
+        {
+            for (Field field : clazz.getDeclaredFields())
+            {
+                ValueSource source = createFieldValueSource(field, resources);
+
+                if (source != null)
+                {
+                    field.setAccessible(true);
+                    fields.add(new FieldInjection(field, source));
+                }
+            }
+        }
+
+        FieldInjection[] fieldInjections = fields.isEmpty()
+                ? NO_FIELDS
+                : fields.toArray(new FieldInjection[fields.size()]);
+
+        FieldsWriter fieldsWriter = null;
+
+        if (fieldInjections.length > 0)
+        {
+            Field[] injectedFields = new Field[fieldInjections.length];
+
+            for (int i = 0; i < injectedFields.length; i++)
+            {
+                injectedFields[i] = fieldInjections[i].field;
+            }
+
+            fieldsWriter = strategy.fieldsWriter(targetClass, injectedFields);
+        }
+
+        Method postInjectionMethod = findPostInjectionMethod(targetClass);
+
+        if (postInjectionMethod == null)
+        {
+            return new InjectionPlan(fieldInjections, fieldsWriter, null, null, null);
+        }
+
+        Class<?>[] parameterTypes = postInjectionMethod.getParameterTypes();
+        Type[] genericParameterTypes = postInjectionMethod.getGenericParameterTypes();
+        Annotation[][] parameterAnnotations = postInjectionMethod.getParameterAnnotations();
+
+        ValueSource[] postInjectionParameters = new ValueSource[parameterTypes.length];
+
+        for (int i = 0; i < parameterTypes.length; i++)
+        {
+            postInjectionParameters[i] = createParameterValueSource(
+                    parameterTypes[i], genericParameterTypes[i], parameterAnnotations[i], resources);
+        }
+
+        postInjectionMethod.setAccessible(true);
+
+        return new InjectionPlan(
+                fieldInjections,
+                fieldsWriter,
+                postInjectionMethod,
+                strategy.methodInvoker(postInjectionMethod),
+                postInjectionParameters);
+    }
+
+    /**
+     * @return Source of the field value or <code>null</code> if the field isn't injectable.
+     */
+    private static ValueSource createFieldValueSource(final Field field, InjectionResources resources)
+    {
+        int modifiers = field.getModifiers();
+
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers))
+        {
+            return null;
+        }
+
+        InjectService injectService = field.getAnnotation(InjectService.class);
+
+        if (injectService != null)
+        {
+            return new ServiceValueSource(injectService.value(), field.getType());
+        }
+
+        boolean tapestryInject = field.getAnnotation(Inject.class) != null
+                || field.getAnnotation(InjectResource.class) != null;
+
+        boolean javaxInject = field.getAnnotation(javax.inject.Inject.class) != null;
+
+        if (!tapestryInject && !javaxInject)
+        {
+            return null;
+        }
+
+        Named named = javaxInject ? field.getAnnotation(Named.class) : null;
+
+        if (!tapestryInject && named != null)
+        {
+            return new ServiceValueSource(named.value(), field.getType());
+        }
+
+        if (resources.findResource(field.getType(), field.getGenericType()) != null)
+        {
+            return new ResourceValueSource(field.getType(), field.getGenericType());
+        }
+
+        return new ObjectValueSource(field.getType(), new AnnotationProvider()
+        {
+            @Override
+            public <T extends Annotation> T getAnnotation(Class<T> annotationClass)
+            {
+                return field.getAnnotation(annotationClass);
+            }
+        });
+    }
+
+    private static ValueSource createParameterValueSource(Class<?> type, Type genericType,
+            final Annotation[] annotations, InjectionResources resources)
+    {
+        AnnotationProvider annotationProvider = new AnnotationProvider()
+        {
+            @Override
+            public <T extends Annotation> T getAnnotation(Class<T> annotationClass)
+            {
+                for (Annotation annotation : annotations)
+                {
+                    if (annotationClass.isInstance(annotation))
+                    {
+                        return annotationClass.cast(annotation);
+                    }
+                }
+                return null;
+            }
+        };
+
+        InjectService injectService = annotationProvider.getAnnotation(InjectService.class);
+
+        if (injectService != null)
+        {
+            return new ServiceValueSource(injectService.value(), type);
+        }
+
+        Named named = annotationProvider.getAnnotation(Named.class);
+
+        if (named != null)
+        {
+            return new ServiceValueSource(named.value(), type);
+        }
+
+        //  Explicit @Inject skips injection resources, same as in Tapestry
+        if (annotationProvider.getAnnotation(Inject.class) == null
+                && resources.findResource(type, genericType) != null)
+        {
+            return new ResourceValueSource(type, genericType);
+        }
+
+        return new ObjectValueSource(type, annotationProvider);
+    }
+
+    private static Method findPostInjectionMethod(Class<?> targetClass)
+    {
+        for (Method method : targetClass.getMethods())
+        {
+            if (method.getAnnotation(PostInjection.class) != null
+                    || method.getAnnotation(PostConstruct.class) != null)
+            {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    boolean hasPostInjectionMethod()
+    {
+        return postInjectionMethod != null;
+    }
+
+    /**
+     * Looks up values of fields and post-injection method parameters that are the same for every object.
+     * Failures are reported through an {@link OperationTracker}, so they say which field or parameter
+     * couldn't be resolved.
+     *
+     * @param logger Logger of the {@link OperationTracker}s.
+     */
+    Bound bind(ObjectLocator locator, InjectionResources resources, Logger logger)
+    {
+        return new Bound(locator, resources, logger);
+    }
+
+    /**
+     * Plan bound to a registry.
+     */
+    final class Bound
+    {
+        private final ObjectLocator locator;
+        private final InjectionResources resources;
+        private final Logger logger;
+
+        /**
+         * Values of fields, <code>null</code>s for values that are looked up per object.
+         */
+        private final Object[] fieldValues;
+
+        private final boolean perObjectFields;
+
+        /**
+         * Parameters of the post-injection method, <code>null</code>s for values that are looked up per object.
+         */
+        private final Object[] parameters;
+
+        private final boolean perObjectParameters;
+
+        private Bound(ObjectLocator locator, InjectionResources resources, Logger logger)
+        {
+            this.locator = locator;
+            this.resources = resources;
+            this.logger = logger;
+
+            OperationTracker tracker = new OperationTrackerImpl(logger);
+
+            fieldValues = new Object[fields.length];
+
+            boolean perObjectFields = false;
+
+            for (int i = 0; i < fields.length; i++)
+            {
+                if (fields[i].source.isShared())
+                {
+                    fieldValues[i] = fields[i].resolve(locator, resources, tracker);
+                }
+                else
+                {
+                    perObjectFields = true;
+                }
+            }
+
+            this.perObjectFields = perObjectFields;
+
+            boolean perObject = false;
+
+            if (postInjectionMethod != null)
+            {
+                parameters = new Object[postInjectionParameters.length];
+
+                for (int i = 0; i < parameters.length; i++)
+                {
+                    if (postInjectionParameters[i].isShared())
+                    {
+                        parameters[i] = resolveParameter(i, tracker);
+                    }
+                    else
+                    {
+                        perObject = true;
+                    }
+                }
+            }
+            else
+            {
+                parameters = null;
+            }
+
+            this.perObjectParameters = perObject;
+        }
+
+        InjectionPlan getPlan()
+        {
+            return InjectionPlan.this;
+        }
+
+        void injectFields(Object target)
+        {
+            if (fieldsWriter == null)
+            {
+                return;
+            }
+
+            Object[] values = fieldValues;
+
+            if (perObjectFields)
+            {
+                OperationTracker tracker = new OperationTrackerImpl(logger);
+
+                values = fieldValues.clone();
+
+                for (int i = 0; i < values.length; i++)
+                {
+                    if (!fields[i].source.isShared())
+                    {
+                        values[i] = fields[i].resolve(locator, resources, tracker);
+                    }
+                }
+            }
+
+            try
+            {
+                fieldsWriter.set(target, values);
+            }
+            catch (Error e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                throw fieldFailure(target, values, e);
+            }
+        }
+
+        /**
+         * Writes fields one by one with reflection to find out which of them failed.
+         */
+        private RuntimeException fieldFailure(Object target, Object[] values, Throwable failure)
+        {
+            for (int i = 0; i < fields.length; i++)
+            {
+                try
+                {
+                    fields[i].field.set(target, values[i]);
+                }
+                catch (RuntimeException | IllegalAccessException e)
+                {
+                    return new RuntimeException(String.format("Error injecting field %s.%s",
+                            fields[i].field.getDeclaringClass().getName(), fields[i].field.getName()), failure);
+                }
+            }
+
+            return new RuntimeException("Error injecting fields of " + target.getClass().getName(), failure);
+        }
+
+        void invokePostInjection(Object target)
+        {
+            Object[] values = parameters;
+
+            if (perObjectParameters)
+            {
+                OperationTracker tracker = new OperationTrackerImpl(logger);
+
+                values = parameters.clone();
+
+                for (int i = 0; i < values.length; i++)
+                {
+                    if (!postInjectionParameters[i].isShared())
+                    {
+                        values[i] = resolveParameter(i, tracker);
+                    }
+                }
+            }
+
+            try
+            {
+                postInjectionInvoker.invoke(target, values);
+            }
+            catch (Error e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                throw new RuntimeException(String.format("Error invoking post-injection method %s.%s()",
+                        postInjectionMethod.getDeclaringClass().getName(), postInjectionMethod.getName()), e);
+            }
+        }
+
+        private Object resolveParameter(final int index, OperationTracker tracker)
+        {
+            return tracker.invoke(String.format("Determining injection value for parameter #%d (%s) of %s.%s()",
+                    index + 1,
+                    postInjectionMethod.getParameterTypes()[index].getName(),
+                    postInjectionMethod.getDeclaringClass().getName(),
+                    postInjectionMethod.getName()),
+                    new Invokable<Object>()
+                    {
+                        @Override
+                        public Object invoke()
+                        {
+                            return postInjectionParameters[index].get(locator, resources);
+                        }
+                    });
+        }
+    }
+
+    private static final class FieldInjection
+    {
+        private final Field field;
+        private final ValueSource source;
+
+        FieldInjection(Field field, ValueSource source)
+        {
+            this.field = field;
+            this.source = source;
+        }
+
+        Object resolve(final ObjectLocator locator, final InjectionResources resources, OperationTracker tracker)
+        {
+            return tracker.invoke(String.format("Determining injection value for field %s.%s",
+                    field.getDeclaringClass().getName(), field.getName()),
+                    new Invokable<Object>()
+                    {
+                        @Override
+                        public Object invoke()
+                        {
+                            return source.get(locator, resources);
+                        }
+                    });
+        }
+    }
+
+    private interface ValueSource
+    {
+        Object get(ObjectLocator locator, InjectionResources resources);
+
+        /**
+         * @return <code>true</code> if the value may be injected into many objects.
+         */
+        boolean isShared();
+    }
+
+    private static final class ResourceValueSource implements ValueSource
+    {
+        private final Class<?> type;
+        private final Type genericType;
+
+        ResourceValueSource(Class<?> type, Type genericType)
+        {
+            this.type = type;
+            this.genericType = genericType;
+        }
+
+        @Override
+        public Object get(ObjectLocator locator, InjectionResources resources)
+        {
+            return resources.findResource(type, genericType);
+        }
+
+        @Override
+        public boolean isShared()
+        {
+            return true;
+        }
+    }
+
+    private static final class ServiceValueSource implements ValueSource
+    {
+        private final String serviceId;
+        private final Class<?> type;
+
+        ServiceValueSource(String serviceId, Class<?> type)
+        {
+            this.serviceId = serviceId;
+            this.type = type;
+        }
+
+        @Override
+        public Object get(ObjectLocator locator, InjectionResources resources)
+        {
+            return locator.getService(serviceId, type);
+        }
+
+        @Override
+        public boolean isShared()
+        {
+            return true;
+        }
+    }
+
+    private static final class ObjectValueSource implements ValueSource
+    {
+        private final Class<?> type;
+        private final AnnotationProvider annotationProvider;
+        private final boolean shared;
+
+        ObjectValueSource(Class<?> type, AnnotationProvider annotationProvider)
+        {
+            this.type = type;
+            this.annotationProvider = annotationProvider;
+            //  Every object gets its own instance
+            this.shared = annotationProvider.getAnnotation(Autobuild.class) == null;
+        }
+
+        @Override
+        public Object get(ObjectLocator locator, InjectionResources resources)
+        {
+            return locator.getObject(type, annotationProvider);
+        }
+
+        @Override
+        public boolean isShared()
+        {
+            return shared;
+        }
+    }
+}
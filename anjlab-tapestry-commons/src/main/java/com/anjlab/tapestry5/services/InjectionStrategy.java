@@ -0,0 +1,129 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+
+/**
+ * Defines how {@link InjectionHelper} writes fields and invokes post-injection methods,
+ * selected with the {@link CommonsModule#INJECTION_STRATEGY} symbol.
+ */
+public enum InjectionStrategy
+{
+    /**
+     * Uses {@link Field#set(Object, Object)} and {@link Method#invoke(Object, Object...)}.
+     */
+    REFLECTION
+    {
+        @Override
+        InjectionPlan.FieldsWriter fieldsWriter(Class<?> targetClass, final Field[] fields)
+        {
+            return new InjectionPlan.FieldsWriter()
+            {
+                @Override
+                public void set(Object target, Object[] values) throws IllegalAccessException
+                {
+                    for (int i = 0; i < fields.length; i++)
+                    {
+                        fields[i].set(target, values[i]);
+                    }
+                }
+            };
+        }
+
+        @Override
+        InjectionPlan.MethodInvoker methodInvoker(final Method method)
+        {
+            return new InjectionPlan.MethodInvoker()
+            {
+                @Override
+                public void invoke(Object target, Object[] parameters) throws Exception
+                {
+                    method.invoke(target, parameters);
+                }
+            };
+        }
+    },
+
+    /**
+     * Uses a class generated per target class, which keeps {@link MethodHandle}s of fields and the method
+     * in <code>static final</code> fields, so the JIT compiler can inline them into the injection path,
+     * unlike reflective calls. See {@link GeneratedInjectors}.
+     */
+    METHOD_HANDLES
+    {
+        @Override
+        InjectionPlan.FieldsWriter fieldsWriter(Class<?> targetClass, Field[] fields) throws IllegalAccessException
+        {
+            MethodHandle[] setters = new MethodHandle[fields.length];
+
+            for (int i = 0; i < fields.length; i++)
+            {
+                setters[i] = MethodHandles.lookup().unreflectSetter(fields[i])
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            }
+
+            final BiConsumer<Object, Object[]> writer = GeneratedInjectors.fieldsWriter(targetClass, setters);
+
+            return new InjectionPlan.FieldsWriter()
+            {
+                @Override
+                public void set(Object target, Object[] values)
+                {
+                    writer.accept(target, values);
+                }
+            };
+        }
+
+        @Override
+        InjectionPlan.MethodInvoker methodInvoker(Method method) throws IllegalAccessException
+        {
+            int parameterCount = method.getParameterCount();
+
+            MethodHandle handle = MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.genericMethodType(parameterCount + 1).changeReturnType(void.class));
+
+            final BiConsumer<Object, Object[]> invoker =
+                    GeneratedInjectors.methodInvoker(method.getDeclaringClass(), handle, parameterCount);
+
+            return new InjectionPlan.MethodInvoker()
+            {
+                @Override
+                public void invoke(Object target, Object[] parameters)
+                {
+                    invoker.accept(target, parameters);
+                }
+            };
+        }
+    };
+
+    /**
+     * @param fields Accessible fields of the target class and its superclasses.
+     * @return Writer of values of the <code>fields</code>, in the same order.
+     */
+    abstract InjectionPlan.FieldsWriter fieldsWriter(Class<?> targetClass, Field[] fields)
+            throws IllegalAccessException;
+
+    /**
+     * @param method Accessible method.
+     */
+    abstract InjectionPlan.MethodInvoker methodInvoker(Method method) throws IllegalAccessException;
+}
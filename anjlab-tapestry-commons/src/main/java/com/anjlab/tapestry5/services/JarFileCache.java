@@ -0,0 +1,236 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a single open {@link JarFile} and its list of entries per jar, so that
+ * scanning several packages of the same jar doesn't open and enumerate the jar again.
+ * <p>
+ * Jar files stay open until {@link #close()}.
+ */
+class JarFileCache
+{
+    private static final Logger logger = LoggerFactory.getLogger(JarFileCache.class);
+
+    private static final String SEPARATOR = "!/";
+
+    private final ConcurrentMap<String, CachedJar> jars = new ConcurrentHashMap<String, CachedJar>();
+
+    /**
+     * @param resource URL of a resource inside the jar, i.e. <code>jar:file:/lib/foo.jar!/com/example</code>.
+     * @return Shared jar file. Nested jars are opened through {@link JarURLConnection}.
+     * @throws IOException if the jar can't be opened.
+     */
+    CachedJar get(URL resource) throws IOException
+    {
+        File file = toFile(resource);
+
+        if (file == null)
+        {
+            JarURLConnection connection = (JarURLConnection) resource.openConnection();
+            return nested(resource, connection.getJarFile());
+        }
+
+        String path = file.getPath();
+
+        CachedJar jar = jars.get(path);
+
+        if (jar == null)
+        {
+            CachedJar opened = new CachedJar(new JarFile(file), path,
+                    new long[] { file.length(), file.lastModified() });
+
+            jar = jars.putIfAbsent(path, opened);
+
+            if (jar == null)
+            {
+                jar = opened;
+            }
+            else
+            {
+                opened.close();
+            }
+        }
+
+        return jar;
+    }
+
+    /**
+     * {@link JarURLConnection} extracts nested jars to temporary files, so the jar is identified
+     * by the outer jar and the path of the nested jar in it, i.e. <code>/app.jar!/lib/services.jar</code>.
+     * It can only be cached when the outer jar is a file.
+     */
+    private static CachedJar nested(URL resource, JarFile jar)
+    {
+        String spec = resource.getFile();
+
+        int first = spec.indexOf(SEPARATOR);
+        int last = spec.lastIndexOf(SEPARATOR);
+
+        if (first < 0 || first == last || !spec.startsWith("file:"))
+        {
+            return new CachedJar(jar, jar.getName(), null);
+        }
+
+        File outer;
+        try
+        {
+            outer = new File(new URL(spec.substring(0, first)).toURI());
+        }
+        catch (IOException | URISyntaxException | IllegalArgumentException e)
+        {
+            return new CachedJar(jar, jar.getName(), null);
+        }
+
+        return new CachedJar(jar, outer.getPath() + spec.substring(first, last),
+                outer.isFile() ? new long[] { outer.length(), outer.lastModified() } : null);
+    }
+
+    private static File toFile(URL resource)
+    {
+        String spec = resource.getFile();
+
+        int separator = spec.indexOf(SEPARATOR);
+
+        if (separator < 0
+                || spec.indexOf(SEPARATOR, separator + SEPARATOR.length()) >= 0
+                || !spec.startsWith("file:"))
+        {
+            return null;
+        }
+
+        try
+        {
+            return new File(new URL(spec.substring(0, separator)).toURI());
+        }
+        catch (IOException | URISyntaxException | IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Closes all jar files opened by this cache.
+     */
+    void close()
+    {
+        for (String path : new ArrayList<String>(jars.keySet()))
+        {
+            CachedJar jar = jars.remove(path);
+
+            if (jar != null)
+            {
+                jar.close();
+            }
+        }
+    }
+
+    static class CachedJar
+    {
+        private final JarFile file;
+        private final String root;
+        private final long[] fingerprint;
+
+        private volatile List<JarEntry> classEntries;
+
+        CachedJar(JarFile file, String root, long[] fingerprint)
+        {
+            this.file = file;
+            this.root = root;
+            this.fingerprint = fingerprint;
+        }
+
+        JarFile getFile()
+        {
+            return file;
+        }
+
+        /**
+         * @return Path of the jar that doesn't change between runs.
+         */
+        String getRoot()
+        {
+            return root;
+        }
+
+        /**
+         * @return Size and modification time of the jar, or of the outer jar for nested jars,
+         * <code>null</code> if the jar can't be cached.
+         */
+        long[] getFingerprint()
+        {
+            return fingerprint;
+        }
+
+        /**
+         * @return All <code>.class</code> entries of the jar, listed once per jar.
+         */
+        List<JarEntry> getClassEntries()
+        {
+            List<JarEntry> entries = classEntries;
+
+            if (entries == null)
+            {
+                entries = new ArrayList<JarEntry>();
+
+                Enumeration<JarEntry> enumeration = file.entries();
+                while (enumeration.hasMoreElements())
+                {
+                    JarEntry entry = enumeration.nextElement();
+
+                    if (entry.getName().endsWith(".class"))
+                    {
+                        entries.add(entry);
+                    }
+                }
+
+                entries = Collections.unmodifiableList(entries);
+                classEntries = entries;
+            }
+
+            return entries;
+        }
+
+        private void close()
+        {
+            try
+            {
+                file.close();
+            }
+            catch (IOException e)
+            {
+                logger.warn("Unable to close {}: {}", file.getName(), e.getMessage());
+            }
+        }
+    }
+}
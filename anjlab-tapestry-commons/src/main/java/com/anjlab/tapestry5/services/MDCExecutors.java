@@ -0,0 +1,160 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.MDC;
+
+/**
+ * Wraps tasks and executors to run tasks with the MDC of the thread that submitted them,
+ * so logs of work handed off to other threads keep <code>req.requestId</code> and other MDC values.
+ * <p>
+ * MDC of the executing thread is restored after every task, so values don't stay on pooled threads.
+ *
+ * @see CommonsModule#buildMDCExecutorService(int, org.apache.tapestry5.ioc.services.PerthreadManager,
+ * org.apache.tapestry5.ioc.services.RegistryShutdownHub)
+ */
+public final class MDCExecutors
+{
+    private MDCExecutors()
+    {
+    }
+
+    public static Runnable wrap(final Runnable task)
+    {
+        final Map<String, String> context = MDC.getCopyOfContextMap();
+
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                Map<String, String> previous = setContext(context);
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    setContext(previous);
+                }
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(final Callable<T> task)
+    {
+        final Map<String, String> context = MDC.getCopyOfContextMap();
+
+        return new Callable<T>()
+        {
+            @Override
+            public T call() throws Exception
+            {
+                Map<String, String> previous = setContext(context);
+                try
+                {
+                    return task.call();
+                }
+                finally
+                {
+                    setContext(previous);
+                }
+            }
+        };
+    }
+
+    public static Executor wrap(final Executor executor)
+    {
+        return new Executor()
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                executor.execute(wrap(command));
+            }
+        };
+    }
+
+    /**
+     * @return Executor service that wraps every task, including tasks of
+     * <code>submit()</code>, <code>invokeAll()</code> and <code>invokeAny()</code>, with the MDC of the caller.
+     */
+    public static ExecutorService wrap(final ExecutorService executor)
+    {
+        return new AbstractExecutorService()
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                executor.execute(wrap(command));
+            }
+
+            @Override
+            public void shutdown()
+            {
+                executor.shutdown();
+            }
+
+            @Override
+            public List<Runnable> shutdownNow()
+            {
+                return executor.shutdownNow();
+            }
+
+            @Override
+            public boolean isShutdown()
+            {
+                return executor.isShutdown();
+            }
+
+            @Override
+            public boolean isTerminated()
+            {
+                return executor.isTerminated();
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+            {
+                return executor.awaitTermination(timeout, unit);
+            }
+        };
+    }
+
+    private static Map<String, String> setContext(Map<String, String> context)
+    {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+
+        if (context == null)
+        {
+            MDC.clear();
+        }
+        else
+        {
+            MDC.setContextMap(context);
+        }
+
+        return previous;
+    }
+}
@@ -16,20 +16,73 @@
 package com.anjlab.tapestry5.services;
 
 import java.io.IOException;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import com.anjlab.tapestry5.services.metrics.DefaultRouteNormalizer;
+import com.anjlab.tapestry5.services.metrics.RouteNormalizer;
+
+/**
+ * Puts request ID and session ID to the MDC of the request thread and logs every request.
+ * <p>
+ * Request IDs are generated by a {@link RequestIdGenerator} configured with filter init parameters:
+ * <ul>
+ * <li>{@link #REQUEST_ID_GENERATOR_PARAM} &mdash; <code>counter</code> (default) for {@link CounterRequestIdGenerator},
+ * <code>striped</code> for {@link StripedRequestIdGenerator}, <code>time-ordered</code> for
+ * {@link TimeOrderedRequestIdGenerator}, or a name of a {@link RequestIdGenerator} class with a public no-arg
+ * constructor;</li>
+ * <li>{@link #REQUEST_ID_NODE_PREFIX_PARAM} &mdash; prefix that identifies this node in the cluster,
+ * no prefix by default for the <code>counter</code> generator, and random 8 hex digits followed by <code>-</code>
+ * for <code>striped</code> and <code>time-ordered</code> generators, empty value disables the prefix;</li>
+ * <li>{@link #REQUEST_ID_HEADER_PARAM} &mdash; name of the header, i.e. <code>X-Request-Id</code>,
+ * whose value should be reused as request ID when present;</li>
+ * <li>{@link #ACCESS_LOG_PARAM} &mdash; <code>sync</code> (default) logs requests on request threads,
+ * <code>async</code> logs them on a background thread from a ring buffer of {@link #ACCESS_LOG_BUFFER_SIZE_PARAM}
+ * records (8192 by default);</li>
+ * <li>{@link #ACCESS_LOG_OVERFLOW_PARAM} &mdash; <code>drop</code> (default) to drop records when
+ * the buffer is full, or <code>block</code> to make request threads wait for free space;</li>
+ * <li>{@link #METRICS_PARAM} &mdash; <code>true</code> to record latency histograms, response status counts and
+ * response sizes by route, see {@link com.anjlab.tapestry5.services.metrics.RequestMetrics};</li>
+ * <li>{@link #METRICS_MAX_ROUTES_PARAM} &mdash; maximal number of routes to record metrics for, 500 by default;</li>
+ * <li>{@link #METRICS_ROUTE_NORMALIZER_PARAM} &mdash; name of a
+ * {@link com.anjlab.tapestry5.services.metrics.RouteNormalizer} class with a public no-arg constructor,
+ * {@link com.anjlab.tapestry5.services.metrics.DefaultRouteNormalizer} by default,
+ * also used to group requests for {@link #LOG_RATE_LIMIT_PARAM};</li>
+ * <li>{@link #LOG_SAMPLE_RATE_PARAM} &mdash; log one of every N requests, 1 by default;</li>
+ * <li>{@link #LOG_RATE_LIMIT_PARAM} &mdash; maximal number of requests per second logged for every route,
+ * not limited by default, with bursts of up to {@link #LOG_RATE_BURST_PARAM} requests;</li>
+ * <li>{@link #LOG_SLOW_THRESHOLD_PARAM} &mdash; requests slower than this number of milliseconds
+ * are logged regardless of sampling and rate limit, 1000 by default;</li>
+ * <li>{@link #WATCHDOG_THRESHOLD_PARAM} &mdash; number of milliseconds after which stack trace of the thread
+ * that handles a request is logged, the watchdog is disabled by default;</li>
+ * <li>{@link #WATCHDOG_INTERVAL_PARAM} &mdash; how often the watchdog checks requests in flight,
+ * half of the threshold by default.</li>
+ * </ul>
+ * <p>
+ * When sampling or rate limit is enabled, requests are logged after they're handled, with response status
+ * and duration, and failed requests are always logged. Otherwise requests are logged before they're handled.
+ * <p>
+ * For asynchronous requests the filter should be mapped with <code>ASYNC</code> dispatcher type
+ * and support async: MDC values of the original request are put back on async dispatch,
+ * and are available while the container notifies about async timeouts and errors.
+ * Use {@link MDCExecutors} to keep the MDC in tasks that run on other threads.
+ */
 public class MDCInsertingServletFilter extends ch.qos.logback.classic.helpers.MDCInsertingServletFilter
 {
     private static final Logger logger = LoggerFactory.getLogger(MDCInsertingServletFilter.class);
@@ -37,12 +90,161 @@ public class MDCInsertingServletFilter extends ch.qos.logback.classic.helpers.MD
     public static final String REQUEST_ID = "req.requestId";
     public static final String REQUEST_SESSION_ID = "req.sessionId";
 
-    private final AtomicLong requestCounter = new AtomicLong(0);
-    
+    public static final String REQUEST_ID_GENERATOR_PARAM = "requestIdGenerator";
+    public static final String REQUEST_ID_NODE_PREFIX_PARAM = "requestIdNodePrefix";
+    public static final String REQUEST_ID_HEADER_PARAM = "requestIdHeader";
+    public static final String ACCESS_LOG_PARAM = "accessLog";
+    public static final String ACCESS_LOG_BUFFER_SIZE_PARAM = "accessLogBufferSize";
+    public static final String ACCESS_LOG_OVERFLOW_PARAM = "accessLogOverflow";
+    public static final String METRICS_PARAM = "metrics";
+    public static final String METRICS_MAX_ROUTES_PARAM = "metricsMaxRoutes";
+    public static final String METRICS_ROUTE_NORMALIZER_PARAM = "metricsRouteNormalizer";
+    public static final String LOG_SAMPLE_RATE_PARAM = "logSampleRate";
+    public static final String LOG_RATE_LIMIT_PARAM = "logRateLimit";
+    public static final String LOG_RATE_BURST_PARAM = "logRateBurst";
+    public static final String LOG_SLOW_THRESHOLD_PARAM = "logSlowThresholdMillis";
+    public static final String WATCHDOG_THRESHOLD_PARAM = "watchdogThresholdMillis";
+    public static final String WATCHDOG_INTERVAL_PARAM = "watchdogIntervalMillis";
+
+    private static final String REQUEST_ID_ATTRIBUTE = MDCInsertingServletFilter.class.getName() + ".requestId";
+    private static final String REQUEST_SESSION_ID_ATTRIBUTE = MDCInsertingServletFilter.class.getName() + ".sessionId";
+    private static final String ASYNC_LISTENER_ATTRIBUTE = MDCInsertingServletFilter.class.getName() + ".asyncListener";
+
+    private final ThreadLocal<StringBuilder> buffers = new ThreadLocal<StringBuilder>()
+    {
+        @Override
+        protected StringBuilder initialValue()
+        {
+            return new StringBuilder(64);
+        }
+    };
+
+    private RequestIdGenerator requestIdGenerator = new CounterRequestIdGenerator("");
+
+    private AsyncAccessLog accessLog;
+
+    private RequestMetricsRecorder metricsRecorder;
+
+    private RequestLogSampler logSampler;
+
+    private SlowRequestWatchdog watchdog;
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException
     {
         super.init(filterConfig);
+
+        RouteNormalizer routeNormalizer = createRouteNormalizer(filterConfig);
+
+        requestIdGenerator = createRequestIdGenerator(filterConfig);
+        accessLog = createAccessLog(filterConfig);
+        metricsRecorder = RequestMetricsRecorder.create(filterConfig, routeNormalizer);
+        logSampler = RequestLogSampler.create(filterConfig, routeNormalizer);
+        watchdog = SlowRequestWatchdog.create(filterConfig);
+    }
+
+    private static RouteNormalizer createRouteNormalizer(FilterConfig filterConfig) throws ServletException
+    {
+        String normalizerName = filterConfig.getInitParameter(METRICS_ROUTE_NORMALIZER_PARAM);
+
+        if (normalizerName == null)
+        {
+            return new DefaultRouteNormalizer();
+        }
+
+        try
+        {
+            return Thread.currentThread().getContextClassLoader()
+                    .loadClass(normalizerName)
+                    .asSubclass(RouteNormalizer.class)
+                    .getConstructor()
+                    .newInstance();
+        }
+        catch (Exception e)
+        {
+            throw new ServletException("Unable to create route normalizer " + normalizerName, e);
+        }
+    }
+
+    private static AsyncAccessLog createAccessLog(FilterConfig filterConfig) throws ServletException
+    {
+        String mode = filterConfig.getInitParameter(ACCESS_LOG_PARAM);
+
+        if (mode == null || mode.equals("sync"))
+        {
+            return null;
+        }
+
+        if (!mode.equals("async"))
+        {
+            throw new ServletException("Unsupported " + ACCESS_LOG_PARAM + ": " + mode);
+        }
+
+        String bufferSize = filterConfig.getInitParameter(ACCESS_LOG_BUFFER_SIZE_PARAM);
+        String overflow = filterConfig.getInitParameter(ACCESS_LOG_OVERFLOW_PARAM);
+
+        try
+        {
+            return new AsyncAccessLog(logger,
+                    bufferSize == null ? 8192 : Integer.parseInt(bufferSize),
+                    overflow == null
+                            ? AsyncAccessLog.OverflowPolicy.DROP
+                            : AsyncAccessLog.OverflowPolicy.valueOf(overflow.toUpperCase()));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ServletException("Invalid access log configuration", e);
+        }
+    }
+
+    protected RequestIdGenerator createRequestIdGenerator(FilterConfig filterConfig) throws ServletException
+    {
+        String prefix = filterConfig.getInitParameter(REQUEST_ID_NODE_PREFIX_PARAM);
+
+        String generatorName = filterConfig.getInitParameter(REQUEST_ID_GENERATOR_PARAM);
+
+        RequestIdGenerator generator;
+
+        if (generatorName == null || generatorName.equals("counter"))
+        {
+            generator = new CounterRequestIdGenerator(prefix == null ? "" : prefix);
+        }
+        else if (generatorName.equals("striped"))
+        {
+            generator = new StripedRequestIdGenerator(prefix == null ? randomNodePrefix() : prefix);
+        }
+        else if (generatorName.equals("time-ordered"))
+        {
+            generator = new TimeOrderedRequestIdGenerator(prefix == null ? randomNodePrefix() : prefix);
+        }
+        else
+        {
+            try
+            {
+                generator = Thread.currentThread().getContextClassLoader()
+                        .loadClass(generatorName)
+                        .asSubclass(RequestIdGenerator.class)
+                        .getConstructor()
+                        .newInstance();
+            }
+            catch (Exception e)
+            {
+                throw new ServletException("Unable to create request ID generator " + generatorName, e);
+            }
+        }
+
+        String headerName = filterConfig.getInitParameter(REQUEST_ID_HEADER_PARAM);
+        if (headerName != null && !headerName.isEmpty())
+        {
+            generator = new HeaderRequestIdGenerator(headerName, generator);
+        }
+
+        return generator;
+    }
+
+    private static String randomNodePrefix()
+    {
+        return UUID.randomUUID().toString().substring(0, 8) + "-";
     }
 
     @Override
@@ -51,26 +253,153 @@ public class MDCInsertingServletFilter extends ch.qos.logback.classic.helpers.MD
     {
         HttpServletRequest httpServletRequest = (HttpServletRequest)request;
         
-        insertMDC(httpServletRequest);
+        boolean asyncDispatch = request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getAttribute(REQUEST_ID_ATTRIBUTE) != null;
+        
+        if (asyncDispatch)
+        {
+            restoreMDC(request);
+        }
+        else
+        {
+            insertMDC(httpServletRequest);
+            
+            request.setAttribute(REQUEST_ID_ATTRIBUTE, MDC.get(REQUEST_ID));
+            request.setAttribute(REQUEST_SESSION_ID_ATTRIBUTE, MDC.get(REQUEST_SESSION_ID));
+        }
+        
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        
+        long startNanos = System.nanoTime();
+        
+        HttpServletResponse httpServletResponse = (HttpServletResponse) response;
+        
+        MeteredResponse meteredResponse = null;
+        if (metricsRecorder != null && !asyncDispatch)
+        {
+            meteredResponse = metricsRecorder.begin(httpServletRequest, httpServletResponse);
+            response = meteredResponse;
+        }
+        
+        SlowRequestWatchdog watchdog = this.watchdog;
+        if (watchdog != null)
+        {
+            watchdog.begin(httpServletRequest, MDC.get(REQUEST_ID), MDC.get(REQUEST_SESSION_ID));
+        }
+        
+        boolean completed = false;
         
         try
         {
-            logger.info("{} {}{}",
-                    httpServletRequest.getMethod(),
-                    httpServletRequest.getRequestURI(),
-                    (httpServletRequest.getQueryString() == null)
-                        ? ""
-                        : "?" + httpServletRequest.getQueryString());
+            if (!asyncDispatch && logSampler == null)
+            {
+                logRequest(httpServletRequest, -1, -1);
+            }
             
             super.doFilter(request, response, chain);
+            
+            completed = true;
         }
         finally
         {
+            if (watchdog != null)
+            {
+                watchdog.end();
+            }
+            
+            boolean asyncStarted = request.isAsyncStarted();
+            
+            if (asyncStarted && request.getAttribute(ASYNC_LISTENER_ATTRIBUTE) == null)
+            {
+                request.setAttribute(ASYNC_LISTENER_ATTRIBUTE, Boolean.TRUE);
+                request.getAsyncContext().addListener(
+                        new MDCAsyncListener(httpServletRequest, httpServletResponse, meteredResponse, startNanos));
+            }
+            else if (!asyncStarted && !asyncDispatch)
+            {
+                requestCompleted(httpServletRequest, meteredResponse,
+                        completed ? httpServletResponse.getStatus() : 500, System.nanoTime() - startNanos);
+            }
+            
+            if (event.shouldCommit())
+            {
+                event.method = httpServletRequest.getMethod();
+                event.uri = httpServletRequest.getRequestURI();
+                event.requestId = MDC.get(REQUEST_ID);
+                event.status = completed ? httpServletResponse.getStatus() : 500;
+                event.asyncStarted = asyncStarted;
+                event.asyncDispatch = asyncDispatch;
+                event.commit();
+            }
+            
             cleanupMDC();
         }
     }
 
-    private void cleanupMDC()
+    private void requestCompleted(HttpServletRequest request, MeteredResponse meteredResponse,
+            int status, long durationNanos)
+    {
+        RequestMetricsRecorder metricsRecorder = this.metricsRecorder;
+        
+        //  The filter could be destroyed before async requests complete
+        if (meteredResponse != null && metricsRecorder != null)
+        {
+            metricsRecorder.end(meteredResponse, status, durationNanos);
+        }
+        
+        //  Decide before formatting anything, most requests are not logged when sampling
+        if (logSampler != null && logSampler.shouldLog(request, status, durationNanos))
+        {
+            logRequest(request, status, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        }
+    }
+
+    /**
+     * @param status Response status, or <code>-1</code> if the request is logged before it's handled.
+     */
+    private void logRequest(HttpServletRequest request, int status, long durationMillis)
+    {
+        if (accessLog != null)
+        {
+            accessLog.append(
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    request.getQueryString(),
+                    MDC.get(REQUEST_ID),
+                    MDC.get(REQUEST_SESSION_ID),
+                    status,
+                    durationMillis);
+        }
+        else if (status < 0)
+        {
+            logger.info("{} {}{}",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    (request.getQueryString() == null)
+                        ? ""
+                        : "?" + request.getQueryString());
+        }
+        else
+        {
+            logger.info("{} {}{} {} {}ms",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    (request.getQueryString() == null)
+                        ? ""
+                        : "?" + request.getQueryString(),
+                    status,
+                    durationMillis);
+        }
+    }
+
+    private static void restoreMDC(ServletRequest request)
+    {
+        MDC.put(REQUEST_ID, (String) request.getAttribute(REQUEST_ID_ATTRIBUTE));
+        MDC.put(REQUEST_SESSION_ID, (String) request.getAttribute(REQUEST_SESSION_ID_ATTRIBUTE));
+    }
+
+    private static void cleanupMDC()
     {
         MDC.remove(REQUEST_ID);
         MDC.remove(REQUEST_SESSION_ID);
@@ -86,13 +415,111 @@ public class MDCInsertingServletFilter extends ch.qos.logback.classic.helpers.MD
             sessionId = session.getId();
         }
         
-        MDC.put(REQUEST_ID, String.valueOf(requestCounter.incrementAndGet()));
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        requestIdGenerator.appendRequestId(httpServletRequest, buffer);
+
+        MDC.put(REQUEST_ID, buffer.toString());
         MDC.put(REQUEST_SESSION_ID, sessionId);
     }
 
+    /**
+     * Puts MDC of the request back while the container notifies about async events,
+     * and removes it from the thread that completes the request.
+     * Async requests are metered and logged when they complete.
+     */
+    private class MDCAsyncListener implements AsyncListener
+    {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final MeteredResponse meteredResponse;
+        private final long startNanos;
+
+        private boolean failed;
+
+        MDCAsyncListener(HttpServletRequest request, HttpServletResponse response,
+                MeteredResponse meteredResponse, long startNanos)
+        {
+            this.request = request;
+            this.response = response;
+            this.meteredResponse = meteredResponse;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) throws IOException
+        {
+            //  Listeners are dropped when the request is put to async mode again
+            event.getAsyncContext().addListener(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException
+        {
+            restoreMDC(event.getAsyncContext().getRequest());
+            try
+            {
+                logger.warn("Async request timed out");
+            }
+            finally
+            {
+                cleanupMDC();
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) throws IOException
+        {
+            failed = true;
+            
+            restoreMDC(event.getAsyncContext().getRequest());
+            try
+            {
+                logger.error("Async request failed", event.getThrowable());
+            }
+            finally
+            {
+                cleanupMDC();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException
+        {
+            restoreMDC(request);
+            try
+            {
+                requestCompleted(request, meteredResponse,
+                        failed ? 500 : response.getStatus(), System.nanoTime() - startNanos);
+            }
+            finally
+            {
+                cleanupMDC();
+            }
+        }
+    }
+
     @Override
     public void destroy()
     {
+        if (accessLog != null)
+        {
+            accessLog.close();
+            accessLog = null;
+        }
+        
+        if (metricsRecorder != null)
+        {
+            metricsRecorder.close();
+            metricsRecorder = null;
+        }
+        
+        if (watchdog != null)
+        {
+            watchdog.close();
+            watchdog = null;
+        }
+        
         super.destroy();
     }
 
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marker of the <code>MDCExecutorService</code> service, the executor service that runs tasks with the MDC
+ * of the submitting thread:
+ *
+ * <pre>
+ * &#64;Inject &#64;MDCPropagating
+ * private ExecutorService executor;
+ * </pre>
+ *
+ * @see CommonsModule#buildMDCExecutorService(int, org.apache.tapestry5.ioc.services.PerthreadManager,
+ *      org.apache.tapestry5.ioc.services.RegistryShutdownHub)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.PARAMETER, ElementType.FIELD, ElementType.METHOD })
+public @interface MDCPropagating
+{
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Response that counts bytes written to its output stream and characters written to its writer
+ * for {@link RequestMetricsRecorder}.
+ */
+final class MeteredResponse extends HttpServletResponseWrapper
+{
+    final String route;
+
+    private long bytesWritten;
+
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    MeteredResponse(HttpServletResponse response, String route)
+    {
+        super(response);
+        this.route = route;
+    }
+
+    long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException
+    {
+        if (outputStream == null)
+        {
+            final ServletOutputStream delegate = super.getOutputStream();
+
+            outputStream = new ServletOutputStream()
+            {
+                @Override
+                public void write(int b) throws IOException
+                {
+                    delegate.write(b);
+                    bytesWritten++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException
+                {
+                    delegate.write(b, off, len);
+                    bytesWritten += len;
+                }
+
+                @Override
+                public void flush() throws IOException
+                {
+                    delegate.flush();
+                }
+
+                @Override
+                public void close() throws IOException
+                {
+                    delegate.close();
+                }
+
+                @Override
+                public boolean isReady()
+                {
+                    return delegate.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener)
+                {
+                    delegate.setWriteListener(writeListener);
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException
+    {
+        if (writer == null)
+        {
+            writer = new PrintWriter(super.getWriter())
+            {
+                @Override
+                public void write(int c)
+                {
+                    super.write(c);
+                    bytesWritten++;
+                }
+
+                @Override
+                public void write(char[] buf, int off, int len)
+                {
+                    super.write(buf, off, len);
+                    bytesWritten += len;
+                }
+
+                @Override
+                public void write(String s, int off, int len)
+                {
+                    super.write(s, off, len);
+                    bytesWritten += len;
+                }
+            };
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import com.anjlab.tapestry5.services.metrics.RouteNormalizer;
+
+/**
+ * Decides which requests {@link MDCInsertingServletFilter} logs when sampling is enabled.
+ * <p>
+ * Failed requests and requests with 5xx status, and requests slower than the threshold are always logged.
+ * Other requests are logged with probability <code>1 / sampleRate</code>, and no more often
+ * than the rate limit of their route allows.
+ */
+final class RequestLogSampler
+{
+    private static final int MAX_ROUTES = 500;
+
+    private final int sampleRate;
+    private final long slowThresholdNanos;
+    private final double rateLimit;
+    private final int rateBurst;
+    private final RouteNormalizer routeNormalizer;
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<String, TokenBucket>();
+
+    private final TokenBucket otherRoutesBucket;
+
+    RequestLogSampler(int sampleRate, long slowThresholdMillis, double rateLimit, int rateBurst,
+            RouteNormalizer routeNormalizer)
+    {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.rateLimit = rateLimit;
+        this.rateBurst = rateBurst;
+        this.routeNormalizer = routeNormalizer;
+        this.otherRoutesBucket = rateLimit > 0 ? new TokenBucket(rateLimit, rateBurst, System.nanoTime()) : null;
+    }
+
+    /**
+     * @return Sampler configured with filter init parameters, or <code>null</code> if every request should be logged.
+     */
+    static RequestLogSampler create(FilterConfig filterConfig, RouteNormalizer routeNormalizer)
+            throws ServletException
+    {
+        try
+        {
+            int sampleRate = intParameter(filterConfig, MDCInsertingServletFilter.LOG_SAMPLE_RATE_PARAM, 1);
+            double rateLimit = doubleParameter(filterConfig, MDCInsertingServletFilter.LOG_RATE_LIMIT_PARAM, 0);
+
+            if (sampleRate <= 1 && rateLimit <= 0)
+            {
+                return null;
+            }
+
+            return new RequestLogSampler(
+                    sampleRate,
+                    intParameter(filterConfig, MDCInsertingServletFilter.LOG_SLOW_THRESHOLD_PARAM, 1000),
+                    rateLimit,
+                    intParameter(filterConfig, MDCInsertingServletFilter.LOG_RATE_BURST_PARAM,
+                            (int) Math.max(1, Math.ceil(rateLimit))),
+                    routeNormalizer);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new ServletException("Invalid request log sampling configuration", e);
+        }
+    }
+
+    private static int intParameter(FilterConfig filterConfig, String name, int defaultValue)
+    {
+        String value = filterConfig.getInitParameter(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static double doubleParameter(FilterConfig filterConfig, String name, double defaultValue)
+    {
+        String value = filterConfig.getInitParameter(name);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    boolean shouldLog(HttpServletRequest request, int status, long durationNanos)
+    {
+        if (status >= 500 || (slowThresholdNanos > 0 && durationNanos >= slowThresholdNanos))
+        {
+            return true;
+        }
+
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0)
+        {
+            return false;
+        }
+
+        if (rateLimit <= 0)
+        {
+            return true;
+        }
+
+        return bucket(routeNormalizer.getRoute(request)).tryAcquire(System.nanoTime());
+    }
+
+    private TokenBucket bucket(String route)
+    {
+        TokenBucket bucket = buckets.get(route);
+
+        if (bucket == null)
+        {
+            if (buckets.size() >= MAX_ROUTES)
+            {
+                return otherRoutesBucket;
+            }
+
+            TokenBucket newBucket = new TokenBucket(rateLimit, rateBurst, System.nanoTime());
+            bucket = buckets.putIfAbsent(route, newBucket);
+            if (bucket == null)
+            {
+                bucket = newBucket;
+            }
+        }
+
+        return bucket;
+    }
+}
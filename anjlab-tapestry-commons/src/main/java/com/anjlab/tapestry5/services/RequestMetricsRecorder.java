@@ -0,0 +1,127 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.anjlab.tapestry5.services.metrics.RequestMetrics;
+import com.anjlab.tapestry5.services.metrics.RouteNormalizer;
+
+/**
+ * Records {@link RequestMetrics} for {@link MDCInsertingServletFilter}, shares them with
+ * {@link com.anjlab.tapestry5.services.metrics.RequestMetricsSource} via servlet context attribute
+ * and registers them in the platform MBean server.
+ */
+final class RequestMetricsRecorder
+{
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsRecorder.class);
+
+    private final RequestMetrics metrics;
+    private final RouteNormalizer routeNormalizer;
+    private final ServletContext servletContext;
+
+    private ObjectName objectName;
+
+    private RequestMetricsRecorder(RequestMetrics metrics, RouteNormalizer routeNormalizer,
+            ServletContext servletContext)
+    {
+        this.metrics = metrics;
+        this.routeNormalizer = routeNormalizer;
+        this.servletContext = servletContext;
+    }
+
+    /**
+     * @return Recorder configured with filter init parameters, or <code>null</code> if metrics are disabled.
+     */
+    static RequestMetricsRecorder create(FilterConfig filterConfig, RouteNormalizer routeNormalizer)
+    {
+        if (!Boolean.parseBoolean(filterConfig.getInitParameter(MDCInsertingServletFilter.METRICS_PARAM)))
+        {
+            return null;
+        }
+
+        String maxRoutes = filterConfig.getInitParameter(MDCInsertingServletFilter.METRICS_MAX_ROUTES_PARAM);
+
+        RequestMetricsRecorder recorder = new RequestMetricsRecorder(
+                new RequestMetrics(maxRoutes == null ? 500 : Integer.parseInt(maxRoutes)),
+                routeNormalizer,
+                filterConfig.getServletContext());
+
+        recorder.servletContext.setAttribute(RequestMetrics.ATTRIBUTE_NAME, recorder.metrics);
+        recorder.registerMBean(filterConfig);
+
+        return recorder;
+    }
+
+    private void registerMBean(FilterConfig filterConfig)
+    {
+        try
+        {
+            String contextPath = servletContext.getContextPath();
+
+            objectName = new ObjectName("com.anjlab.tapestry5:type=RequestMetrics"
+                    + ",context=" + ObjectName.quote(contextPath == null || contextPath.isEmpty() ? "/" : contextPath)
+                    + ",name=" + ObjectName.quote(filterConfig.getFilterName()));
+
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+        }
+        catch (JMException e)
+        {
+            logger.warn("Unable to register request metrics in JMX", e);
+            objectName = null;
+        }
+    }
+
+    MeteredResponse begin(HttpServletRequest request, HttpServletResponse response)
+    {
+        return new MeteredResponse(response, routeNormalizer.getRoute(request));
+    }
+
+    void end(MeteredResponse response, int status, long durationNanos)
+    {
+        metrics.record(response.route, durationNanos, status, response.getBytesWritten());
+    }
+
+    void close()
+    {
+        servletContext.removeAttribute(RequestMetrics.ATTRIBUTE_NAME);
+
+        if (objectName != null)
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try
+            {
+                server.unregisterMBean(objectName);
+            }
+            catch (JMException e)
+            {
+                logger.warn("Unable to unregister request metrics from JMX", e);
+            }
+            objectName = null;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compile-time index of service interfaces and their <code>impl.*Impl</code> implementations.
+ * <p>
+ * The index is written by {@link ServiceIndexProcessor} to {@link #RESOURCE_NAME} and is used by
+ * {@link ClasspathUtils#autobindServices(org.apache.tapestry5.ioc.ServiceBinder, Package)}
+ * to avoid walking the classpath at registry startup.
+ * <p>
+ * Every line of the index has the form <code>service.Interface=service.impl.InterfaceImpl</code>,
+ * lines starting with <code>#</code> are comments.
+ */
+public final class ServiceIndex
+{
+    public static final String RESOURCE_NAME = "META-INF/anjlab-tapestry-commons/services.index";
+
+    private ServiceIndex()
+    {
+    }
+
+    /**
+     * Reads all indexes visible to the given class loader and picks entries for the given package.
+     *
+     * @param classLoader Class loader to look up {@link #RESOURCE_NAME} resources.
+     * @param packageName Name of the package with service interfaces.
+     * @return Map of service interface names to implementation class names,
+     * or <code>null</code> if none of the indexes has entries for the <code>packageName</code>.
+     * @throws IOException on index read errors.
+     */
+    public static Map<String, String> read(ClassLoader classLoader, String packageName) throws IOException
+    {
+        return read(classLoader, packageName, new HashSet<String>());
+    }
+
+    /**
+     * Same as {@link #read(ClassLoader, String)}, and also collects the class path roots,
+     * i.e. <code>jar:file:/lib/services.jar!/</code>, whose indexes have entries for the package.
+     */
+    static Map<String, String> read(ClassLoader classLoader, String packageName, Set<String> indexedRoots)
+            throws IOException
+    {
+        Map<String, String> services = new TreeMap<String, String>();
+
+        Enumeration<URL> resources = classLoader.getResources(RESOURCE_NAME);
+
+        while (resources.hasMoreElements())
+        {
+            URL resource = resources.nextElement();
+
+            URLConnection connection = resource.openConnection();
+            //  Don't let the JDK keep the jar file open after we've read the index
+            connection.setUseCaches(false);
+
+            int size = services.size();
+
+            InputStream input = connection.getInputStream();
+            try
+            {
+                read(input, packageName, services);
+            }
+            finally
+            {
+                input.close();
+            }
+
+            if (services.size() > size)
+            {
+                indexedRoots.add(rootOf(resource, RESOURCE_NAME));
+            }
+        }
+
+        return services.isEmpty() ? null : services;
+    }
+
+    /**
+     * @param resource URL of the resource.
+     * @param path Path of the resource relative to the class path root.
+     * @return URL of the class path root the resource was found in.
+     */
+    static String rootOf(URL resource, String path)
+    {
+        String url = resource.toString();
+
+        if (url.endsWith("/"))
+        {
+            url = url.substring(0, url.length() - 1);
+        }
+
+        return url.endsWith(path) ? url.substring(0, url.length() - path.length()) : url;
+    }
+
+    static void read(InputStream input, String packageName, Map<String, String> services) throws IOException
+    {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null)
+        {
+            line = line.trim();
+
+            if (line.isEmpty() || line.startsWith("#"))
+            {
+                continue;
+            }
+
+            int separator = line.indexOf('=');
+
+            if (separator <= 0)
+            {
+                continue;
+            }
+
+            String serviceName = line.substring(0, separator).trim();
+
+            if (packageName == null || packageName.equals(packageOf(serviceName)))
+            {
+                services.put(serviceName, line.substring(separator + 1).trim());
+            }
+        }
+    }
+
+    static void write(Map<String, String> services, Writer writer) throws IOException
+    {
+        writer.write("# Generated by " + ServiceIndexProcessor.class.getName() + ", do not edit\n");
+
+        for (Map.Entry<String, String> entry : services.entrySet())
+        {
+            writer.write(entry.getKey());
+            writer.write('=');
+            writer.write(entry.getValue());
+            writer.write('\n');
+        }
+    }
+
+    static String packageOf(String className)
+    {
+        int lastDot = className.lastIndexOf('.');
+
+        return lastDot < 0 ? "" : className.substring(0, lastDot);
+    }
+
+    /**
+     * @param serviceName Fully qualified name of the service interface.
+     * @return Name of the implementation class that {@link ClasspathUtils} will bind to the service,
+     * i.e. <code>com.example.services.impl.FooImpl</code> for <code>com.example.services.Foo</code>.
+     */
+    public static String implementationName(String serviceName)
+    {
+        int lastDot = serviceName.lastIndexOf('.');
+
+        return serviceName.substring(0, lastDot + 1) + "impl." + serviceName.substring(lastDot + 1) + "Impl";
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes {@link ServiceIndex} for packages marked with {@link IndexedServices}:
+ * every top-level type <code>some.package.Foo</code> that has a matching <code>some.package.impl.FooImpl</code>
+ * class is added to the index. Like classpath scanning of {@link ClasspathUtils#autobindServices}, this includes
+ * classes, not just interfaces.
+ * <p>
+ * Interfaces and implementations are looked up among all types of the compilation, including those on the
+ * class path, so the index is written from scratch and is complete even if an incremental compiler passes
+ * only changed sources. The processor is declared as aggregating for Gradle incremental compilation.
+ */
+@SupportedAnnotationTypes("com.anjlab.tapestry5.services.IndexedServices")
+public class ServiceIndexProcessor extends AbstractProcessor
+{
+    private static final String IMPL_PACKAGE_SUFFIX = ".impl";
+    private static final String IMPL_CLASS_SUFFIX = "Impl";
+
+    private final Map<String, String> services = new TreeMap<String, String>();
+
+    private final List<Element> originatingElements = new ArrayList<Element>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        if (roundEnv.processingOver())
+        {
+            writeIndex();
+        }
+        else
+        {
+            for (Element element : roundEnv.getElementsAnnotatedWith(IndexedServices.class))
+            {
+                if (element.getKind() == ElementKind.PACKAGE)
+                {
+                    collect((PackageElement) element);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void collect(PackageElement servicesPackage)
+    {
+        originatingElements.add(servicesPackage);
+
+        String implementationPackage = servicesPackage.getQualifiedName() + IMPL_PACKAGE_SUFFIX;
+
+        for (Element element : servicesPackage.getEnclosedElements())
+        {
+            if (!element.getKind().isInterface() && !element.getKind().isClass())
+            {
+                continue;
+            }
+
+            TypeElement service = (TypeElement) element;
+
+            String implementationName = implementationPackage + "."
+                    + service.getSimpleName() + IMPL_CLASS_SUFFIX;
+
+            TypeElement implementation = processingEnv.getElementUtils().getTypeElement(implementationName);
+
+            if (implementation != null && implementation.getKind() == ElementKind.CLASS)
+            {
+                services.put(service.getQualifiedName().toString(), implementationName);
+            }
+        }
+    }
+
+    private void writeIndex()
+    {
+        if (services.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            FileObject resource = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", ServiceIndex.RESOURCE_NAME,
+                            originatingElements.toArray(new Element[originatingElements.size()]));
+
+            Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8);
+            try
+            {
+                ServiceIndex.write(services, writer);
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + ServiceIndex.RESOURCE_NAME + ": " + e.getMessage());
+        }
+    }
+}
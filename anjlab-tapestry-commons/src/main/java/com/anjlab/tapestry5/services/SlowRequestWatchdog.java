@@ -0,0 +1,299 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Tracks requests in flight in {@link MDCInsertingServletFilter} and logs stack traces of threads
+ * that handle a request longer than the threshold.
+ * <p>
+ * Every request thread gets its own slot where it writes the request when the request starts and clears it
+ * when the request ends, so tracking a request takes no locks and allocates nothing.
+ * A single background thread scans the slots and captures stack traces of slow requests,
+ * once per request, logged with the request ID and session ID in the MDC.
+ * <p>
+ * Only the time a request occupies a container thread is tracked, async requests that released
+ * their thread are not.
+ */
+final class SlowRequestWatchdog
+{
+    private static final Logger logger = LoggerFactory.getLogger(SlowRequestWatchdog.class);
+
+    /**
+     * Stack trace of a request thread, logged as an exception so appenders format it.
+     */
+    static final class RequestStackTrace extends Throwable
+    {
+        private static final long serialVersionUID = 1L;
+
+        RequestStackTrace(Thread thread, StackTraceElement[] stackTrace)
+        {
+            super("Stack trace of " + thread.getName(), null, false, true);
+            setStackTrace(stackTrace);
+        }
+    }
+
+    private static final class Slot
+    {
+        final Thread thread;
+
+        /**
+         * Nesting level of the filter on the thread, only accessed by the request thread.
+         */
+        int depth;
+
+        String requestId;
+        String sessionId;
+        String method;
+        String uri;
+
+        /**
+         * Written after the request fields, zero when the thread doesn't handle a request.
+         */
+        volatile long startNanos;
+
+        /**
+         * Start of the last request reported by the watchdog, only accessed by the watchdog thread.
+         */
+        long reportedStartNanos;
+
+        Slot(Thread thread)
+        {
+            this.thread = thread;
+        }
+    }
+
+    private final long thresholdNanos;
+    private final long intervalMillis;
+
+    private final ConcurrentMap<Thread, Slot> slots = new ConcurrentHashMap<Thread, Slot>();
+
+    private final Thread watchdog;
+
+    private volatile boolean closed;
+
+    SlowRequestWatchdog(long thresholdMillis, long intervalMillis)
+    {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.intervalMillis = intervalMillis;
+
+        this.watchdog = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                watch();
+            }
+        }, "slow-request-watchdog");
+        this.watchdog.setDaemon(true);
+        this.watchdog.start();
+    }
+
+    /**
+     * @return Watchdog configured with filter init parameters, or <code>null</code> if it's disabled.
+     */
+    static SlowRequestWatchdog create(FilterConfig filterConfig) throws ServletException
+    {
+        String threshold = filterConfig.getInitParameter(MDCInsertingServletFilter.WATCHDOG_THRESHOLD_PARAM);
+        String interval = filterConfig.getInitParameter(MDCInsertingServletFilter.WATCHDOG_INTERVAL_PARAM);
+
+        try
+        {
+            long thresholdMillis = threshold == null ? 0 : Long.parseLong(threshold.trim());
+
+            if (thresholdMillis <= 0)
+            {
+                return null;
+            }
+
+            return new SlowRequestWatchdog(thresholdMillis,
+                    interval == null ? Math.max(10, thresholdMillis / 2) : Long.parseLong(interval.trim()));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new ServletException("Invalid slow request watchdog configuration", e);
+        }
+    }
+
+    void begin(HttpServletRequest request, String requestId, String sessionId)
+    {
+        Thread thread = Thread.currentThread();
+
+        Slot slot = slots.get(thread);
+        if (slot == null)
+        {
+            slot = new Slot(thread);
+            slots.put(thread, slot);
+        }
+
+        if (slot.depth++ > 0)
+        {
+            return;
+        }
+
+        slot.requestId = requestId;
+        slot.sessionId = sessionId;
+        slot.method = request.getMethod();
+        slot.uri = request.getRequestURI();
+
+        long now = System.nanoTime();
+        //  Zero means idle
+        slot.startNanos = now == 0 ? 1 : now;
+    }
+
+    void end()
+    {
+        Slot slot = slots.get(Thread.currentThread());
+
+        if (slot == null || --slot.depth > 0)
+        {
+            return;
+        }
+
+        slot.startNanos = 0;
+        slot.requestId = null;
+        slot.sessionId = null;
+        slot.method = null;
+        slot.uri = null;
+    }
+
+    void close()
+    {
+        closed = true;
+        watchdog.interrupt();
+
+        try
+        {
+            watchdog.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        slots.clear();
+    }
+
+    private void watch()
+    {
+        while (!closed)
+        {
+            try
+            {
+                Thread.sleep(intervalMillis);
+            }
+            catch (InterruptedException e)
+            {
+                continue;
+            }
+
+            try
+            {
+                scan();
+            }
+            catch (RuntimeException e)
+            {
+                logger.error("Error scanning requests in flight", e);
+            }
+        }
+    }
+
+    /**
+     * @return Number of slow requests reported.
+     */
+    int scan()
+    {
+        long now = System.nanoTime();
+        int reported = 0;
+
+        Iterator<Map.Entry<Thread, Slot>> iterator = slots.entrySet().iterator();
+
+        while (iterator.hasNext())
+        {
+            Slot slot = iterator.next().getValue();
+
+            if (!slot.thread.isAlive())
+            {
+                iterator.remove();
+                continue;
+            }
+
+            long startNanos = slot.startNanos;
+
+            if (startNanos == 0 || startNanos == slot.reportedStartNanos || now - startNanos < thresholdNanos)
+            {
+                continue;
+            }
+
+            String requestId = slot.requestId;
+            String sessionId = slot.sessionId;
+            String method = slot.method;
+            String uri = slot.uri;
+
+            StackTraceElement[] stackTrace = slot.thread.getStackTrace();
+
+            //  The thread could have moved to another request while its stack trace was captured
+            if (slot.startNanos != startNanos)
+            {
+                continue;
+            }
+
+            slot.reportedStartNanos = startNanos;
+
+            report(slot.thread, requestId, sessionId, method, uri,
+                    TimeUnit.NANOSECONDS.toMillis(now - startNanos), stackTrace);
+
+            reported++;
+        }
+
+        return reported;
+    }
+
+    int getTrackedThreadCount()
+    {
+        return slots.size();
+    }
+
+    private void report(Thread thread, String requestId, String sessionId, String method, String uri,
+            long durationMillis, StackTraceElement[] stackTrace)
+    {
+        MDC.put(MDCInsertingServletFilter.REQUEST_ID, requestId);
+        MDC.put(MDCInsertingServletFilter.REQUEST_SESSION_ID, sessionId);
+        try
+        {
+            logger.warn("Request {} {} is running for {}ms on thread {}",
+                    method, uri, durationMillis, thread.getName(), new RequestStackTrace(thread, stackTrace));
+        }
+        finally
+        {
+            MDC.remove(MDCInsertingServletFilter.REQUEST_ID);
+            MDC.remove(MDCInsertingServletFilter.REQUEST_SESSION_ID);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Generates sequential numbers prefixed with the node prefix, i.e. <code>node1-42</code>.
+ * <p>
+ * Each thread takes a block of numbers from a shared counter and then generates IDs from its block
+ * without synchronization, so the shared counter is only touched once per {@link #BLOCK_SIZE} requests.
+ * IDs are unique, but IDs of requests served by different threads are not ordered.
+ */
+public class StripedRequestIdGenerator implements RequestIdGenerator
+{
+    static final int BLOCK_SIZE = 1024;
+
+    private final String prefix;
+
+    private final AtomicLong nextBlock = new AtomicLong(1);
+
+    /**
+     * Next ID and the end of the block of the current thread.
+     */
+    private final ThreadLocal<long[]> blocks = new ThreadLocal<long[]>()
+    {
+        @Override
+        protected long[] initialValue()
+        {
+            return new long[2];
+        }
+    };
+
+    /**
+     * @param prefix Prefix that identifies this node in the cluster, may be empty.
+     */
+    public StripedRequestIdGenerator(String prefix)
+    {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void appendRequestId(HttpServletRequest request, StringBuilder buffer)
+    {
+        long[] block = blocks.get();
+
+        if (block[0] == block[1])
+        {
+            block[0] = nextBlock.getAndAdd(BLOCK_SIZE);
+            block[1] = block[0] + BLOCK_SIZE;
+        }
+
+        buffer.append(prefix).append(block[0]++);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Generates IDs that sort in the order of requests, i.e. <code>node1-0186f3c2a1b40001</code>.
+ * <p>
+ * IDs are 16 hex digits of a 64 bit number made of the current time in milliseconds shifted left by 16 bits
+ * plus a sequence number in the lower 16 bits, prefixed with the node prefix. When more than 65536 requests arrive within a millisecond,
+ * IDs run ahead of the clock rather than repeat.
+ */
+public class TimeOrderedRequestIdGenerator implements RequestIdGenerator
+{
+    private static final int SEQUENCE_BITS = 16;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String prefix;
+
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * @param prefix Prefix that identifies this node in the cluster, may be empty.
+     */
+    public TimeOrderedRequestIdGenerator(String prefix)
+    {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void appendRequestId(HttpServletRequest request, StringBuilder buffer)
+    {
+        long id = nextId(System.currentTimeMillis() << SEQUENCE_BITS);
+
+        buffer.append(prefix);
+
+        for (int shift = 60; shift >= 0; shift -= 4)
+        {
+            buffer.append(HEX_DIGITS[(int) (id >>> shift) & 0xF]);
+        }
+    }
+
+    long nextId(long now)
+    {
+        while (true)
+        {
+            long previous = last.get();
+            long next = Math.max(now, previous + 1);
+
+            if (last.compareAndSet(previous, next))
+            {
+                return next;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket that keeps its state in a single {@link AtomicLong}.
+ * <p>
+ * Instead of the number of tokens the bucket keeps the time when it will be full again
+ * (generic cell rate algorithm), so it doesn't need a refill thread or a lock.
+ */
+final class TokenBucket
+{
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    private final AtomicLong fullAt;
+
+    /**
+     * @param permitsPerSecond Rate at which tokens are added to the bucket.
+     * @param burst            Capacity of the bucket.
+     */
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos)
+    {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    boolean tryAcquire(long nowNanos)
+    {
+        while (true)
+        {
+            long current = fullAt.get();
+            long start = current - nowNanos < 0 ? nowNanos : current;
+
+            if (start - nowNanos > toleranceNanos)
+            {
+                return false;
+            }
+
+            if (fullAt.compareAndSet(current, start + intervalNanos))
+            {
+                return true;
+            }
+        }
+    }
+}
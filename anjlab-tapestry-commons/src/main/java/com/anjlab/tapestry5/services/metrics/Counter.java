@@ -0,0 +1,41 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter that is striped between threads, so concurrent increments don't contend.
+ */
+public final class Counter
+{
+    private final LongAdder count = new LongAdder();
+
+    public void increment()
+    {
+        count.increment();
+    }
+
+    public void add(long value)
+    {
+        count.add(value);
+    }
+
+    public long getCount()
+    {
+        return count.sum();
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Uses request path without context path, with every path segment that contains a digit replaced by <code>*</code>,
+ * i.e. <code>/users/42/edit</code> and <code>/users/43/edit</code> are both mapped to <code>/users/&#42;/edit</code>.
+ * <p>
+ * Tapestry page names are kept, along with component event names, i.e. <code>/index.grid:sort</code>,
+ * and page activation context values are replaced when they contain digits.
+ */
+public class DefaultRouteNormalizer implements RouteNormalizer
+{
+    @Override
+    public String getRoute(HttpServletRequest request)
+    {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+
+        int start = contextPath != null && uri.startsWith(contextPath) ? contextPath.length() : 0;
+
+        if (start == uri.length())
+        {
+            return "/";
+        }
+
+        StringBuilder route = null;
+        int segmentStart = start;
+
+        for (int i = start; i <= uri.length(); i++)
+        {
+            if (i < uri.length() && uri.charAt(i) != '/')
+            {
+                continue;
+            }
+
+            if (containsDigit(uri, segmentStart, i))
+            {
+                if (route == null)
+                {
+                    route = new StringBuilder(uri.length() - start);
+                    route.append(uri, start, segmentStart);
+                }
+                route.append('*');
+            }
+            else if (route != null)
+            {
+                route.append(uri, segmentStart, i);
+            }
+
+            if (i < uri.length() && route != null)
+            {
+                route.append('/');
+            }
+
+            segmentStart = i + 1;
+        }
+
+        return route == null ? uri.substring(start) : route.toString();
+    }
+
+    private static boolean containsDigit(String uri, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            char c = uri.charAt(i);
+            if (c >= '0' && c <= '9')
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in microseconds with log-linear buckets, similar to HdrHistogram.
+ * <p>
+ * Values below {@link #LINEAR_LIMIT} are recorded exactly, larger values fall into buckets
+ * whose width is 1/64 of their lower bound, so percentiles are reported with less than 1.6% error.
+ * Values above {@link #MAX_VALUE} (about 71 minutes) are recorded as {@link #MAX_VALUE}.
+ * <p>
+ * Recording a value is a single atomic increment, a CAS on the maximum is only done for new maximums.
+ */
+public final class LatencyHistogram
+{
+    private static final int PRECISION_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << (PRECISION_BITS - 1);
+
+    static final int LINEAR_LIMIT = 1 << PRECISION_BITS;
+
+    static final long MAX_VALUE = (1L << 32) - 1;
+
+    private static final int MAX_EXPONENT = 63 - Long.numberOfLeadingZeros(MAX_VALUE);
+
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_EXPONENT - PRECISION_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value Latency in microseconds, negative values are recorded as zero.
+     */
+    public void record(long value)
+    {
+        if (value < 0)
+        {
+            value = 0;
+        }
+        else if (value > MAX_VALUE)
+        {
+            value = MAX_VALUE;
+        }
+
+        counts.incrementAndGet(bucketIndex(value));
+        sum.add(value);
+
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value))
+        {
+            currentMax = max.get();
+        }
+    }
+
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * @return Copy of the histogram. Values recorded while the copy is taken may be partially included.
+     */
+    public Snapshot snapshot()
+    {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+
+        return new Snapshot(snapshot, count, sum.sum(), max.get());
+    }
+
+    static int bucketIndex(long value)
+    {
+        if (value < LINEAR_LIMIT)
+        {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - PRECISION_BITS + 1));
+
+        return LINEAR_LIMIT + (exponent - PRECISION_BITS) * SUB_BUCKET_COUNT + (subBucket - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * @return The highest value that is recorded to the bucket.
+     */
+    static long highestValue(int bucketIndex)
+    {
+        if (bucketIndex < LINEAR_LIMIT)
+        {
+            return bucketIndex;
+        }
+
+        int offset = bucketIndex - LINEAR_LIMIT;
+        int shift = offset / SUB_BUCKET_COUNT + 1;
+        long subBucket = SUB_BUCKET_COUNT + offset % SUB_BUCKET_COUNT;
+
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Immutable copy of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot
+    {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max)
+        {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getMax()
+        {
+            return max;
+        }
+
+        public double getMean()
+        {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public long getP50()
+        {
+            return getValueAtPercentile(50);
+        }
+
+        public long getP90()
+        {
+            return getValueAtPercentile(90);
+        }
+
+        public long getP99()
+        {
+            return getValueAtPercentile(99);
+        }
+
+        public long getP999()
+        {
+            return getValueAtPercentile(99.9);
+        }
+
+        /**
+         * @param percentile Percentile from 0 to 100, i.e. <code>99.9</code>.
+         * @return The value that the given percentage of recorded values doesn't exceed,
+         * or zero if the histogram is empty.
+         */
+        public long getValueAtPercentile(double percentile)
+        {
+            if (count == 0)
+            {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+            long cumulative = 0;
+
+            for (int i = 0; i < counts.length; i++)
+            {
+                cumulative += counts[i];
+
+                if (cumulative >= rank)
+                {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+
+            return max;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically writes {@link MetricsSnapshot} of a {@link MetricsRegistry} to a file.
+ * <p>
+ * The file is replaced atomically, so readers always see a complete snapshot.
+ */
+public class MetricsFileExporter
+{
+    private static final Logger logger = LoggerFactory.getLogger(MetricsFileExporter.class);
+
+    private final MetricsRegistry registry;
+    private final File file;
+    private final long intervalMillis;
+
+    private ScheduledExecutorService executor;
+
+    public MetricsFileExporter(MetricsRegistry registry, File file, long intervalMillis)
+    {
+        this.registry = registry;
+        this.file = file;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public synchronized void start()
+    {
+        if (executor != null)
+        {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, "metrics-file-exporter");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        executor.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    export();
+                }
+                catch (IOException e)
+                {
+                    logger.warn("Unable to export metrics to {}", file, e);
+                }
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops periodic export and writes the last snapshot.
+     */
+    public synchronized void stop()
+    {
+        if (executor == null)
+        {
+            return;
+        }
+
+        executor.shutdownNow();
+        executor = null;
+
+        try
+        {
+            export();
+        }
+        catch (IOException e)
+        {
+            logger.warn("Unable to export metrics to {}", file, e);
+        }
+    }
+
+    public void export() throws IOException
+    {
+        File directory = file.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile(file.getName(), ".tmp", directory);
+
+        try
+        {
+            Writer writer = new OutputStreamWriter(Files.newOutputStream(temp.toPath()), StandardCharsets.UTF_8);
+            try
+            {
+                registry.snapshot().writeTo(writer);
+            }
+            finally
+            {
+                writer.close();
+            }
+
+            try
+            {
+                Files.move(temp.toPath(), file.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Exposes {@link MetricsRegistry} as <code>com.anjlab.tapestry5:type=MetricsRegistry</code> MBean.
+ */
+public class MetricsJmxExporter implements MetricsRegistryMXBean
+{
+    private final MetricsRegistry registry;
+
+    private ObjectName objectName;
+
+    public MetricsJmxExporter(MetricsRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * @param name Name that tells registries of different applications in the same JVM apart,
+     *             i.e. <code>com.anjlab.tapestry5:type=MetricsRegistry,name="shop"</code>,
+     *             empty for <code>com.anjlab.tapestry5:type=MetricsRegistry</code>.
+     */
+    public void register(String name) throws JMException
+    {
+        objectName = new ObjectName(name.isEmpty()
+                ? "com.anjlab.tapestry5:type=MetricsRegistry"
+                : "com.anjlab.tapestry5:type=MetricsRegistry,name=" + ObjectName.quote(name));
+
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    }
+
+    public void unregister() throws JMException
+    {
+        if (objectName != null)
+        {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounters()
+    {
+        return registry.snapshot().getCounters();
+    }
+
+    @Override
+    public Map<String, Double> getGauges()
+    {
+        return registry.snapshot().getGauges();
+    }
+
+    @Override
+    public Map<String, LatencyHistogram.Snapshot> getTimers()
+    {
+        return registry.snapshot().getTimers();
+    }
+
+    @Override
+    public Map<String, LatencyHistogram.Snapshot> getHistograms()
+    {
+        return registry.snapshot().getHistograms();
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import org.apache.tapestry5.ioc.annotations.UsesConfiguration;
+
+/**
+ * Named counters, gauges, timers and histograms of the application.
+ * <p>
+ * Meters are created on first request and returned on subsequent requests with the same name,
+ * callers should keep references to meters they record to, so recording is only a few atomic operations
+ * and doesn't allocate. Names are dot-separated, i.e. <code>quartz.jobs.executed</code>.
+ * <p>
+ * Modules register their meters by contributing {@link MeterBinder}s.
+ */
+@UsesConfiguration(MeterBinder.class)
+public interface MetricsRegistry
+{
+    /**
+     * @throws IllegalArgumentException if a meter of another type is registered with this name.
+     */
+    Counter counter(String name);
+
+    /**
+     * @throws IllegalArgumentException if a meter of another type is registered with this name.
+     */
+    Timer timer(String name);
+
+    /**
+     * @throws IllegalArgumentException if a meter of another type is registered with this name.
+     */
+    Histogram histogram(String name);
+
+    /**
+     * Registers a gauge, replacing previously registered gauge with this name.
+     *
+     * @throws IllegalArgumentException if a meter of another type is registered with this name.
+     */
+    void gauge(String name, Gauge gauge);
+
+    /**
+     * @return Current values of all meters.
+     */
+    MetricsSnapshot snapshot();
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class MetricsRegistryImpl implements MetricsRegistry
+{
+    private final ConcurrentMap<String, Object> meters = new ConcurrentHashMap<String, Object>();
+
+    public MetricsRegistryImpl(Collection<MeterBinder> binders)
+    {
+        for (MeterBinder binder : binders)
+        {
+            binder.bindTo(this);
+        }
+    }
+
+    @Override
+    public Counter counter(String name)
+    {
+        return meter(name, Counter.class);
+    }
+
+    @Override
+    public Timer timer(String name)
+    {
+        return meter(name, Timer.class);
+    }
+
+    @Override
+    public Histogram histogram(String name)
+    {
+        return meter(name, Histogram.class);
+    }
+
+    @Override
+    public void gauge(String name, Gauge gauge)
+    {
+        Object previous = meters.put(name, gauge);
+
+        if (previous != null && !(previous instanceof Gauge))
+        {
+            meters.put(name, previous);
+            throw conflict(name, previous);
+        }
+    }
+
+    private <T> T meter(String name, Class<T> type)
+    {
+        Object meter = meters.get(name);
+
+        if (meter == null)
+        {
+            Object newMeter = newMeter(type);
+            meter = meters.putIfAbsent(name, newMeter);
+            if (meter == null)
+            {
+                meter = newMeter;
+            }
+        }
+
+        if (!type.isInstance(meter))
+        {
+            throw conflict(name, meter);
+        }
+
+        return type.cast(meter);
+    }
+
+    private static Object newMeter(Class<?> type)
+    {
+        if (type == Counter.class)
+        {
+            return new Counter();
+        }
+        if (type == Timer.class)
+        {
+            return new Timer();
+        }
+        return new Histogram();
+    }
+
+    private static IllegalArgumentException conflict(String name, Object meter)
+    {
+        return new IllegalArgumentException(
+                "Meter " + name + " is already registered as " + meter.getClass().getSimpleName());
+    }
+
+    @Override
+    public MetricsSnapshot snapshot()
+    {
+        Map<String, Long> counters = new TreeMap<String, Long>();
+        Map<String, Double> gauges = new TreeMap<String, Double>();
+        Map<String, LatencyHistogram.Snapshot> timers = new TreeMap<String, LatencyHistogram.Snapshot>();
+        Map<String, LatencyHistogram.Snapshot> histograms = new TreeMap<String, LatencyHistogram.Snapshot>();
+
+        for (Map.Entry<String, Object> entry : meters.entrySet())
+        {
+            Object meter = entry.getValue();
+
+            if (meter instanceof Counter)
+            {
+                counters.put(entry.getKey(), ((Counter) meter).getCount());
+            }
+            else if (meter instanceof Gauge)
+            {
+                gauges.put(entry.getKey(), ((Gauge) meter).getValue());
+            }
+            else if (meter instanceof Timer)
+            {
+                timers.put(entry.getKey(), ((Timer) meter).snapshot());
+            }
+            else
+            {
+                histograms.put(entry.getKey(), ((Histogram) meter).snapshot());
+            }
+        }
+
+        return new MetricsSnapshot(System.currentTimeMillis(), counters, gauges, timers, histograms);
+    }
+}
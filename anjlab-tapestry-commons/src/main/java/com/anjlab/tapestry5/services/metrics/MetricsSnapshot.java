@@ -0,0 +1,115 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Values of all meters of {@link MetricsRegistry} at some point in time, sorted by name.
+ * Timer values are in microseconds.
+ */
+public final class MetricsSnapshot
+{
+    private final long timestamp;
+    private final Map<String, Long> counters;
+    private final Map<String, Double> gauges;
+    private final Map<String, LatencyHistogram.Snapshot> timers;
+    private final Map<String, LatencyHistogram.Snapshot> histograms;
+
+    MetricsSnapshot(long timestamp, Map<String, Long> counters, Map<String, Double> gauges,
+            Map<String, LatencyHistogram.Snapshot> timers, Map<String, LatencyHistogram.Snapshot> histograms)
+    {
+        this.timestamp = timestamp;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.timers = Collections.unmodifiableMap(timers);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    public Map<String, Long> getCounters()
+    {
+        return counters;
+    }
+
+    public Map<String, Double> getGauges()
+    {
+        return gauges;
+    }
+
+    public Map<String, LatencyHistogram.Snapshot> getTimers()
+    {
+        return timers;
+    }
+
+    public Map<String, LatencyHistogram.Snapshot> getHistograms()
+    {
+        return histograms;
+    }
+
+    /**
+     * Writes the snapshot as text, one meter per line:
+     *
+     * <pre>
+     * # 2026-01-01T00:00:00Z
+     * counter quartz.jobs.executed 42
+     * gauge http.requests 1000.0
+     * timer quartz.jobs.duration count=42 mean=1500.0 p50=1200 p90=2100 p99=5000 p999=5000 max=5000
+     * </pre>
+     */
+    public void writeTo(Writer writer) throws IOException
+    {
+        writer.write("# " + Instant.ofEpochMilli(timestamp) + "\n");
+
+        for (Map.Entry<String, Long> entry : counters.entrySet())
+        {
+            writer.write("counter " + entry.getKey() + " " + entry.getValue() + "\n");
+        }
+        for (Map.Entry<String, Double> entry : gauges.entrySet())
+        {
+            writer.write("gauge " + entry.getKey() + " " + entry.getValue() + "\n");
+        }
+        writeHistograms(writer, "timer", timers);
+        writeHistograms(writer, "histogram", histograms);
+    }
+
+    private static void writeHistograms(Writer writer, String type, Map<String, LatencyHistogram.Snapshot> histograms)
+            throws IOException
+    {
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : histograms.entrySet())
+        {
+            LatencyHistogram.Snapshot snapshot = entry.getValue();
+
+            writer.write(type + " " + entry.getKey()
+                    + " count=" + snapshot.getCount()
+                    + " mean=" + snapshot.getMean()
+                    + " p50=" + snapshot.getP50()
+                    + " p90=" + snapshot.getP90()
+                    + " p99=" + snapshot.getP99()
+                    + " p999=" + snapshot.getP999()
+                    + " max=" + snapshot.getMax()
+                    + "\n");
+        }
+    }
+}
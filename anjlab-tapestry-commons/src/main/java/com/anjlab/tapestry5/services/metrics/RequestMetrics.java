@@ -0,0 +1,156 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies, response status counts and response sizes grouped by route.
+ * <p>
+ * The number of routes is limited, requests of routes that don't fit are recorded to {@link #OTHER_ROUTE}.
+ */
+public class RequestMetrics implements RequestMetricsMXBean
+{
+    public static final String OTHER_ROUTE = "(other)";
+
+    /**
+     * Name of the servlet context attribute that holds metrics recorded by
+     * {@link com.anjlab.tapestry5.services.MDCInsertingServletFilter}.
+     */
+    public static final String ATTRIBUTE_NAME = RequestMetrics.class.getName();
+
+    private final ConcurrentMap<String, RouteStats> routes = new ConcurrentHashMap<String, RouteStats>();
+
+    private final RouteStats other = new RouteStats();
+
+    private final int maxRoutes;
+
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder serverErrorCount = new LongAdder();
+
+    public RequestMetrics(int maxRoutes)
+    {
+        this.maxRoutes = maxRoutes;
+    }
+
+    public void record(String route, long durationNanos, int status, long bytesWritten)
+    {
+        routeStats(route).record(durationNanos / 1000, status, bytesWritten);
+
+        requestCount.increment();
+        if (status >= 500)
+        {
+            serverErrorCount.increment();
+        }
+    }
+
+    /**
+     * @return Number of requests of all routes since start, not cleared by {@link #reset()}.
+     */
+    public long getRequestCount()
+    {
+        return requestCount.sum();
+    }
+
+    /**
+     * @return Number of requests with 5xx status of all routes since start, not cleared by {@link #reset()}.
+     */
+    public long getServerErrorCount()
+    {
+        return serverErrorCount.sum();
+    }
+
+    private RouteStats routeStats(String route)
+    {
+        RouteStats stats = routes.get(route);
+
+        if (stats == null)
+        {
+            if (routes.size() >= maxRoutes)
+            {
+                overflowCount.incrementAndGet();
+                return other;
+            }
+
+            RouteStats newStats = new RouteStats();
+            stats = routes.putIfAbsent(route, newStats);
+            if (stats == null)
+            {
+                stats = newStats;
+            }
+        }
+
+        return stats;
+    }
+
+    /**
+     * @return Number of requests recorded to {@link #OTHER_ROUTE} because the limit of routes was reached.
+     */
+    @Override
+    public long getOverflowCount()
+    {
+        return overflowCount.get();
+    }
+
+    @Override
+    public Map<String, RouteSnapshot> getRoutes()
+    {
+        Map<String, RouteSnapshot> snapshots = new TreeMap<String, RouteSnapshot>();
+
+        for (Map.Entry<String, RouteStats> entry : routes.entrySet())
+        {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+        }
+
+        if (overflowCount.get() > 0)
+        {
+            snapshots.put(OTHER_ROUTE, other.snapshot(OTHER_ROUTE));
+        }
+
+        return snapshots;
+    }
+
+    /**
+     * @return Snapshot of the route, or <code>null</code> if nothing was recorded for the route.
+     */
+    public RouteSnapshot getRoute(String route)
+    {
+        RouteStats stats = OTHER_ROUTE.equals(route) ? other : routes.get(route);
+
+        return stats == null ? null : stats.snapshot(route);
+    }
+
+    /**
+     * Clears recorded values, routes are kept.
+     */
+    @Override
+    public void reset()
+    {
+        for (RouteStats stats : routes.values())
+        {
+            stats.reset();
+        }
+        other.reset();
+        overflowCount.set(0);
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link RequestMetrics}, registered by
+ * {@link com.anjlab.tapestry5.services.MDCInsertingServletFilter} when metrics are enabled.
+ */
+public interface RequestMetricsMXBean
+{
+    /**
+     * @return Snapshots of all routes by route.
+     */
+    Map<String, RouteSnapshot> getRoutes();
+
+    long getOverflowCount();
+
+    void reset();
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.tapestry5.http.services.ApplicationGlobals;
+
+public class RequestMetricsSourceImpl implements RequestMetricsSource
+{
+    private final ApplicationGlobals applicationGlobals;
+
+    public RequestMetricsSourceImpl(ApplicationGlobals applicationGlobals)
+    {
+        this.applicationGlobals = applicationGlobals;
+    }
+
+    @Override
+    public RequestMetrics getRequestMetrics()
+    {
+        //  The filter may be initialized after the registry, so don't cache the lookup
+        return applicationGlobals.getServletContext() == null
+                ? null
+                : (RequestMetrics) applicationGlobals.getServletContext().getAttribute(RequestMetrics.ATTRIBUTE_NAME);
+    }
+
+    @Override
+    public Map<String, RouteSnapshot> getRoutes()
+    {
+        RequestMetrics metrics = getRequestMetrics();
+
+        return metrics == null ? Collections.<String, RouteSnapshot>emptyMap() : metrics.getRoutes();
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Maps requests to routes that {@link RequestMetrics} are grouped by.
+ * <p>
+ * Implementations should return a small number of distinct routes, i.e. without IDs from request paths.
+ * Implementations must be thread-safe.
+ */
+public interface RouteNormalizer
+{
+    String getRoute(HttpServletRequest request);
+}
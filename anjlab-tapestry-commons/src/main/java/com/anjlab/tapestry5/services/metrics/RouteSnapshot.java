@@ -0,0 +1,110 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+/**
+ * Request metrics of a single route, latencies are in microseconds.
+ * <p>
+ * Getters of this class are exposed as composite data by {@link RequestMetricsMXBean}.
+ */
+public final class RouteSnapshot
+{
+    private final String route;
+    private final LatencyHistogram.Snapshot latency;
+    private final long[] statusCounts;
+    private final long bytesWritten;
+
+    RouteSnapshot(String route, LatencyHistogram.Snapshot latency, long[] statusCounts, long bytesWritten)
+    {
+        this.route = route;
+        this.latency = latency;
+        this.statusCounts = statusCounts;
+        this.bytesWritten = bytesWritten;
+    }
+
+    public String getRoute()
+    {
+        return route;
+    }
+
+    public long getCount()
+    {
+        return latency.getCount();
+    }
+
+    public double getMean()
+    {
+        return latency.getMean();
+    }
+
+    public long getP50()
+    {
+        return latency.getValueAtPercentile(50);
+    }
+
+    public long getP90()
+    {
+        return latency.getValueAtPercentile(90);
+    }
+
+    public long getP99()
+    {
+        return latency.getValueAtPercentile(99);
+    }
+
+    public long getP999()
+    {
+        return latency.getValueAtPercentile(99.9);
+    }
+
+    public long getMax()
+    {
+        return latency.getMax();
+    }
+
+    public long getCount2xx()
+    {
+        return statusCounts[2];
+    }
+
+    public long getCount3xx()
+    {
+        return statusCounts[3];
+    }
+
+    public long getCount4xx()
+    {
+        return statusCounts[4];
+    }
+
+    public long getCount5xx()
+    {
+        return statusCounts[5];
+    }
+
+    /**
+     * @return Bytes written with the response output stream plus characters written with the response writer.
+     */
+    public long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    public LatencyHistogram.Snapshot latency()
+    {
+        return latency;
+    }
+}
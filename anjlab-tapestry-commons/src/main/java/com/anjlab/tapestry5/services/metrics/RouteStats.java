@@ -0,0 +1,62 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+final class RouteStats
+{
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Counts of responses by the first digit of status code, other status codes are counted at index 0.
+     */
+    private final AtomicLongArray statusCounts = new AtomicLongArray(6);
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    void record(long durationMicros, int status, long bytes)
+    {
+        latency.record(durationMicros);
+
+        int statusClass = status / 100;
+        statusCounts.incrementAndGet(statusClass > 0 && statusClass < 6 ? statusClass : 0);
+
+        bytesWritten.add(bytes);
+    }
+
+    void reset()
+    {
+        latency.reset();
+        for (int i = 0; i < statusCounts.length(); i++)
+        {
+            statusCounts.set(i, 0);
+        }
+        bytesWritten.reset();
+    }
+
+    RouteSnapshot snapshot(String route)
+    {
+        long[] counts = new long[statusCounts.length()];
+        for (int i = 0; i < counts.length; i++)
+        {
+            counts[i] = statusCounts.get(i);
+        }
+
+        return new RouteSnapshot(route, latency.snapshot(), counts, bytesWritten.sum());
+    }
+}
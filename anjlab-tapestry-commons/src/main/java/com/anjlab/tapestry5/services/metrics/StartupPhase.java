@@ -0,0 +1,107 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+/**
+ * Phase of the application startup recorded by {@link StartupTimeline}.
+ * <p>
+ * A phase is started with {@link StartupTimeline#begin(String)} and must be ended with {@link #end()}
+ * on the same thread, so that allocations of the thread can be attributed to the phase.
+ */
+public final class StartupPhase
+{
+    private final StartupTimeline timeline;
+    private final String name;
+    private final long threadId;
+    private final String threadName;
+    private final long startNanos;
+    private final long startAllocatedBytes;
+
+    private long durationNanos = -1;
+    private long allocatedBytes = -1;
+
+    StartupPhase(StartupTimeline timeline, String name)
+    {
+        this.timeline = timeline;
+        this.name = name;
+        //  Keep only what the report needs, the thread may be a pooled one that outlives the startup
+        Thread thread = Thread.currentThread();
+        this.threadId = thread.getId();
+        this.threadName = thread.getName();
+        this.startAllocatedBytes = StartupTimeline.currentThreadAllocatedBytes();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends this phase and adds it to the timeline. Subsequent calls are ignored.
+     */
+    public void end()
+    {
+        if (durationNanos >= 0)
+        {
+            return;
+        }
+
+        durationNanos = System.nanoTime() - startNanos;
+
+        if (startAllocatedBytes >= 0)
+        {
+            allocatedBytes = StartupTimeline.currentThreadAllocatedBytes() - startAllocatedBytes;
+        }
+
+        timeline.add(this);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public String getThreadName()
+    {
+        return threadName;
+    }
+
+    public long getThreadId()
+    {
+        return threadId;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the phase started.
+     */
+    public long getStartNanos()
+    {
+        return startNanos;
+    }
+
+    /**
+     * @return Wall time of the phase, or <code>-1</code> if the phase hasn't ended yet.
+     */
+    public long getDurationNanos()
+    {
+        return durationNanos;
+    }
+
+    /**
+     * @return Bytes allocated by the thread during the phase,
+     * or <code>-1</code> if the JVM doesn't support measuring allocations.
+     */
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+}
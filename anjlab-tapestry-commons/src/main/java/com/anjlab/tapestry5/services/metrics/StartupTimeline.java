@@ -0,0 +1,275 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records wall time, thread and allocations of application startup phases.
+ * <p>
+ * Phases are recorded by {@link com.anjlab.tapestry5.services.ClasspathUtils#autobindServices},
+ * by <code>anjlab-tapestry-config</code> for reading and validation of properties, by application initializers
+ * of <code>anjlab-tapestry-config</code> and <code>anjlab-tapestry-liquibase</code>, and by
+ * <code>anjlab-tapestry-quartz</code> for scheduler creation. Application modules may add their own phases:
+ *
+ * <pre>
+ * StartupPhase phase = StartupTimeline.getDefault().begin("reports");
+ * try
+ * {
+ *     ...
+ * }
+ * finally
+ * {
+ *     phase.end();
+ * }
+ * </pre>
+ *
+ * Some phases run before the registry is built, so the timeline is not bound to a registry,
+ * use {@link #getDefault()} or the <code>StartupTimeline</code> service. <code>CommonsModule</code> clears
+ * the timeline after the application is initialized and when the registry shuts down.
+ */
+public final class StartupTimeline
+{
+    /**
+     * Phases above this number are not recorded, in case something keeps adding phases after the startup.
+     */
+    public static final int MAX_PHASES = 10000;
+
+    private static final StartupTimeline DEFAULT = new StartupTimeline();
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationThreadMXBean();
+
+    private static final Comparator<StartupPhase> BY_DURATION_DESC = new Comparator<StartupPhase>()
+    {
+        @Override
+        public int compare(StartupPhase o1, StartupPhase o2)
+        {
+            return Long.compare(o2.getDurationNanos(), o1.getDurationNanos());
+        }
+    };
+
+    private static final Comparator<StartupPhase> BY_START = new Comparator<StartupPhase>()
+    {
+        @Override
+        public int compare(StartupPhase o1, StartupPhase o2)
+        {
+            return Long.compare(o1.getStartNanos(), o2.getStartNanos());
+        }
+    };
+
+    private final ConcurrentLinkedQueue<StartupPhase> phases = new ConcurrentLinkedQueue<StartupPhase>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public static StartupTimeline getDefault()
+    {
+        return DEFAULT;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationThreadMXBean()
+    {
+        try
+        {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+            if (threads instanceof com.sun.management.ThreadMXBean)
+            {
+                com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+
+                if (allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled())
+                {
+                    return allocations;
+                }
+            }
+        }
+        catch (LinkageError e)
+        {
+            //  jdk.management module is not available
+        }
+        return null;
+    }
+
+    static long currentThreadAllocatedBytes()
+    {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Starts a new phase on the current thread.
+     *
+     * @param name Name of the phase.
+     * @return Phase that will be added to this timeline when it {@link StartupPhase#end() ends}.
+     */
+    public StartupPhase begin(String name)
+    {
+        return new StartupPhase(this, name);
+    }
+
+    void add(StartupPhase phase)
+    {
+        if (size.incrementAndGet() <= MAX_PHASES)
+        {
+            phases.add(phase);
+        }
+    }
+
+    /**
+     * @return Ended phases in the order they started.
+     */
+    public List<StartupPhase> getPhases()
+    {
+        List<StartupPhase> result = new ArrayList<StartupPhase>(phases);
+        Collections.sort(result, BY_START);
+        return result;
+    }
+
+    public void clear()
+    {
+        phases.clear();
+        size.set(0);
+    }
+
+    /**
+     * Writes phases sorted by wall time, longest first.
+     */
+    public void writeReport(Writer writer) throws IOException
+    {
+        List<StartupPhase> phases = getPhases();
+
+        long spanNanos = phases.isEmpty() ? 0 : spanNanos(phases);
+
+        writer.write(String.format(Locale.ROOT, "Startup timeline: %d phase(s) in %d ms%n",
+                phases.size(), TimeUnit.NANOSECONDS.toMillis(spanNanos)));
+
+        Collections.sort(phases, BY_DURATION_DESC);
+
+        for (StartupPhase phase : phases)
+        {
+            writer.write(String.format(Locale.ROOT, "%8d ms %5.1f%% %10s  %-20s %s%n",
+                    TimeUnit.NANOSECONDS.toMillis(phase.getDurationNanos()),
+                    spanNanos == 0 ? 0.0 : phase.getDurationNanos() * 100.0 / spanNanos,
+                    phase.getAllocatedBytes() < 0 ? "-" : formatBytes(phase.getAllocatedBytes()),
+                    phase.getThreadName(),
+                    phase.getName()));
+        }
+    }
+
+    private static long spanNanos(List<StartupPhase> phases)
+    {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+
+        for (StartupPhase phase : phases)
+        {
+            first = Math.min(first, phase.getStartNanos());
+            last = Math.max(last, phase.getStartNanos() + phase.getDurationNanos());
+        }
+
+        return last - first;
+    }
+
+    private static String formatBytes(long bytes)
+    {
+        if (bytes < 1024)
+        {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024)
+        {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    /**
+     * Writes phases in Trace Event Format that can be opened in <code>chrome://tracing</code> or Perfetto UI.
+     * Timestamps are microseconds since the first phase started.
+     */
+    public void writeTrace(Writer writer) throws IOException
+    {
+        List<StartupPhase> phases = getPhases();
+
+        long originNanos = phases.isEmpty() ? 0 : phases.get(0).getStartNanos();
+
+        writer.write("{\"traceEvents\":[");
+
+        boolean first = true;
+        Set<Long> threads = new HashSet<Long>();
+
+        for (StartupPhase phase : phases)
+        {
+            if (threads.add(phase.getThreadId()))
+            {
+                first = writeSeparator(writer, first);
+                writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + phase.getThreadId()
+                        + ",\"args\":{\"name\":" + quote(phase.getThreadName()) + "}}");
+            }
+
+            first = writeSeparator(writer, first);
+            writer.write("{\"name\":" + quote(phase.getName())
+                    + ",\"cat\":\"startup\",\"ph\":\"X\",\"pid\":1,\"tid\":" + phase.getThreadId()
+                    + ",\"ts\":" + TimeUnit.NANOSECONDS.toMicros(phase.getStartNanos() - originNanos)
+                    + ",\"dur\":" + TimeUnit.NANOSECONDS.toMicros(phase.getDurationNanos())
+                    + ",\"args\":{\"allocatedBytes\":" + phase.getAllocatedBytes() + "}}");
+        }
+
+        writer.write("]}\n");
+    }
+
+    private static boolean writeSeparator(Writer writer, boolean first) throws IOException
+    {
+        if (!first)
+        {
+            writer.write(",\n");
+        }
+        return false;
+    }
+
+    private static String quote(String value)
+    {
+        StringBuilder builder = new StringBuilder(value.length() + 2);
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\')
+            {
+                builder.append('\\').append(c);
+            }
+            else if (c < 0x20)
+            {
+                builder.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            }
+            else
+            {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
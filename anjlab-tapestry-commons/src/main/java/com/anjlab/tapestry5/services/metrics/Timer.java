@@ -0,0 +1,64 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogram of durations in microseconds.
+ * <p>
+ * Use {@link #start()} and {@link #stop(long)} around timed code, start time is returned as a <code>long</code>
+ * so timing doesn't allocate:
+ *
+ * <pre>
+ * long start = timer.start();
+ * try
+ * {
+ *     ...
+ * }
+ * finally
+ * {
+ *     timer.stop(start);
+ * }
+ * </pre>
+ */
+public final class Timer
+{
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    public long start()
+    {
+        return System.nanoTime();
+    }
+
+    /**
+     * @param startNanos Value returned by {@link #start()}.
+     */
+    public void stop(long startNanos)
+    {
+        record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void record(long duration, TimeUnit unit)
+    {
+        histogram.record(unit.toMicros(duration));
+    }
+
+    public LatencyHistogram.Snapshot snapshot()
+    {
+        return histogram.snapshot();
+    }
+}
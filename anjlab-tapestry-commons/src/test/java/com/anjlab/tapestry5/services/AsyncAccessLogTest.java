@@ -0,0 +1,204 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+
+public class AsyncAccessLogTest
+{
+    @Test
+    public void testWriteAllRecordsWithBlockPolicy() throws Exception
+    {
+        final List<String> lines = Collections.synchronizedList(new ArrayList<String>());
+
+        final AsyncAccessLog accessLog =
+                new AsyncAccessLog(logger(lines, null), 16, AsyncAccessLog.OverflowPolicy.BLOCK);
+
+        final int threadCount = 4;
+        final int recordsPerThread = 5000;
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < threadCount; i++)
+        {
+            final int thread = i;
+            threads.add(new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < recordsPerThread; j++)
+                    {
+                        Assert.assertTrue(accessLog.append("GET", "/t" + thread, j % 2 == 0 ? null : "q=" + j,
+                                thread + "-" + j, "-"));
+                    }
+                }
+            });
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        accessLog.close();
+
+        Assert.assertEquals(0, accessLog.getDroppedCount());
+        Assert.assertEquals(threadCount * recordsPerThread, lines.size());
+
+        //  Records of every thread are written in the order they were appended
+        int[] next = new int[threadCount];
+        for (String line : lines)
+        {
+            String[] parts = line.split(" ");
+            String[] requestId = parts[0].split("-");
+            int thread = Integer.parseInt(requestId[0]);
+            int record = Integer.parseInt(requestId[1]);
+
+            Assert.assertEquals(next[thread]++, record);
+            Assert.assertEquals(record % 2 == 0 ? "/t" + thread : "/t" + thread + "?q=" + record, parts[2]);
+        }
+    }
+
+    @Test
+    public void testDropRecordsWhenFull() throws Exception
+    {
+        List<String> lines = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch writing = new CountDownLatch(1);
+
+        AsyncAccessLog accessLog =
+                new AsyncAccessLog(logger(lines, writing), 8, AsyncAccessLog.OverflowPolicy.DROP);
+
+        Assert.assertEquals(8, accessLog.capacity());
+
+        //  The consumer takes the first record and waits in the logger, the buffer gets full after 8 more
+        Assert.assertTrue(accessLog.append("GET", "/", null, "0", "-"));
+        while (accessLog.append("GET", "/", null, "1", "-") && lines.isEmpty())
+        {
+            Thread.yield();
+        }
+
+        int appended = 0;
+        for (int i = 0; i < 20; i++)
+        {
+            if (accessLog.append("GET", "/", null, "2", "-"))
+            {
+                appended++;
+            }
+        }
+
+        Assert.assertTrue(appended <= 8);
+        Assert.assertTrue(accessLog.getDroppedCount() >= 12);
+
+        writing.countDown();
+        accessLog.close();
+
+        Assert.assertFalse(accessLog.append("GET", "/", null, "3", "-"));
+    }
+
+    @Test
+    public void testEveryRecordIsWrittenOrDroppedOnClose() throws Exception
+    {
+        for (int round = 0; round < 20; round++)
+        {
+            List<String> lines = Collections.synchronizedList(new ArrayList<String>());
+
+            final AsyncAccessLog accessLog =
+                    new AsyncAccessLog(logger(lines, null), 64, AsyncAccessLog.OverflowPolicy.BLOCK);
+
+            final AtomicInteger attempted = new AtomicInteger();
+            final AtomicInteger accepted = new AtomicInteger();
+
+            List<Thread> producers = new ArrayList<Thread>();
+            for (int i = 0; i < 4; i++)
+            {
+                producers.add(new Thread()
+                {
+                    @Override
+                    public void run()
+                    {
+                        for (int j = 0; j < 5000; j++)
+                        {
+                            attempted.incrementAndGet();
+                            if (accessLog.append("GET", "/", null, "1", "-"))
+                            {
+                                accepted.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+
+            for (Thread producer : producers)
+            {
+                producer.start();
+            }
+
+            Thread.sleep(1);
+            accessLog.close();
+
+            for (Thread producer : producers)
+            {
+                producer.join();
+            }
+
+            Assert.assertEquals(accepted.get(), lines.size());
+            Assert.assertEquals(attempted.get() - accepted.get(), accessLog.getDroppedCount());
+        }
+    }
+
+    private static Logger logger(final List<String> lines, final CountDownLatch writing)
+    {
+        return (Logger) Proxy.newProxyInstance(
+                AsyncAccessLogTest.class.getClassLoader(),
+                new Class<?>[] { Logger.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Exception
+                    {
+                        if (method.getName().equals("info"))
+                        {
+                            Object[] arguments = (Object[]) args[1];
+
+                            lines.add(MDC.get(MDCInsertingServletFilter.REQUEST_ID)
+                                    + " " + arguments[0] + " " + arguments[1] + arguments[2]);
+
+                            if (writing != null)
+                            {
+                                writing.await();
+                            }
+                        }
+                        return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+                    }
+                });
+    }
+}
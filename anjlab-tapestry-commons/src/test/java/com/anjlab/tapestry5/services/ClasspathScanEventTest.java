@@ -0,0 +1,73 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class ClasspathScanEventTest
+{
+    private static final int SERVICE_COUNT = 20;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testScanIsRecorded() throws Exception
+    {
+        File jar = new SyntheticServicesJar(SERVICE_COUNT, 100, false)
+                .write(temporaryFolder.newFile("services-jfr.jar"));
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null);
+
+        File dump = temporaryFolder.newFile("scan.jfr");
+
+        Recording recording = new Recording();
+        try
+        {
+            recording.enable("com.anjlab.tapestry5.ClasspathScan");
+            recording.start();
+
+            new ClasspathScanner(classLoader, null, null).scan(SyntheticServicesJar.SERVICES_PACKAGE);
+
+            recording.stop();
+            recording.dump(dump.toPath());
+        }
+        finally
+        {
+            recording.close();
+            classLoader.close();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.toPath());
+
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(SyntheticServicesJar.SERVICES_PACKAGE, events.get(0).getString("packageName"));
+        Assert.assertEquals(1, events.get(0).getInt("rootCount"));
+        Assert.assertEquals(SERVICE_COUNT, events.get(0).getInt("classCount"));
+    }
+}
@@ -0,0 +1,546 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.tools.ToolProvider;
+
+import org.apache.tapestry5.ioc.ServiceResources;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClasspathUtilsTest
+{
+    private static final int SERVICE_COUNT = 20;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testAutobindServicesFromIndex() throws Exception
+    {
+        File jar = new SyntheticServicesJar(SERVICE_COUNT, 100, true)
+                .write(temporaryFolder.newFile("services-with-index.jar"));
+
+        Assert.assertEquals(expectedBindings(), autobind(jar));
+    }
+
+    @Test
+    public void testAutobindServicesWithoutIndex() throws Exception
+    {
+        File jar = new SyntheticServicesJar(SERVICE_COUNT, 100, false)
+                .write(temporaryFolder.newFile("services-without-index.jar"));
+
+        Assert.assertEquals(expectedBindings(), autobind(jar));
+    }
+
+    @Test
+    public void testAutobindServicesFromSplitPackage() throws Exception
+    {
+        int half = SERVICE_COUNT / 2;
+
+        File indexed = new SyntheticServicesJar(0, half, 100, true)
+                .write(temporaryFolder.newFile("services-split-indexed.jar"));
+        File scanned = new SyntheticServicesJar(half, SERVICE_COUNT - half, 100, false)
+                .write(temporaryFolder.newFile("services-split-scanned.jar"));
+
+        Assert.assertEquals(expectedBindings(), autobind(indexed, scanned));
+    }
+
+    @Test
+    public void testLazyAutobindServices() throws Exception
+    {
+        File jar = new SyntheticServicesJar(SERVICE_COUNT, 100, true)
+                .write(temporaryFolder.newFile("services-lazy.jar"));
+
+        TrackingClassLoader classLoader = new TrackingClassLoader(jar);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try
+        {
+            final Class<?> serviceInterface = Class.forName(SyntheticServicesJar.serviceName(0), false, classLoader);
+
+            RecordingServiceBinder binder = new RecordingServiceBinder();
+
+            ClasspathUtils.autobindServices(binder.getBinder(), serviceInterface.getPackage(), AutobindMode.LAZY);
+
+            Assert.assertTrue(binder.getBindings().isEmpty());
+            Assert.assertEquals(expectedBindings().keySet(), binder.getBuilders().keySet());
+
+            String implementationName = ServiceIndex.implementationName(serviceInterface.getName());
+
+            Assert.assertFalse(classLoader.isLoaded(implementationName));
+
+            final List<Class<?>> autobuilt = new ArrayList<Class<?>>();
+
+            ServiceResources resources = (ServiceResources) Proxy.newProxyInstance(
+                    ServiceResources.class.getClassLoader(),
+                    new Class<?>[] { ServiceResources.class },
+                    new InvocationHandler()
+                    {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args)
+                        {
+                            if (method.getName().equals("getServiceInterface"))
+                            {
+                                return serviceInterface;
+                            }
+                            if (method.getName().equals("autobuild") && args.length == 1)
+                            {
+                                autobuilt.add((Class<?>) args[0]);
+                                return null;
+                            }
+                            throw new UnsupportedOperationException(method.toString());
+                        }
+                    });
+
+            binder.getBuilders().get(serviceInterface.getName()).buildService(resources);
+
+            Assert.assertTrue(classLoader.isLoaded(implementationName));
+            Assert.assertEquals(1, autobuilt.size());
+            Assert.assertEquals(implementationName, autobuilt.get(0).getName());
+        }
+        finally
+        {
+            thread.setContextClassLoader(contextClassLoader);
+            classLoader.close();
+        }
+    }
+
+    @Test
+    public void testScanPackageDoesNotLoadClasses() throws Exception
+    {
+        File jar = new SyntheticServicesJar(SERVICE_COUNT, 100, false)
+                .write(temporaryFolder.newFile("services.jar"));
+
+        TrackingClassLoader classLoader = new TrackingClassLoader(jar);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try
+        {
+            List<ClassFileHeader> headers = ClasspathUtils.scanPackage(SyntheticServicesJar.SERVICES_PACKAGE);
+
+            Assert.assertEquals(SERVICE_COUNT, headers.size());
+
+            for (ClassFileHeader header : headers)
+            {
+                Assert.assertTrue(header.isInterface());
+                Assert.assertEquals(SyntheticServicesJar.SERVICES_PACKAGE, header.getPackageName());
+                Assert.assertFalse(classLoader.isLoaded(header.getName()));
+            }
+
+            List<ClassFileHeader> implementations =
+                    ClasspathUtils.scanPackage(SyntheticServicesJar.SERVICES_PACKAGE + ".impl");
+
+            Assert.assertEquals(SERVICE_COUNT, implementations.size());
+            Assert.assertFalse(implementations.get(0).isInterface());
+            Assert.assertEquals(1, implementations.get(0).getInterfaceNames().size());
+        }
+        finally
+        {
+            thread.setContextClassLoader(contextClassLoader);
+            classLoader.close();
+        }
+    }
+
+    @Test
+    public void testScanCache() throws Exception
+    {
+        File jar = new SyntheticServicesJar(SERVICE_COUNT, 100, false)
+                .write(temporaryFolder.newFile("services-cached.jar"));
+
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache/scan.cache");
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null);
+        try
+        {
+            ClasspathScanCache scanCache = ClasspathScanCache.open(cacheFile);
+
+            List<ClassFileHeader> scanned = new ClasspathScanner(classLoader, scanCache, null)
+                    .scan(SyntheticServicesJar.SERVICES_PACKAGE);
+
+            Assert.assertEquals(SERVICE_COUNT, scanned.size());
+            Assert.assertFalse(cacheFile.exists());
+
+            scanCache.save();
+            Assert.assertTrue(cacheFile.isFile());
+
+            String key = ClasspathScanCache.key(jar.getPath(),
+                    SyntheticServicesJar.SERVICES_PACKAGE.replace('.', '/'));
+            long[] fingerprint = new long[] { jar.length(), jar.lastModified() };
+
+            List<ClassFileHeader> cached = ClasspathScanCache.open(cacheFile).get(key, fingerprint);
+
+            Assert.assertNotNull(cached);
+            Assert.assertEquals(SERVICE_COUNT, cached.size());
+            Assert.assertEquals(scanned.get(0).getName(), cached.get(0).getName());
+            Assert.assertEquals(scanned.get(0).getAccessFlags(), cached.get(0).getAccessFlags());
+            Assert.assertEquals(scanned.get(0).getSuperName(), cached.get(0).getSuperName());
+
+            //  Entries that were not requested are copied to the new file as is
+            scanCache = ClasspathScanCache.open(cacheFile);
+            scanCache.put(ClasspathScanCache.key(jar.getPath(), "other"), fingerprint, scanned.subList(0, 1));
+            scanCache.save();
+
+            List<ClassFileHeader> copied = ClasspathScanCache.open(cacheFile).get(key, fingerprint);
+
+            Assert.assertNotNull(copied);
+            Assert.assertEquals(SERVICE_COUNT, copied.size());
+            Assert.assertEquals(cached.get(SERVICE_COUNT - 1).getName(), copied.get(SERVICE_COUNT - 1).getName());
+            Assert.assertEquals(1, ClasspathScanCache.open(cacheFile)
+                    .get(ClasspathScanCache.key(jar.getPath(), "other"), fingerprint).size());
+
+            //  Jar has changed since the scan
+            fingerprint[1]++;
+            Assert.assertNull(ClasspathScanCache.open(cacheFile).get(key, fingerprint));
+
+            //  Corrupted cache file is ignored
+            Writer writer = new OutputStreamWriter(new FileOutputStream(cacheFile), StandardCharsets.UTF_8);
+            writer.write("garbage");
+            writer.close();
+
+            Assert.assertEquals(scanned.size(), new ClasspathScanner(classLoader, ClasspathScanCache.open(cacheFile), null)
+                    .scan(SyntheticServicesJar.SERVICES_PACKAGE).size());
+        }
+        finally
+        {
+            classLoader.close();
+        }
+    }
+
+    @Test
+    public void testQuery() throws Exception
+    {
+        File jar = new SyntheticServicesJar(SERVICE_COUNT, 100, false)
+                .write(temporaryFolder.newFile("services-query.jar"));
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try
+        {
+            Assert.assertEquals(0, ClasspathUtils.query("com.example.synthetic").headers().size());
+
+            Assert.assertEquals(100 + SERVICE_COUNT * 2,
+                    ClasspathUtils.query("com.example.synthetic").recursive().headers().size());
+
+            List<ClassFileHeader> headers = ClasspathUtils.query("com.example.synthetic")
+                    .recursive()
+                    .include("**.filler1?.*", "**.impl.*")
+                    .exclude("**.Filler?5", "**.Service1*")
+                    .headers();
+
+            //  Filler10..Filler19 and Filler60..Filler69 except Filler15 and Filler65,
+            //  and implementations of Service0, Service2..Service9
+            Assert.assertEquals(18 + 9, headers.size());
+            Assert.assertEquals("com.example.synthetic.filler10.Filler10", headers.get(0).getName());
+
+            Assert.assertEquals(SERVICE_COUNT, ClasspathUtils.query(SyntheticServicesJar.SERVICES_PACKAGE)
+                    .filter(header -> header.isInterface())
+                    .headers()
+                    .size());
+        }
+        finally
+        {
+            thread.setContextClassLoader(contextClassLoader);
+            classLoader.close();
+            ClasspathUtils.releaseScanResources();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testGetClassesForPackage() throws Exception
+    {
+        File jar = new SyntheticServicesJar(SERVICE_COUNT, 100, false)
+                .write(temporaryFolder.newFile("services-classes.jar"));
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try
+        {
+            //  Sub-packages of jars are included, as they always were
+            Assert.assertEquals(SERVICE_COUNT * 2,
+                    ClasspathUtils.getClassesForPackage(SyntheticServicesJar.SERVICES_PACKAGE).size());
+
+            Assert.assertEquals(SERVICE_COUNT,
+                    ClasspathUtils.getClassesForPackage(SyntheticServicesJar.SERVICES_PACKAGE, false).size());
+            Assert.assertEquals(SERVICE_COUNT * 2,
+                    ClasspathUtils.getClassesForPackage(SyntheticServicesJar.SERVICES_PACKAGE, true).size());
+        }
+        finally
+        {
+            thread.setContextClassLoader(contextClassLoader);
+            classLoader.close();
+            ClasspathUtils.releaseScanResources();
+        }
+    }
+
+    @Test
+    public void testQueryDirectory() throws Exception
+    {
+        List<Class<?>> classes = ClasspathUtils.query("com.anjlab")
+                .recursive()
+                .include("**.ClasspathUtils*")
+                .exclude("**Test")
+                .classes();
+
+        Assert.assertTrue(classes.contains(ClasspathUtils.class));
+        Assert.assertFalse(classes.contains(ClasspathUtilsTest.class));
+    }
+
+    @Test
+    public void testReadAnnotationNames() throws IOException
+    {
+        InputStream input = ClassLoader.getSystemResourceAsStream("java/lang/Runnable.class");
+        try
+        {
+            ClassFileHeader header = ClassFileHeader.read(input);
+
+            Assert.assertTrue(header.isAnnotatedWith(FunctionalInterface.class));
+            Assert.assertEquals(1, header.getAnnotationNames().size());
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    @Test
+    public void testReadClassFileHeader() throws IOException
+    {
+        InputStream input = ClassLoader.getSystemResourceAsStream("java/util/ArrayList.class");
+        try
+        {
+            ClassFileHeader header = ClassFileHeader.read(input);
+
+            Assert.assertEquals("java.util.ArrayList", header.getName());
+            Assert.assertEquals("java.util.AbstractList", header.getSuperName());
+            Assert.assertTrue(header.getInterfaceNames().contains("java.util.List"));
+            Assert.assertTrue(header.getInterfaceNames().contains("java.util.RandomAccess"));
+            Assert.assertTrue(header.isPublic());
+            Assert.assertFalse(header.isInterface());
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    @Test
+    public void testServiceIndexProcessor() throws IOException
+    {
+        File sources = temporaryFolder.newFolder("sources");
+        File classes = temporaryFolder.newFolder("classes");
+
+        File packageInfo = writeSource(sources, "com.example.services.package-info",
+                "@com.anjlab.tapestry5.services.IndexedServices package com.example.services;");
+        File service = writeSource(sources, "com.example.services.Foo",
+                "package com.example.services; public interface Foo {}");
+        File implementation = writeSource(sources, "com.example.services.impl.FooImpl",
+                "package com.example.services.impl; public class FooImpl implements com.example.services.Foo {}");
+        File classService = writeSource(sources, "com.example.services.Clock",
+                "package com.example.services; public class Clock {}");
+        File classImplementation = writeSource(sources, "com.example.services.impl.ClockImpl",
+                "package com.example.services.impl; public class ClockImpl extends com.example.services.Clock {}");
+        File unrelated = writeSource(sources, "com.example.services.impl.BarImpl",
+                "package com.example.services.impl; public class BarImpl {}");
+        File notIndexed = writeSource(sources, "com.example.other.Baz",
+                "package com.example.other; public interface Baz {}");
+        File notIndexedImplementation = writeSource(sources, "com.example.other.impl.BazImpl",
+                "package com.example.other.impl; public class BazImpl implements com.example.other.Baz {}");
+
+        Assert.assertEquals(0, compile(classes,
+                packageInfo, service, implementation, classService, classImplementation, unrelated,
+                notIndexed, notIndexedImplementation));
+
+        Map<String, String> expected = new TreeMap<String, String>();
+        expected.put("com.example.services.Clock", "com.example.services.impl.ClockImpl");
+        expected.put("com.example.services.Foo", "com.example.services.impl.FooImpl");
+
+        Assert.assertEquals(expected, readIndex(classes));
+
+        //  Incremental compilation of the package-info only, previous classes are on the class path
+        File qux = writeSource(sources, "com.example.services.Qux",
+                "package com.example.services; public interface Qux {}");
+        File quxImplementation = writeSource(sources, "com.example.services.impl.QuxImpl",
+                "package com.example.services.impl; public class QuxImpl implements com.example.services.Qux {}");
+
+        Assert.assertEquals(0, compile(classes, packageInfo, qux, quxImplementation));
+
+        expected.put("com.example.services.Qux", "com.example.services.impl.QuxImpl");
+
+        Assert.assertEquals(expected, readIndex(classes));
+
+        //  Index is written from scratch, entries of deleted classes are not kept
+        Assert.assertTrue(new File(classes, "com/example/services/impl/FooImpl.class").delete());
+
+        Assert.assertEquals(0, compile(classes, packageInfo));
+
+        expected.remove("com.example.services.Foo");
+
+        Assert.assertEquals(expected, readIndex(classes));
+    }
+
+    private static int compile(File classes, File... sources)
+    {
+        List<String> arguments = new ArrayList<String>();
+        arguments.add("-d");
+        arguments.add(classes.getAbsolutePath());
+        arguments.add("-classpath");
+        arguments.add(classes.getAbsolutePath() + File.pathSeparator + processorPath());
+        arguments.add("-processor");
+        arguments.add(ServiceIndexProcessor.class.getName());
+        arguments.add("-processorpath");
+        arguments.add(processorPath());
+        for (File source : sources)
+        {
+            arguments.add(source.getAbsolutePath());
+        }
+
+        return ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(new String[0]));
+    }
+
+    private static Map<String, String> readIndex(File classes) throws IOException
+    {
+        Map<String, String> index = new TreeMap<String, String>();
+        FileInputStream input = new FileInputStream(new File(classes, ServiceIndex.RESOURCE_NAME));
+        try
+        {
+            ServiceIndex.read(input, null, index);
+        }
+        finally
+        {
+            input.close();
+        }
+        return index;
+    }
+
+    private static Map<String, String> expectedBindings()
+    {
+        Map<String, String> expected = new TreeMap<String, String>();
+        for (int i = 0; i < SERVICE_COUNT; i++)
+        {
+            String serviceName = SyntheticServicesJar.serviceName(i);
+            expected.put(serviceName, ServiceIndex.implementationName(serviceName));
+        }
+        return expected;
+    }
+
+    private static Map<String, String> autobind(File... jars) throws Exception
+    {
+        URL[] urls = new URL[jars.length];
+        for (int i = 0; i < jars.length; i++)
+        {
+            urls[i] = jars[i].toURI().toURL();
+        }
+
+        URLClassLoader classLoader = new URLClassLoader(urls, ClasspathUtilsTest.class.getClassLoader());
+
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try
+        {
+            Package servicesPackage =
+                    Class.forName(SyntheticServicesJar.serviceName(0), false, classLoader).getPackage();
+
+            RecordingServiceBinder binder = new RecordingServiceBinder();
+
+            ClasspathUtils.autobindServices(binder.getBinder(), servicesPackage);
+
+            return binder.getBindings();
+        }
+        finally
+        {
+            thread.setContextClassLoader(contextClassLoader);
+            classLoader.close();
+        }
+    }
+
+    private static class TrackingClassLoader extends URLClassLoader
+    {
+        TrackingClassLoader(File jar) throws IOException
+        {
+            super(new URL[] { jar.toURI().toURL() }, ClasspathUtilsTest.class.getClassLoader());
+        }
+
+        boolean isLoaded(String className)
+        {
+            return findLoadedClass(className) != null;
+        }
+    }
+
+    private static String processorPath()
+    {
+        try
+        {
+            return new File(ServiceIndexProcessor.class.getProtectionDomain()
+                    .getCodeSource().getLocation().toURI()).getAbsolutePath();
+        }
+        catch (URISyntaxException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static File writeSource(File root, String className, String source) throws IOException
+    {
+        File file = new File(root, className.replace('.', '/') + ".java");
+        file.getParentFile().mkdirs();
+
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+        try
+        {
+            writer.write(source);
+        }
+        finally
+        {
+            writer.close();
+        }
+
+        return file;
+    }
+}
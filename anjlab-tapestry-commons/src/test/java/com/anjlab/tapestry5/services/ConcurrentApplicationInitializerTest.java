@@ -0,0 +1,256 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tapestry5.http.services.ApplicationInitializer;
+import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
+import org.apache.tapestry5.http.services.Context;
+import org.apache.tapestry5.ioc.services.PerthreadManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentApplicationInitializerTest
+{
+    private final AtomicInteger cleanups = new AtomicInteger();
+
+    private final List<String> events = new CopyOnWriteArrayList<String>();
+
+    private final PerthreadManager perthreadManager = (PerthreadManager) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] { PerthreadManager.class }, new InvocationHandler()
+            {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args)
+                {
+                    if (method.getName().equals("cleanup"))
+                    {
+                        cleanups.incrementAndGet();
+                    }
+                    return null;
+                }
+            });
+
+    private final ApplicationInitializer terminator = new ApplicationInitializer()
+    {
+        @Override
+        public void initializeApplication(Context context)
+        {
+            events.add("terminator");
+        }
+    };
+
+    private ConcurrentInitializer initializer(final String name, final Runnable work, String... dependencies)
+    {
+        return new ConcurrentInitializer(new ApplicationInitializerFilter()
+        {
+            @Override
+            public void initializeApplication(Context context, ApplicationInitializer initializer)
+            {
+                work.run();
+
+                events.add(name);
+
+                initializer.initializeApplication(context);
+            }
+        }, dependencies);
+    }
+
+    private static Runnable await(final CountDownLatch latch)
+    {
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                latch.countDown();
+                try
+                {
+                    Assert.assertTrue("Initializers didn't run in parallel", latch.await(10, TimeUnit.SECONDS));
+                }
+                catch (InterruptedException e)
+                {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    private static Runnable fail(final String message, final long delayMillis)
+    {
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    Thread.sleep(delayMillis);
+                }
+                catch (InterruptedException e)
+                {
+                    throw new IllegalStateException(e);
+                }
+                throw new IllegalStateException(message);
+            }
+        };
+    }
+
+    private static final Runnable NOTHING = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+        }
+    };
+
+    @Test
+    public void testIndependentInitializersRunInParallel()
+    {
+        CountDownLatch latch = new CountDownLatch(2);
+
+        Map<String, ConcurrentInitializer> initializers = new TreeMap<String, ConcurrentInitializer>();
+        initializers.put("Config", initializer("Config", await(latch)));
+        initializers.put("Liquibase", initializer("Liquibase", await(latch)));
+        initializers.put("Warmup", initializer("Warmup", NOTHING, "Liquibase", "Config", "Missing"));
+
+        new ConcurrentApplicationInitializerImpl(initializers, perthreadManager, 4)
+                .initializeApplication(null, terminator);
+
+        Assert.assertEquals(4, events.size());
+        Assert.assertEquals("Warmup", events.get(2));
+        Assert.assertEquals("terminator", events.get(3));
+        Assert.assertEquals(3, cleanups.get());
+    }
+
+    @Test
+    public void testFirstFailureInDependencyOrder()
+    {
+        Map<String, ConcurrentInitializer> initializers = new TreeMap<String, ConcurrentInitializer>();
+        initializers.put("A", initializer("A", fail("A failed", 200)));
+        initializers.put("B", initializer("B", fail("B failed", 0)));
+        initializers.put("C", initializer("C", NOTHING, "A"));
+
+        try
+        {
+            new ConcurrentApplicationInitializerImpl(initializers, perthreadManager, 4)
+                    .initializeApplication(null, terminator);
+
+            Assert.fail();
+        }
+        catch (RuntimeException e)
+        {
+            Assert.assertEquals("Initializer 'A' failed, 1 other initializer(s) failed too, "
+                    + "1 initializer(s) were not run", e.getMessage());
+            Assert.assertEquals("A failed", e.getCause().getMessage());
+            Assert.assertEquals(1, e.getSuppressed().length);
+            Assert.assertEquals("B failed", e.getSuppressed()[0].getMessage());
+        }
+
+        Assert.assertEquals(Collections.emptyList(), events);
+    }
+
+    @Test
+    public void testOnlyDependentsOfFailedInitializerAreSkipped()
+    {
+        Map<String, ConcurrentInitializer> initializers = new TreeMap<String, ConcurrentInitializer>();
+        initializers.put("ConfigHelper", initializer("ConfigHelper", fail("Invalid config", 0)));
+        initializers.put("Liquibase", initializer("Liquibase", NOTHING, "ConfigHelper"));
+        initializers.put("Warmup", initializer("Warmup", sleep(200)));
+        initializers.put("Index", initializer("Index", NOTHING, "Warmup"));
+
+        try
+        {
+            new ConcurrentApplicationInitializerImpl(initializers, perthreadManager, 4)
+                    .initializeApplication(null, terminator);
+
+            Assert.fail();
+        }
+        catch (RuntimeException e)
+        {
+            Assert.assertEquals("Initializer 'ConfigHelper' failed, 1 initializer(s) were not run", e.getMessage());
+        }
+
+        //  Warmup completes after the failure, and its dependent still runs
+        Assert.assertEquals(Arrays.asList("Warmup", "Index"), events);
+    }
+
+    private static Runnable sleep(final long millis)
+    {
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    Thread.sleep(millis);
+                }
+                catch (InterruptedException e)
+                {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    @Test
+    public void testInitializerThatDoesNotContinue()
+    {
+        Map<String, ConcurrentInitializer> initializers = new TreeMap<String, ConcurrentInitializer>();
+        initializers.put("Halt", new ConcurrentInitializer(new ApplicationInitializerFilter()
+        {
+            @Override
+            public void initializeApplication(Context context, ApplicationInitializer initializer)
+            {
+            }
+        }));
+
+        try
+        {
+            new ConcurrentApplicationInitializerImpl(initializers, perthreadManager, 1)
+                    .initializeApplication(null, terminator);
+
+            Assert.fail();
+        }
+        catch (RuntimeException e)
+        {
+            Assert.assertEquals("Initializer 'Halt' didn't pass control to the next initializer",
+                    e.getCause().getMessage());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCircularDependencies()
+    {
+        Map<String, ConcurrentInitializer> initializers = new TreeMap<String, ConcurrentInitializer>();
+        initializers.put("A", initializer("A", NOTHING, "B"));
+        initializers.put("B", initializer("B", NOTHING, "A"));
+
+        new ConcurrentApplicationInitializerImpl(initializers, perthreadManager, 1);
+    }
+}
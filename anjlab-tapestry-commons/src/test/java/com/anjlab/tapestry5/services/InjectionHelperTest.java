@@ -27,12 +27,22 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class InjectionHelperTest
 {
 
     protected static Registry registry;
 
+    protected static InjectionStrategy strategy;
+
     @BeforeClass
     public static void setup()
     {
@@ -42,6 +52,8 @@ public class InjectionHelperTest
                 .build();
 
         registry.performRegistryStartup();
+
+        strategy = InjectionStrategy.REFLECTION;
     }
 
     public static final class PostInjectionTestTarget
@@ -91,6 +103,20 @@ public class InjectionHelperTest
         }
     }
 
+    public static class InheritedFieldsInjectionTestTargetBase
+    {
+        @Inject
+        public InjectionHelper injectionHelper;
+    }
+
+    public static final class InheritedFieldsInjectionTestTarget extends InheritedFieldsInjectionTestTargetBase
+    {
+        @Inject
+        public ObjectLocator objectLocator;
+
+        public RequestGlobals requestGlobals;
+    }
+
     @Test
     public void testPostInjection() throws NoSuchMethodException
     {
@@ -139,6 +165,154 @@ public class InjectionHelperTest
         Assert.assertNull(target.injectionHelper);
     }
 
+    @Test
+    public void testInheritedFieldsInjection()
+    {
+        InjectionHelper injectionHelper = registry.getService(InjectionHelper.class);
+
+        //  Second injection uses cached injection plan
+        for (int i = 0; i < 2; i++)
+        {
+            InheritedFieldsInjectionTestTarget target = new InheritedFieldsInjectionTestTarget();
+
+            injectionHelper.inject(target);
+
+            Assert.assertNotNull(target.objectLocator);
+            Assert.assertNotNull(target.injectionHelper);
+            Assert.assertNull(target.requestGlobals);
+        }
+    }
+
+    @Test
+    public void testInvokePostInjectionWhenNoMethodDeclaredShouldFailEveryTime()
+    {
+        InjectionHelper injectionHelper = registry.getService(InjectionHelper.class);
+
+        for (int i = 0; i < 2; i++)
+        {
+            try
+            {
+                injectionHelper.invokePostInjection(new FieldsInjectionTestTarget());
+                Assert.fail("NoSuchMethodException expected");
+            }
+            catch (NoSuchMethodException e)
+            {
+                //  Expected
+            }
+        }
+    }
+
+    @Test
+    public void testInjectAll() throws Exception
+    {
+        InjectionHelper injectionHelper = registry.getService(InjectionHelper.class);
+
+        List<Object> targets = new ArrayList<Object>();
+        for (int i = 0; i < 1000; i++)
+        {
+            targets.add(new FieldsInjectionTestTarget());
+            targets.add(new BothInjectionsTestTarget());
+        }
+
+        injectionHelper.injectAll(targets);
+
+        assertInjected(targets);
+
+        targets.clear();
+        for (int i = 0; i < 1000; i++)
+        {
+            targets.add(new BothInjectionsTestTarget());
+        }
+
+        injectionHelper.injectAllAsync(targets).get();
+
+        assertInjected(targets);
+    }
+
+    @Test(timeout = 10000)
+    public void testInjectAllFromExecutorThread() throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            final InjectionHelper injectionHelper =
+                    new InjectionHelperImpl(registry, strategy, executor, 1);
+
+            final List<Object> targets = new ArrayList<Object>();
+            for (int i = 0; i < 10; i++)
+            {
+                targets.add(new FieldsInjectionTestTarget());
+            }
+
+            //  Batches queued behind the only executor thread must not block it
+            executor.submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    injectionHelper.injectAll(targets);
+                }
+            }).get();
+
+            assertInjected(targets);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testInjectAllAsyncWhenExecutorRejects() throws Exception
+    {
+        final AtomicInteger submitted = new AtomicInteger();
+
+        //  Rejects every other batch, like an executor with a full queue
+        Executor executor = new Executor()
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                if (submitted.incrementAndGet() % 2 == 0)
+                {
+                    throw new RejectedExecutionException();
+                }
+                new Thread(command).start();
+            }
+        };
+
+        InjectionHelper injectionHelper = new InjectionHelperImpl(registry, strategy, executor, 1);
+
+        List<Object> targets = new ArrayList<Object>();
+        for (int i = 0; i < 10; i++)
+        {
+            targets.add(new FieldsInjectionTestTarget());
+        }
+
+        injectionHelper.injectAllAsync(targets).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(10, submitted.get());
+
+        assertInjected(targets);
+    }
+
+    private static void assertInjected(List<Object> targets)
+    {
+        for (Object target : targets)
+        {
+            if (target instanceof FieldsInjectionTestTarget)
+            {
+                Assert.assertNotNull(((FieldsInjectionTestTarget) target).requestGlobals);
+                Assert.assertNotNull(((FieldsInjectionTestTarget) target).objectLocator);
+            }
+            else
+            {
+                Assert.assertNotNull(((BothInjectionsTestTarget) target).requestGlobals);
+                Assert.assertNotNull(((BothInjectionsTestTarget) target).injectionHelper);
+            }
+        }
+    }
+
     @Test(expected = NoSuchMethodException.class)
     public void testInvokePostInjectionWhenNoMethodDeclaredShouldFailWithException()
             throws NoSuchMethodException
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+public class MDCExecutorsTest
+{
+    private ExecutorService pool;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        pool = Executors.newSingleThreadExecutor();
+
+        //  Start the pooled thread before MDC is set, older MDC adapters copy MDC to child threads
+        pool.submit(requestId()).get();
+    }
+
+    @After
+    public void tearDown()
+    {
+        pool.shutdownNow();
+        MDC.clear();
+    }
+
+    @Test
+    public void testPropagateMDC() throws Exception
+    {
+        ExecutorService executor = MDCExecutors.wrap(pool);
+
+        MDC.put(MDCInsertingServletFilter.REQUEST_ID, "request-1");
+
+        Assert.assertEquals("request-1", executor.submit(requestId()).get());
+
+        MDC.put(MDCInsertingServletFilter.REQUEST_ID, "request-2");
+
+        Assert.assertEquals("request-2", executor.submit(requestId()).get());
+    }
+
+    @Test
+    public void testRestoreMDCOfPooledThread() throws Exception
+    {
+        ExecutorService executor = MDCExecutors.wrap(pool);
+
+        MDC.put(MDCInsertingServletFilter.REQUEST_ID, "request-1");
+
+        executor.submit(requestId()).get();
+
+        //  Task submitted directly to the pool runs with the MDC of the pooled thread
+        Assert.assertNull(pool.submit(requestId()).get());
+    }
+
+    private static Callable<String> requestId()
+    {
+        return new Callable<String>()
+        {
+            @Override
+            public String call()
+            {
+                return MDC.get(MDCInsertingServletFilter.REQUEST_ID);
+            }
+        };
+    }
+}
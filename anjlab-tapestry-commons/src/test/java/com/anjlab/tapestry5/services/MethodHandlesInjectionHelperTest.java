@@ -0,0 +1,49 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import org.apache.tapestry5.commons.MappedConfiguration;
+import org.apache.tapestry5.http.modules.TapestryHttpModule;
+import org.apache.tapestry5.ioc.RegistryBuilder;
+import org.junit.BeforeClass;
+
+/**
+ * Runs {@link InjectionHelperTest} with {@link InjectionStrategy#METHOD_HANDLES}.
+ */
+public class MethodHandlesInjectionHelperTest extends InjectionHelperTest
+{
+    public static class MethodHandlesModule
+    {
+        public static void contributeApplicationDefaults(MappedConfiguration<String, Object> configuration)
+        {
+            configuration.add(CommonsModule.INJECTION_STRATEGY, "method-handles");
+        }
+    }
+
+    @BeforeClass
+    public static void setup()
+    {
+        registry = new RegistryBuilder().add(
+                        TapestryHttpModule.class,
+                        CommonsModule.class,
+                        MethodHandlesModule.class)
+                .build();
+
+        registry.performRegistryStartup();
+
+        strategy = InjectionStrategy.METHOD_HANDLES;
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RequestIdGeneratorTest
+{
+    @Test
+    public void testCounterIds()
+    {
+        Assert.assertEquals("1", generate(new CounterRequestIdGenerator(""), request(null)));
+
+        RequestIdGenerator generator = new CounterRequestIdGenerator("node1-");
+
+        Assert.assertEquals("node1-1", generate(generator, request(null)));
+        Assert.assertEquals("node1-2", generate(generator, request(null)));
+    }
+
+    @Test
+    public void testStripedIdsAreUniqueAcrossThreads() throws Exception
+    {
+        final RequestIdGenerator generator = new StripedRequestIdGenerator("node1-");
+        final HttpServletRequest request = request(null);
+
+        final int threadCount = 4;
+        final int idsPerThread = StripedRequestIdGenerator.BLOCK_SIZE * 3 + 7;
+
+        final List<List<String>> ids = new ArrayList<List<String>>();
+        List<Thread> threads = new ArrayList<Thread>();
+
+        for (int i = 0; i < threadCount; i++)
+        {
+            final List<String> threadIds = new ArrayList<String>();
+            ids.add(threadIds);
+
+            threads.add(new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    StringBuilder buffer = new StringBuilder();
+                    for (int j = 0; j < idsPerThread; j++)
+                    {
+                        buffer.setLength(0);
+                        generator.appendRequestId(request, buffer);
+                        threadIds.add(buffer.toString());
+                    }
+                }
+            });
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        Set<String> uniqueIds = new HashSet<String>();
+        for (List<String> threadIds : ids)
+        {
+            for (String id : threadIds)
+            {
+                Assert.assertTrue(id, id.startsWith("node1-"));
+                uniqueIds.add(id);
+            }
+        }
+
+        Assert.assertEquals(threadCount * idsPerThread, uniqueIds.size());
+    }
+
+    @Test
+    public void testTimeOrderedIdsSortInGenerationOrder()
+    {
+        TimeOrderedRequestIdGenerator generator = new TimeOrderedRequestIdGenerator("node1-");
+        HttpServletRequest request = request(null);
+
+        String previous = "";
+        for (int i = 0; i < 100000; i++)
+        {
+            StringBuilder buffer = new StringBuilder();
+            generator.appendRequestId(request, buffer);
+
+            String id = buffer.toString();
+            Assert.assertEquals("node1-".length() + 16, id.length());
+            Assert.assertTrue(previous + " < " + id, previous.compareTo(id) < 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    public void testTimeOrderedIdsDontGoBackWithClock()
+    {
+        TimeOrderedRequestIdGenerator generator = new TimeOrderedRequestIdGenerator("");
+
+        long first = generator.nextId(1000);
+        long second = generator.nextId(500);
+
+        Assert.assertEquals(1000, first);
+        Assert.assertEquals(1001, second);
+    }
+
+    @Test
+    public void testHeaderRequestId()
+    {
+        RequestIdGenerator generator = new HeaderRequestIdGenerator(
+                HeaderRequestIdGenerator.X_REQUEST_ID, new StripedRequestIdGenerator("node1-"));
+
+        Assert.assertEquals("abc-123.4:5_6", generate(generator, request("abc-123.4:5_6")));
+        Assert.assertEquals("node1-1", generate(generator, request(null)));
+        Assert.assertEquals("node1-2", generate(generator, request("")));
+        Assert.assertEquals("node1-3", generate(generator, request("abc\n123")));
+        Assert.assertEquals("node1-4", generate(generator, request("id with spaces")));
+    }
+
+    private static String generate(RequestIdGenerator generator, HttpServletRequest request)
+    {
+        StringBuilder buffer = new StringBuilder();
+        generator.appendRequestId(request, buffer);
+        return buffer.toString();
+    }
+
+    private static HttpServletRequest request(final String requestIdHeader)
+    {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                RequestIdGeneratorTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        if (method.getName().equals("getHeader")
+                                && HeaderRequestIdGenerator.X_REQUEST_ID.equals(args[0]))
+                        {
+                            return requestIdHeader;
+                        }
+                        return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.anjlab.tapestry5.services.metrics.DefaultRouteNormalizer;
+
+public class RequestLogSamplerTest
+{
+    @Test
+    public void testTokenBucket()
+    {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        //  Burst
+        Assert.assertTrue(bucket.tryAcquire(now));
+        Assert.assertTrue(bucket.tryAcquire(now));
+        Assert.assertTrue(bucket.tryAcquire(now));
+        Assert.assertFalse(bucket.tryAcquire(now));
+
+        //  One token every 100ms
+        now += TimeUnit.MILLISECONDS.toNanos(99);
+        Assert.assertFalse(bucket.tryAcquire(now));
+        now += TimeUnit.MILLISECONDS.toNanos(1);
+        Assert.assertTrue(bucket.tryAcquire(now));
+        Assert.assertFalse(bucket.tryAcquire(now));
+
+        //  The bucket doesn't fill above its capacity
+        now += TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 3; i++)
+        {
+            Assert.assertTrue(bucket.tryAcquire(now));
+        }
+        Assert.assertFalse(bucket.tryAcquire(now));
+    }
+
+    @Test
+    public void testTokenBucketWithNegativeNanoTime()
+    {
+        long now = Long.MIN_VALUE + 1;
+        TokenBucket bucket = new TokenBucket(1, 1, now);
+
+        Assert.assertTrue(bucket.tryAcquire(now));
+        Assert.assertFalse(bucket.tryAcquire(now));
+        Assert.assertTrue(bucket.tryAcquire(now + TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void testSampling()
+    {
+        RequestLogSampler sampler = new RequestLogSampler(10, 1000, 0, 0, new DefaultRouteNormalizer());
+        HttpServletRequest request = request("/page");
+
+        int logged = 0;
+        for (int i = 0; i < 100000; i++)
+        {
+            if (sampler.shouldLog(request, 200, TimeUnit.MILLISECONDS.toNanos(5)))
+            {
+                logged++;
+            }
+        }
+
+        Assert.assertTrue(String.valueOf(logged), logged > 9000 && logged < 11000);
+
+        for (int i = 0; i < 100; i++)
+        {
+            Assert.assertTrue(sampler.shouldLog(request, 500, TimeUnit.MILLISECONDS.toNanos(5)));
+            Assert.assertTrue(sampler.shouldLog(request, 200, TimeUnit.MILLISECONDS.toNanos(1000)));
+        }
+    }
+
+    @Test
+    public void testRateLimitPerRoute()
+    {
+        RequestLogSampler sampler = new RequestLogSampler(1, 1000, 0.001, 5, new DefaultRouteNormalizer());
+
+        Assert.assertEquals(5, countLogged(sampler, "/a"));
+        Assert.assertEquals(5, countLogged(sampler, "/b/1"));
+        //  Same route as /b/1
+        Assert.assertEquals(0, countLogged(sampler, "/b/2"));
+
+        //  Errors are not rate limited
+        Assert.assertTrue(sampler.shouldLog(request("/a"), 503, 0));
+    }
+
+    private static int countLogged(RequestLogSampler sampler, String uri)
+    {
+        int logged = 0;
+        for (int i = 0; i < 100; i++)
+        {
+            if (sampler.shouldLog(request(uri), 200, 0))
+            {
+                logged++;
+            }
+        }
+        return logged;
+    }
+
+    private static HttpServletRequest request(final String uri)
+    {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                RequestLogSamplerTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        if (method.getName().equals("getContextPath"))
+                        {
+                            return "";
+                        }
+                        if (method.getName().equals("getRequestURI"))
+                        {
+                            return uri;
+                        }
+                        return null;
+                    }
+                });
+    }
+}
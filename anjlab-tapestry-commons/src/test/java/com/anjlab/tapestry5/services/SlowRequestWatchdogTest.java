@@ -0,0 +1,138 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlowRequestWatchdogTest
+{
+    @Test
+    public void testReportSlowRequestOnce() throws Exception
+    {
+        //  Scan manually, the watchdog thread sleeps for the whole test
+        SlowRequestWatchdog watchdog = new SlowRequestWatchdog(50, TimeUnit.HOURS.toMillis(1));
+        try
+        {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Thread requestThread = requestThread(watchdog, started, release);
+            requestThread.start();
+            started.await();
+
+            Assert.assertEquals(0, watchdog.scan());
+
+            Thread.sleep(100);
+
+            Assert.assertEquals(1, watchdog.scan());
+            Assert.assertEquals(0, watchdog.scan());
+
+            release.countDown();
+            requestThread.join();
+
+            Assert.assertEquals(0, watchdog.scan());
+            //  Slots of finished threads are removed
+            Assert.assertEquals(0, watchdog.getTrackedThreadCount());
+        }
+        finally
+        {
+            watchdog.close();
+        }
+    }
+
+    @Test
+    public void testNestedRequests()
+    {
+        SlowRequestWatchdog watchdog = new SlowRequestWatchdog(0, TimeUnit.HOURS.toMillis(1));
+        try
+        {
+            watchdog.begin(request(), "1", "-");
+            watchdog.begin(request(), "1", "-");
+            watchdog.end();
+
+            //  Still in the outer request
+            Assert.assertEquals(1, watchdog.scan());
+
+            watchdog.end();
+            watchdog.begin(request(), "2", "-");
+            watchdog.end();
+
+            Assert.assertEquals(0, watchdog.scan());
+        }
+        finally
+        {
+            watchdog.close();
+        }
+    }
+
+    private static Thread requestThread(final SlowRequestWatchdog watchdog,
+            final CountDownLatch started, final CountDownLatch release)
+    {
+        return new Thread()
+        {
+            @Override
+            public void run()
+            {
+                watchdog.begin(request(), "request-1", "-");
+                try
+                {
+                    started.countDown();
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                finally
+                {
+                    watchdog.end();
+                }
+            }
+        };
+    }
+
+    private static HttpServletRequest request()
+    {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                SlowRequestWatchdogTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        if (method.getName().equals("getMethod"))
+                        {
+                            return "GET";
+                        }
+                        if (method.getName().equals("getRequestURI"))
+                        {
+                            return "/slow";
+                        }
+                        return null;
+                    }
+                });
+    }
+}
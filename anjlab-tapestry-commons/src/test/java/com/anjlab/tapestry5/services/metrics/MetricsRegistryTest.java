@@ -0,0 +1,119 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsRegistryTest
+{
+    @Test
+    public void testMetersAreRegisteredOnce()
+    {
+        MetricsRegistry registry = new MetricsRegistryImpl(Collections.<MeterBinder>emptyList());
+
+        registry.counter("jobs").increment();
+        registry.counter("jobs").add(2);
+
+        Assert.assertSame(registry.counter("jobs"), registry.counter("jobs"));
+        Assert.assertEquals(3, registry.counter("jobs").getCount());
+        Assert.assertSame(registry.timer("duration"), registry.timer("duration"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNameOfOtherMeterType()
+    {
+        MetricsRegistry registry = new MetricsRegistryImpl(Collections.<MeterBinder>emptyList());
+
+        registry.counter("jobs");
+        registry.timer("jobs");
+    }
+
+    @Test
+    public void testSnapshot() throws IOException
+    {
+        MetricsRegistry registry = new MetricsRegistryImpl(Arrays.<MeterBinder>asList(new MeterBinder()
+        {
+            @Override
+            public void bindTo(MetricsRegistry registry)
+            {
+                registry.gauge("answer", new Gauge()
+                {
+                    @Override
+                    public double getValue()
+                    {
+                        return 42;
+                    }
+                });
+            }
+        }));
+
+        registry.counter("jobs").increment();
+        registry.timer("duration").record(5, TimeUnit.MILLISECONDS);
+        registry.histogram("size").record(100);
+
+        MetricsSnapshot snapshot = registry.snapshot();
+
+        Assert.assertEquals(Long.valueOf(1), snapshot.getCounters().get("jobs"));
+        Assert.assertEquals(42, snapshot.getGauges().get("answer"), 0);
+        Assert.assertEquals(1, snapshot.getTimers().get("duration").getCount());
+        Assert.assertEquals(5000, snapshot.getTimers().get("duration").getMax(), 5000 / 64);
+        Assert.assertEquals(100, snapshot.getHistograms().get("size").getMax());
+
+        StringWriter writer = new StringWriter();
+        snapshot.writeTo(writer);
+
+        Assert.assertTrue(writer.toString().contains("counter jobs 1\n"));
+        Assert.assertTrue(writer.toString().contains("gauge answer 42.0\n"));
+        Assert.assertTrue(writer.toString().contains("timer duration "));
+        Assert.assertTrue(writer.toString().contains("histogram size "));
+    }
+
+    @Test
+    public void testFileExporter() throws IOException
+    {
+        MetricsRegistry registry = new MetricsRegistryImpl(Collections.<MeterBinder>emptyList());
+        registry.counter("jobs").increment();
+
+        File file = File.createTempFile("metrics", ".txt");
+        try
+        {
+            MetricsFileExporter exporter = new MetricsFileExporter(registry, file, TimeUnit.HOURS.toMillis(1));
+            exporter.start();
+
+            registry.counter("jobs").increment();
+
+            exporter.stop();
+
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+            Assert.assertTrue(content, content.contains("counter jobs 2\n"));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}
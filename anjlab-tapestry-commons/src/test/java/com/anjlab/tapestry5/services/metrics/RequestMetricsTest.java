@@ -0,0 +1,174 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Random;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RequestMetricsTest
+{
+    @Test
+    public void testBucketBoundaries()
+    {
+        for (long value = 0; value < 1000000; value++)
+        {
+            int index = LatencyHistogram.bucketIndex(value);
+
+            Assert.assertTrue(value <= LatencyHistogram.highestValue(index));
+            if (index > 0)
+            {
+                Assert.assertTrue(value > LatencyHistogram.highestValue(index - 1));
+            }
+        }
+
+        Assert.assertEquals(LatencyHistogram.BUCKET_COUNT - 1,
+                LatencyHistogram.bucketIndex(LatencyHistogram.MAX_VALUE));
+        Assert.assertEquals(LatencyHistogram.MAX_VALUE,
+                LatencyHistogram.highestValue(LatencyHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void testPercentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long value = 1; value <= 100000; value++)
+        {
+            histogram.record(value);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        Assert.assertEquals(100000, snapshot.getCount());
+        Assert.assertEquals(100000, snapshot.getMax());
+        Assert.assertEquals(50000.5, snapshot.getMean(), 0.001);
+
+        assertWithinError(50000, snapshot.getValueAtPercentile(50));
+        assertWithinError(99000, snapshot.getValueAtPercentile(99));
+        assertWithinError(99900, snapshot.getValueAtPercentile(99.9));
+        Assert.assertEquals(100000, snapshot.getValueAtPercentile(100));
+        Assert.assertEquals(1, snapshot.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    Random random = new Random();
+                    for (int j = 0; j < 100000; j++)
+                    {
+                        histogram.record(random.nextInt(1000000));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        Assert.assertEquals(400000, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void testRoutes()
+    {
+        RequestMetrics metrics = new RequestMetrics(2);
+
+        metrics.record("/a", 1000000, 200, 10);
+        metrics.record("/a", 2000000, 500, 20);
+        metrics.record("/b", 3000000, 404, 30);
+        metrics.record("/c", 4000000, 302, 0);
+
+        Map<String, RouteSnapshot> routes = metrics.getRoutes();
+
+        Assert.assertEquals(3, routes.size());
+
+        RouteSnapshot a = routes.get("/a");
+        Assert.assertEquals(2, a.getCount());
+        Assert.assertEquals(1, a.getCount2xx());
+        Assert.assertEquals(1, a.getCount5xx());
+        Assert.assertEquals(30, a.getBytesWritten());
+        Assert.assertEquals(2000, a.getMax());
+
+        Assert.assertEquals(1, routes.get("/b").getCount4xx());
+        Assert.assertEquals(1, routes.get(RequestMetrics.OTHER_ROUTE).getCount3xx());
+        Assert.assertEquals(1, metrics.getOverflowCount());
+
+        metrics.reset();
+
+        Assert.assertEquals(0, metrics.getRoute("/a").getCount());
+    }
+
+    @Test
+    public void testDefaultRouteNormalizer()
+    {
+        RouteNormalizer normalizer = new DefaultRouteNormalizer();
+
+        Assert.assertEquals("/users/*/edit", normalizer.getRoute(request("/app", "/app/users/42/edit")));
+        Assert.assertEquals("/index.grid:sort/*", normalizer.getRoute(request("/app", "/app/index.grid:sort/2")));
+        Assert.assertEquals("/about", normalizer.getRoute(request("", "/about")));
+        Assert.assertEquals("/", normalizer.getRoute(request("/app", "/app")));
+        Assert.assertEquals("/", normalizer.getRoute(request("/app", "/app/")));
+        Assert.assertEquals("/*/*/", normalizer.getRoute(request("", "/1/2/")));
+    }
+
+    private static void assertWithinError(long expected, long actual)
+    {
+        Assert.assertTrue(expected + " ~ " + actual, Math.abs(actual - expected) <= expected / 64);
+    }
+
+    private static HttpServletRequest request(final String contextPath, final String uri)
+    {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                RequestMetricsTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        if (method.getName().equals("getContextPath"))
+                        {
+                            return contextPath;
+                        }
+                        if (method.getName().equals("getRequestURI"))
+                        {
+                            return uri;
+                        }
+                        return null;
+                    }
+                });
+    }
+}
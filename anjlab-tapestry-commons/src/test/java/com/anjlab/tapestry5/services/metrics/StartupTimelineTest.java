@@ -0,0 +1,88 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StartupTimelineTest
+{
+    @Test
+    public void testPhases() throws Exception
+    {
+        StartupTimeline timeline = new StartupTimeline();
+
+        StartupPhase fast = timeline.begin("fast");
+        fast.end();
+
+        StartupPhase slow = timeline.begin("slow");
+        byte[][] garbage = new byte[100][];
+        for (int i = 0; i < garbage.length; i++)
+        {
+            garbage[i] = new byte[10000];
+        }
+        Thread.sleep(20);
+        slow.end();
+        slow.end();
+
+        StartupPhase unfinished = timeline.begin("unfinished");
+
+        List<StartupPhase> phases = timeline.getPhases();
+
+        Assert.assertEquals(2, phases.size());
+        Assert.assertSame(fast, phases.get(0));
+        Assert.assertSame(slow, phases.get(1));
+        Assert.assertEquals(Thread.currentThread().getName(), slow.getThreadName());
+        Assert.assertTrue(slow.getDurationNanos() >= 20000000);
+        Assert.assertEquals(-1, unfinished.getDurationNanos());
+
+        if (StartupTimeline.currentThreadAllocatedBytes() >= 0)
+        {
+            Assert.assertTrue(slow.getAllocatedBytes() >= garbage.length * 10000);
+        }
+
+        StringWriter report = new StringWriter();
+        timeline.writeReport(report);
+
+        String[] lines = report.toString().split("\n");
+        Assert.assertEquals(3, lines.length);
+        Assert.assertTrue(lines[0], lines[0].startsWith("Startup timeline: 2 phase(s)"));
+        Assert.assertTrue(lines[1], lines[1].endsWith(" slow"));
+        Assert.assertTrue(lines[2], lines[2].endsWith(" fast"));
+    }
+
+    @Test
+    public void testTrace() throws IOException
+    {
+        StartupTimeline timeline = new StartupTimeline();
+
+        timeline.begin("autobind \"com.example\"").end();
+
+        StringWriter trace = new StringWriter();
+        timeline.writeTrace(trace);
+
+        String json = trace.toString();
+
+        Assert.assertTrue(json, json.startsWith("{\"traceEvents\":[{\"name\":\"thread_name\",\"ph\":\"M\""));
+        Assert.assertTrue(json, json.contains("{\"name\":\"autobind \\\"com.example\\\"\",\"cat\":\"startup\","
+                + "\"ph\":\"X\",\"pid\":1,\"tid\":" + Thread.currentThread().getId() + ",\"ts\":0,"));
+        Assert.assertTrue(json, json.endsWith("]}\n"));
+    }
+}
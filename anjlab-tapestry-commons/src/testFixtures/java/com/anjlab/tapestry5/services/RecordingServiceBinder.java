@@ -0,0 +1,71 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.tapestry5.ioc.ServiceBinder;
+import org.apache.tapestry5.ioc.ServiceBuilder;
+
+/**
+ * Collects names of service interfaces and implementations passed to {@link ServiceBinder#bind(Class, Class)},
+ * and service builders passed to {@link ServiceBinder#bind(Class, ServiceBuilder)}.
+ */
+public class RecordingServiceBinder implements InvocationHandler
+{
+    private final Map<String, String> bindings = new TreeMap<String, String>();
+    private final Map<String, ServiceBuilder<?>> builders = new TreeMap<String, ServiceBuilder<?>>();
+
+    public ServiceBinder getBinder()
+    {
+        return (ServiceBinder) Proxy.newProxyInstance(
+                ServiceBinder.class.getClassLoader(),
+                new Class<?>[] { ServiceBinder.class },
+                this);
+    }
+
+    public Map<String, String> getBindings()
+    {
+        return bindings;
+    }
+
+    public Map<String, ServiceBuilder<?>> getBuilders()
+    {
+        return builders;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+    {
+        if (method.getName().equals("bind") && args.length == 2 && args[1] instanceof Class)
+        {
+            bindings.put(((Class<?>) args[0]).getName(), ((Class<?>) args[1]).getName());
+            return null;
+        }
+
+        if (method.getName().equals("bind") && args.length == 2 && args[1] instanceof ServiceBuilder)
+        {
+            builders.put(((Class<?>) args[0]).getName(), (ServiceBuilder<?>) args[1]);
+            return null;
+        }
+
+        throw new UnsupportedOperationException(method.toString());
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Writes a jar with generated service interfaces, their implementations and unrelated filler classes.
+ * <p>
+ * Classes are emitted as minimal class files without methods, so they can be loaded but not instantiated.
+ */
+public class SyntheticServicesJar
+{
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    public static final String SERVICES_PACKAGE = "com.example.synthetic.services";
+
+    private final int firstService;
+    private final int serviceCount;
+    private final int fillerCount;
+    private final boolean withIndex;
+
+    private final Set<String> directories = new HashSet<String>();
+
+    public SyntheticServicesJar(int serviceCount, int fillerCount, boolean withIndex)
+    {
+        this(0, serviceCount, fillerCount, withIndex);
+    }
+
+    /**
+     * @param firstService Index of the first service, jars with different ranges of services
+     *                     split the services package between them.
+     */
+    public SyntheticServicesJar(int firstService, int serviceCount, int fillerCount, boolean withIndex)
+    {
+        this.firstService = firstService;
+        this.serviceCount = serviceCount;
+        this.fillerCount = fillerCount;
+        this.withIndex = withIndex;
+    }
+
+    public static String serviceName(int index)
+    {
+        return SERVICES_PACKAGE + ".Service" + index;
+    }
+
+    public File write(File file) throws IOException
+    {
+        directories.clear();
+
+        Map<String, String> services = new TreeMap<String, String>();
+
+        JarOutputStream jar = new JarOutputStream(new FileOutputStream(file));
+        try
+        {
+            for (int i = 0; i < fillerCount; i++)
+            {
+                writeClass(jar, "com.example.synthetic.filler" + (i % 50) + ".Filler" + i, null, false);
+            }
+
+            for (int i = firstService; i < firstService + serviceCount; i++)
+            {
+                String serviceName = serviceName(i);
+                String implementationName = ServiceIndex.implementationName(serviceName);
+
+                writeClass(jar, serviceName, null, true);
+                writeClass(jar, implementationName, serviceName, false);
+
+                services.put(serviceName, implementationName);
+            }
+
+            if (withIndex)
+            {
+                writeDirectories(jar, ServiceIndex.RESOURCE_NAME);
+                jar.putNextEntry(new ZipEntry(ServiceIndex.RESOURCE_NAME));
+                Writer writer = new OutputStreamWriter(jar, StandardCharsets.UTF_8);
+                ServiceIndex.write(services, writer);
+                writer.flush();
+                jar.closeEntry();
+            }
+        }
+        finally
+        {
+            jar.close();
+        }
+
+        return file;
+    }
+
+    private void writeClass(JarOutputStream jar, String className, String interfaceName, boolean isInterface)
+            throws IOException
+    {
+        String path = className.replace('.', '/') + ".class";
+
+        writeDirectories(jar, path);
+
+        jar.putNextEntry(new ZipEntry(path));
+        jar.write(classFile(className, interfaceName, isInterface));
+        jar.closeEntry();
+    }
+
+    private void writeDirectories(JarOutputStream jar, String path) throws IOException
+    {
+        int slash = path.indexOf('/');
+
+        while (slash > 0)
+        {
+            String directory = path.substring(0, slash + 1);
+
+            if (directories.add(directory))
+            {
+                jar.putNextEntry(new ZipEntry(directory));
+                jar.closeEntry();
+            }
+
+            slash = path.indexOf('/', slash + 1);
+        }
+    }
+
+    public static byte[] classFile(String className, String interfaceName, boolean isInterface) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        //  Java 8
+        out.writeShort(52);
+
+        //  Constant pool
+        out.writeShort(interfaceName == null ? 5 : 7);
+        writeClassConstant(out, className, 1);
+        writeClassConstant(out, "java.lang.Object", 3);
+        if (interfaceName != null)
+        {
+            writeClassConstant(out, interfaceName, 5);
+        }
+
+        out.writeShort(isInterface ? ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT : ACC_PUBLIC | ACC_SUPER);
+        //  this_class, super_class
+        out.writeShort(2);
+        out.writeShort(4);
+
+        if (interfaceName == null)
+        {
+            out.writeShort(0);
+        }
+        else
+        {
+            out.writeShort(1);
+            out.writeShort(6);
+        }
+
+        //  Fields, methods, attributes
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(0);
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeClassConstant(DataOutputStream out, String className, int utf8Index) throws IOException
+    {
+        //  CONSTANT_Utf8
+        out.writeByte(1);
+        out.writeUTF(className.replace('.', '/'));
+        //  CONSTANT_Class
+        out.writeByte(7);
+        out.writeShort(utf8Index);
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Typed values of a {@link PropertySnapshot} indexed by slot of the key.
+ * <p>
+ * Primitive values are kept unboxed in a <code>long</code> array along with their kind,
+ * the kind is written last so readers that see it also see the value.
+ */
+final class CoercedValues
+{
+    static final int NONE = 0;
+    static final int INT = 1;
+    static final int LONG = 2;
+    static final int BOOLEAN = 3;
+
+    private final AtomicIntegerArray kinds;
+    private final AtomicLongArray numbers;
+    private final AtomicReferenceArray<Object> objects;
+
+    CoercedValues(int capacity)
+    {
+        this.kinds = new AtomicIntegerArray(capacity);
+        this.numbers = new AtomicLongArray(capacity);
+        this.objects = new AtomicReferenceArray<>(capacity);
+    }
+
+    int kind(int slot)
+    {
+        return kinds.get(slot);
+    }
+
+    long number(int slot)
+    {
+        return numbers.get(slot);
+    }
+
+    void putNumber(int slot, int kind, long value)
+    {
+        numbers.set(slot, value);
+        kinds.set(slot, kind);
+    }
+
+    Object object(int slot)
+    {
+        return objects.get(slot);
+    }
+
+    void putObject(int slot, Object value)
+    {
+        objects.set(slot, value);
+    }
+}
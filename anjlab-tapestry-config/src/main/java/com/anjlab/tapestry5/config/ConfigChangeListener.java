@@ -0,0 +1,47 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import java.util.Set;
+
+/**
+ * Listener of {@link ConfigHelper#reload()} changes.
+ * <p>
+ * Add listeners with {@link ConfigHelper#addChangeListener(ConfigChangeListener)}:
+ * <pre>
+ * configHelper.addChangeListener(new ConfigChangeListener()
+ * {
+ *     public void configChanged(ConfigHelper configHelper, Set&lt;String&gt; changedKeys)
+ *     {
+ *         if (changedKeys.contains("rate.limit"))
+ *         {
+ *             rateLimiter.setRate(Integer.parseInt(configHelper.getRaw("rate.limit")));
+ *         }
+ *     }
+ * });
+ * </pre>
+ */
+public interface ConfigChangeListener
+{
+    /**
+     * Called after new values were applied to the <code>configHelper</code>.
+     * Listeners are called on the thread that reloaded the config, i.e. on the {@link ConfigWatcher} thread.
+     *
+     * @param configHelper {@link ConfigHelper} that was reloaded.
+     * @param changedKeys  Names of added, removed and changed properties.
+     */
+    void configChanged(ConfigHelper configHelper, Set<String> changedKeys);
+}
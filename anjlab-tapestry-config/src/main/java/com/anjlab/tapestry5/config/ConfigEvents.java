@@ -0,0 +1,116 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+/**
+ * Emits JDK Flight Recorder events if the JVM supports them.
+ * <p>
+ * This module runs on Java 8, where <code>jdk.jfr</code> may be missing, so event classes are only
+ * referenced from here and event instances are passed around as {@link Object}s.
+ */
+final class ConfigEvents
+{
+    private static final boolean AVAILABLE = isAvailable();
+
+    private ConfigEvents()
+    {
+    }
+
+    private static boolean isAvailable()
+    {
+        try
+        {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        }
+        catch (ClassNotFoundException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @return Started event, or <code>null</code> if JFR is not available or the event is disabled.
+     */
+    static Object beginLoad()
+    {
+        if (!AVAILABLE)
+        {
+            return null;
+        }
+
+        ConfigLoadEvent event = new ConfigLoadEvent();
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    static void commitLoad(Object handle, String source, int propertyCount)
+    {
+        if (handle == null)
+        {
+            return;
+        }
+
+        ConfigLoadEvent event = (ConfigLoadEvent) handle;
+        if (event.shouldCommit())
+        {
+            event.source = source;
+            event.propertyCount = propertyCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return Started event, or <code>null</code> if JFR is not available or the event is disabled.
+     */
+    static Object beginValidation()
+    {
+        if (!AVAILABLE)
+        {
+            return null;
+        }
+
+        ConfigValidationEvent event = new ConfigValidationEvent();
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    static void commitValidation(Object handle, ConfigHelperValidator validator, boolean passed)
+    {
+        if (handle == null)
+        {
+            return;
+        }
+
+        ConfigValidationEvent event = (ConfigValidationEvent) handle;
+        if (event.shouldCommit())
+        {
+            event.validator = validator.getClass();
+            event.passed = passed;
+            event.commit();
+        }
+    }
+}
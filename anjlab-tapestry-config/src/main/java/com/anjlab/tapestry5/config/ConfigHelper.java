@@ -15,27 +15,31 @@
  */
 package com.anjlab.tapestry5.config;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.input.AutoCloseInputStream;
 import org.apache.tapestry5.commons.MappedConfiguration;
 import org.apache.tapestry5.ioc.annotations.Inject;
+import org.apache.tapestry5.ioc.services.SymbolSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ConfigHelper
 {
@@ -48,11 +52,46 @@ public class ConfigHelper
 
     private String resourceName;
 
-    private Properties properties;
+    /**
+     * Current snapshot of the properties. Snapshots are immutable, {@link #reload()} and {@link #copyFrom(ConfigHelper)}
+     * build a new one and replace the reference, so reads don't need any locking.
+     */
+    private volatile PropertySnapshot snapshot;
+
+    /**
+     * Files that the current snapshot was read from, including the files of the <code>extend</code> chain.
+     */
+    private volatile Set<File> sourceFiles = Collections.emptySet();
+
+    /**
+     * {@link ConfigHelper}s this instance was composed of, or <code>null</code> if it wasn't.
+     */
+    private List<ConfigHelper> sources;
+
+    /**
+     * {@link ConfigHelper}s copied into this instance with {@link #copyFrom(ConfigHelper)}, composed again
+     * on top of the reloaded properties by {@link #reload()}.
+     */
+    private final List<ConfigHelper> copied = new ArrayList<>();
 
-    private final Set<String> referenced;
+    /**
+     * Properties of this instance without the {@link #copied} ones.
+     */
+    private PropertySnapshot ownSnapshot;
+
+    private final List<ConfigChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Referenced names that don't exist in the current snapshot, existing names are tracked by the snapshot itself.
+     */
+    private final Set<String> referencedMissing;
     private final Map<String, Class<?>> propertyTypes;
 
+    /**
+     * Expands symbols for typed accessors, set by {@link PropertyTypeValidator} on application initialization.
+     */
+    private volatile SymbolSource symbolSource;
+
     /**
      * Creates an instance of {@link ConfigHelper} and load properties from resource on classpath.
      *
@@ -64,13 +103,18 @@ public class ConfigHelper
      */
     public static ConfigHelper fromClasspathResource(String resourceName) throws IOException
     {
-        logger.info("Reading config from classpath: {}", resourceName);
-        InputStream input = ConfigHelper.class.getClassLoader().getResourceAsStream(resourceName);
-        if (input == null)
+        Object phase = ConfigMetrics.beginPhase("config " + resourceName);
+        try
         {
-            throw new IOException("Classpath resource not found: " + resourceName);
+            return new ConfigHelper(
+                    ConfigLayer.fromClasspathResource(resourceName, true),
+                    null,
+                    resourceName);
+        }
+        finally
+        {
+            ConfigMetrics.endPhase(phase);
         }
-        return new ConfigHelper(new AutoCloseInputStream(input), resourceName);
     }
 
     /**
@@ -125,7 +169,7 @@ public class ConfigHelper
      */
     public static ConfigHelper fromStream(InputStream input) throws IOException
     {
-        return new ConfigHelper(input, null);
+        return new ConfigHelper(ConfigLayer.fromStream(input, null), null, null);
     }
 
     /**
@@ -133,9 +177,7 @@ public class ConfigHelper
      */
     public ConfigHelper()
     {
-        this.properties = new Properties();
-        this.referenced = new HashSet<>();
-        this.propertyTypes = new HashMap<>();
+        this(new PropertySnapshot(Collections.<String, String>emptyMap()));
     }
 
     /**
@@ -145,13 +187,10 @@ public class ConfigHelper
      */
     public ConfigHelper(Properties properties)
     {
-        this.properties = new Properties();
-        this.properties.putAll(properties);
-
-        this.referenced = new HashSet<>(properties.size());
-        this.propertyTypes = new HashMap<>(properties.size());
+        this(new PropertySnapshot(toMap(properties)));
     }
 
+
     /**
      * Constructor for Tapestry IoC service.
      * <p>
@@ -164,12 +203,10 @@ public class ConfigHelper
     @Inject
     public ConfigHelper(List<ConfigHelper> configuration)
     {
-        this();
+        this(compose(configuration));
 
-        for (ConfigHelper source : configuration)
-        {
-            copyFrom(source);
-        }
+        this.sources = new ArrayList<>(configuration);
+        this.sourceFiles = collectSourceFiles(sources);
     }
 
     private ConfigHelper(String configFilename) throws IOException
@@ -179,119 +216,106 @@ public class ConfigHelper
 
     private ConfigHelper(File configFile) throws IOException
     {
-        logger.info("Reading config from file: {}", configFile.getAbsoluteFile());
-        this.configFile = configFile;
-        readProperties(configFile);
-        referenced = new HashSet<>(properties.size());
-        propertyTypes = new HashMap<>(properties.size());
-    }
-
-    private ConfigHelper(InputStream input, String resourceName) throws IOException
-    {
-        this.resourceName = resourceName;
-        readProperties(input);
-        referenced = new HashSet<>(properties.size());
-        propertyTypes = new HashMap<>(properties.size());
+        this(loadFile(configFile), configFile, null);
     }
 
-    private void readProperties(File configFile) throws IOException
+    /**
+     * Reads the <code>extend</code> chain of the file as <code>config &lt;path&gt;</code> startup phase.
+     */
+    private static ConfigLayer loadFile(File configFile) throws IOException
     {
-        if (!configFile.exists())
-        {
-            throw new IllegalStateException("Configuration file not found: "
-                    + configFile.getAbsolutePath());
-        }
-
-        FileInputStream input = null;
+        Object phase = ConfigMetrics.beginPhase("config " + configFile.getPath());
         try
         {
-            input = new FileInputStream(configFile);
-
-            readProperties(input);
+            return ConfigLayer.fromFile(configFile, true);
         }
         finally
         {
-            if (input != null)
-            {
-                try
-                {
-                    input.close();
-                }
-                catch (IOException e)
-                {
-                }
-            }
+            ConfigMetrics.endPhase(phase);
         }
     }
 
-    private void readProperties(InputStream input) throws IOException
+    private ConfigHelper(ConfigLayer layer, File configFile, String resourceName)
     {
-        properties = new Properties();
-        properties.load(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this(layer.index());
 
-        List<ConfigHelper> extensions = new ArrayList<>();
+        this.configFile = configFile;
+        this.resourceName = resourceName;
+        this.sourceFiles = layer.getSourceFiles();
+    }
 
-        if (properties.containsKey(EXTEND))
+    private ConfigHelper(PropertySnapshot snapshot)
+    {
+        this.snapshot = snapshot;
+        this.referencedMissing = ConcurrentHashMap.newKeySet();
+        this.propertyTypes = new ConcurrentHashMap<>();
+    }
+
+    private static Map<String, String> toMap(Properties properties)
+    {
+        Map<String, String> map = new HashMap<>(properties.size() * 2);
+        for (String name : properties.stringPropertyNames())
         {
-            extensions.add(
-                    fromExtend(properties.getProperty(EXTEND))
-                            .renameKeys(properties.getProperty(EXTEND + "." + PREFIX)));
+            map.put(name, properties.getProperty(name));
         }
+        return map;
+    }
 
-        //  Support multiple ordered extensions
-        boolean canContinue = true;
+    /**
+     * Builds snapshot with properties of the <code>helpers</code>, properties of the later ones override
+     * properties of the earlier ones.
+     */
+    private static PropertySnapshot compose(List<ConfigHelper> helpers)
+    {
+        PropertySnapshot[] snapshots = new PropertySnapshot[helpers.size()];
 
-        for (int i = 0; canContinue; i++)
+        for (int i = 0; i < snapshots.length; i++)
         {
-            String key = EXTEND + "." + i;
-
-            if (properties.containsKey(key))
-            {
-                extensions.add(
-                        fromExtend(properties.getProperty(key))
-                            .renameKeys(properties.getProperty(key + "." + PREFIX)));
-            }
-            else
-            {
-                //  Support 0 and 1 based offsets
-                canContinue = i < 1;
-            }
+            snapshots[i] = helpers.get(i).snapshot;
         }
 
-        extendFrom(new ConfigHelper(extensions));
+        return compose(snapshots);
     }
 
-    private ConfigHelper renameKeys(String prefix)
+    private static PropertySnapshot compose(PropertySnapshot... snapshots)
     {
-        if (prefix == null || prefix.trim().length() == 0)
+        int maxSize = 0;
+        for (PropertySnapshot snapshot : snapshots)
         {
-            return this;
+            maxSize += snapshot.size();
         }
 
-        for (String name : getPropertyNames())
+        PropertySnapshot.Builder builder = new PropertySnapshot.Builder(maxSize);
+
+        for (int i = snapshots.length - 1; i >= 0; i--)
         {
-            properties.put(prefix + name, properties.remove(name));
+            PropertySnapshot snapshot = snapshots[i];
+            for (int slot = 0; slot < snapshot.capacity(); slot++)
+            {
+                String key = snapshot.keyAt(slot);
+                if (key != null)
+                {
+                    builder.putInternedIfAbsent(key, snapshot.valueAt(slot));
+                }
+            }
         }
 
-        return this;
+        return builder.build();
     }
 
-    private ConfigHelper fromExtend(String relativePath) throws IOException
+    private static Set<File> collectSourceFiles(List<ConfigHelper> helpers)
     {
-        if (configFile != null)
-        {
-            return ConfigHelper.fromFile(FileUtils.getFile(configFile.getParentFile(), relativePath));
-        }
-        else if (resourceName != null)
-        {
-            File parentFile = new File(resourceName).getParentFile();
-            String basePath = new File(parentFile, relativePath).getPath();
-            return ConfigHelper.fromClasspathResource(basePath);
-        }
-        else
+        return collectSourceFiles(Collections.<File>emptySet(), helpers);
+    }
+
+    private static Set<File> collectSourceFiles(Set<File> files, List<ConfigHelper> helpers)
+    {
+        files = new LinkedHashSet<>(files);
+        for (ConfigHelper helper : helpers)
         {
-            throw new RuntimeException("Unable to resolve relative path: " + relativePath);
+            files.addAll(helper.sourceFiles);
         }
+        return Collections.unmodifiableSet(files);
     }
 
     /**
@@ -324,11 +348,13 @@ public class ConfigHelper
             throws IllegalStateException
     {
         assertNotNull(propertyType);
-        assertPropertyDefined(propertyName, properties);
 
-        configuration.add(propertyName, properties.get(propertyName));
+        PropertySnapshot current = snapshot;
+        int slot = requireSlot(propertyName, current);
+
+        configuration.add(propertyName, current.valueAt(slot));
         propertyTypes.put(propertyName, propertyType);
-        referenced.add(propertyName);
+        current.markReferenced(slot);
     }
 
     /**
@@ -359,7 +385,7 @@ public class ConfigHelper
      */
     public void addIfExists(Class<?> propertyType, String propertyName, MappedConfiguration<String, Object> configuration)
     {
-        if (properties.containsKey(propertyName))
+        if (snapshot.containsKey(propertyName))
         {
             add(propertyType, propertyName, configuration);
         }
@@ -395,11 +421,13 @@ public class ConfigHelper
             throws IllegalStateException
     {
         assertNotNull(propertyType);
-        assertPropertyDefined(propertyName, properties);
 
-        configuration.override(propertyName, properties.get(propertyName));
+        PropertySnapshot current = snapshot;
+        int slot = requireSlot(propertyName, current);
+
+        configuration.override(propertyName, current.valueAt(slot));
         propertyTypes.put(propertyName, propertyType);
-        referenced.add(propertyName);
+        current.markReferenced(slot);
     }
 
     /**
@@ -430,7 +458,7 @@ public class ConfigHelper
      */
     public void overrideIfExists(Class<?> propertyType, String propertyName, MappedConfiguration<String, Object> configuration)
     {
-        if (properties.containsKey(propertyName))
+        if (snapshot.containsKey(propertyName))
         {
             override(propertyType, propertyName, configuration);
         }
@@ -441,12 +469,7 @@ public class ConfigHelper
      */
     public Set<String> getPropertyNames()
     {
-        Set<String> names = new HashSet<String>();
-        for (Object key : properties.keySet())
-        {
-            names.add((String) key);
-        }
-        return names;
+        return new HashSet<>(snapshot.keySet());
     }
 
     /**
@@ -458,6 +481,8 @@ public class ConfigHelper
      */
     public Set<String> getReferenced()
     {
+        Set<String> referenced = snapshot.getReferencedKeys();
+        referenced.addAll(referencedMissing);
         return Collections.unmodifiableSet(referenced);
     }
 
@@ -476,36 +501,585 @@ public class ConfigHelper
     /**
      * @param propertyName Name of the property.
      * @return Raw property value by its name or <code>null</code> if property doesn't exist.
+     * This method doesn't lock and is safe to call from any thread.
      */
     public String getRaw(String propertyName)
     {
-        referenced.add(propertyName);
+        PropertySnapshot current = snapshot;
+
+        int slot = current.slot(propertyName);
+
+        if (slot < 0)
+        {
+            referencedMissing.add(propertyName);
+            return null;
+        }
+
+        current.markReferenced(slot);
 
-        return properties.getProperty(propertyName);
+        return current.valueAt(slot);
+    }
+
+    /**
+     * Returns typed value of the property.
+     * <p>
+     * Typed accessors expand symbols in the value and coerce it once per property, later calls return cached values
+     * until the properties are changed by {@link #reload()} or {@link #copyFrom(ConfigHelper)}.
+     * Primitive accessors don't box values.
+     * <p>
+     * Properties added with a type using {@link #add(Class, String, MappedConfiguration)} or similar methods
+     * are coerced by {@link PropertyTypeValidator} during application initialization, and the accessors reuse
+     * those values. Values with symbols can't be read before the validator ran.
+     *
+     * @param propertyName Name of the property.
+     * @return Value of the property after symbol expansion as <code>int</code>.
+     * @throws IllegalStateException if property doesn't exist or its value isn't an <code>int</code>.
+     */
+    public int getInt(String propertyName) throws IllegalStateException
+    {
+        PropertySnapshot current = snapshot;
+        int slot = requireSlot(propertyName, current);
+        current.markReferenced(slot);
+
+        CoercedValues coerced = current.coerced();
+        if (coerced.kind(slot) == CoercedValues.INT)
+        {
+            return (int) coerced.number(slot);
+        }
+
+        String value = expand(propertyName, current.valueAt(slot));
+        int result;
+        try
+        {
+            result = Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            throw invalidValue(propertyName, value, "int", e);
+        }
+
+        coerced.putNumber(slot, CoercedValues.INT, result);
+        return result;
+    }
+
+    /**
+     * @param propertyName Name of the property.
+     * @return Value of the property after symbol expansion as <code>long</code>.
+     * @throws IllegalStateException if property doesn't exist or its value isn't a <code>long</code>.
+     * @see #getInt(String)
+     */
+    public long getLong(String propertyName) throws IllegalStateException
+    {
+        PropertySnapshot current = snapshot;
+        int slot = requireSlot(propertyName, current);
+        current.markReferenced(slot);
+
+        CoercedValues coerced = current.coerced();
+        int kind = coerced.kind(slot);
+        if (kind == CoercedValues.LONG || kind == CoercedValues.INT)
+        {
+            return coerced.number(slot);
+        }
+
+        String value = expand(propertyName, current.valueAt(slot));
+        long result;
+        try
+        {
+            result = Long.parseLong(value.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            throw invalidValue(propertyName, value, "long", e);
+        }
+
+        coerced.putNumber(slot, CoercedValues.LONG, result);
+        return result;
+    }
+
+    /**
+     * @param propertyName Name of the property.
+     * @return Value of the property after symbol expansion as <code>boolean</code>,
+     * the value must be either <code>true</code> or <code>false</code> in any case. This is stricter than
+     * {@link org.apache.tapestry5.commons.services.TypeCoercer}, that coerces any value except blank
+     * and <code>false</code> to <code>true</code>.
+     * @throws IllegalStateException if property doesn't exist or its value isn't a <code>boolean</code>.
+     * @see #getInt(String)
+     */
+    public boolean getBoolean(String propertyName) throws IllegalStateException
+    {
+        PropertySnapshot current = snapshot;
+        int slot = requireSlot(propertyName, current);
+        current.markReferenced(slot);
+
+        CoercedValues coerced = current.coerced();
+        if (coerced.kind(slot) == CoercedValues.BOOLEAN)
+        {
+            return coerced.number(slot) != 0;
+        }
+
+        String value = expand(propertyName, current.valueAt(slot)).trim();
+        Boolean result = parseBoolean(value);
+        if (result == null)
+        {
+            throw invalidValue(propertyName, value, "boolean", null);
+        }
+
+        coerced.putNumber(slot, CoercedValues.BOOLEAN, result ? 1 : 0);
+        return result;
+    }
+
+    /**
+     * @return <code>null</code> if the value is neither <code>true</code> nor <code>false</code>.
+     */
+    private static Boolean parseBoolean(String value)
+    {
+        if ("true".equalsIgnoreCase(value))
+        {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value))
+        {
+            return false;
+        }
+        return null;
+    }
+
+    /**
+     * @param propertyName Name of the property.
+     * @return Value of the property after symbol expansion as {@link Duration}. The value may be either in ISO-8601
+     * format, i.e. <code>PT30S</code>, or a number with optional unit: <code>ms</code> (default), <code>s</code>,
+     * <code>m</code>, <code>h</code>, or <code>d</code>, i.e. <code>30s</code>.
+     * @throws IllegalStateException if property doesn't exist or its value isn't a duration.
+     * @see #getInt(String)
+     */
+    public Duration getDuration(String propertyName) throws IllegalStateException
+    {
+        PropertySnapshot current = snapshot;
+        int slot = requireSlot(propertyName, current);
+        current.markReferenced(slot);
+
+        CoercedValues coerced = current.coerced();
+        Object cached = coerced.object(slot);
+        if (cached instanceof Duration)
+        {
+            return (Duration) cached;
+        }
+
+        String value = expand(propertyName, current.valueAt(slot));
+        Duration result;
+        try
+        {
+            result = parseDuration(value.trim());
+        }
+        catch (IllegalArgumentException | DateTimeParseException e)
+        {
+            throw invalidValue(propertyName, value, "duration", e);
+        }
+
+        coerced.putObject(slot, result);
+        return result;
+    }
+
+    /**
+     * @param propertyName Name of the property.
+     * @return Unmodifiable list of comma separated items of the property value after symbol expansion.
+     * Items are trimmed and empty items are skipped.
+     * @throws IllegalStateException if property doesn't exist.
+     * @see #getInt(String)
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getList(String propertyName) throws IllegalStateException
+    {
+        PropertySnapshot current = snapshot;
+        int slot = requireSlot(propertyName, current);
+        current.markReferenced(slot);
+
+        CoercedValues coerced = current.coerced();
+        Object cached = coerced.object(slot);
+        if (cached instanceof List)
+        {
+            return (List<String>) cached;
+        }
+
+        List<String> result = new ArrayList<>();
+        for (String item : expand(propertyName, current.valueAt(slot)).split(","))
+        {
+            item = item.trim();
+            if (!item.isEmpty())
+            {
+                result.add(item);
+            }
+        }
+        result = Collections.unmodifiableList(result);
+
+        coerced.putObject(slot, result);
+        return result;
+    }
+
+    /**
+     * @param enumType     Type of the enum.
+     * @param propertyName Name of the property.
+     * @return Enum constant with the name from the property value after symbol expansion, names are case insensitive.
+     * @throws IllegalStateException if property doesn't exist or its value isn't a constant of the <code>enumType</code>.
+     * @see #getInt(String)
+     */
+    public <E extends Enum<E>> E getEnum(Class<E> enumType, String propertyName) throws IllegalStateException
+    {
+        assertNotNull(enumType);
+
+        PropertySnapshot current = snapshot;
+        int slot = requireSlot(propertyName, current);
+        current.markReferenced(slot);
+
+        CoercedValues coerced = current.coerced();
+        Object cached = coerced.object(slot);
+        if (enumType.isInstance(cached))
+        {
+            return enumType.cast(cached);
+        }
+
+        String value = expand(propertyName, current.valueAt(slot)).trim();
+        E result = null;
+        for (E constant : enumType.getEnumConstants())
+        {
+            if (constant.name().equalsIgnoreCase(value))
+            {
+                result = constant;
+                break;
+            }
+        }
+        if (result == null)
+        {
+            throw invalidValue(propertyName, value, enumType.getSimpleName(), null);
+        }
+
+        coerced.putObject(slot, result);
+        return result;
+    }
+
+    private String expand(String propertyName, String value)
+    {
+        if (!value.contains("${"))
+        {
+            return value;
+        }
+
+        SymbolSource source = symbolSource;
+        if (source == null)
+        {
+            throw new IllegalStateException("Property '" + propertyName
+                    + "' has symbols in its value, typed value is only available after application initialization");
+        }
+
+        return source.expandSymbols(value);
+    }
+
+    private static IllegalStateException invalidValue(String propertyName, String value, String type, Exception cause)
+    {
+        return new IllegalStateException(
+                "Property '" + propertyName + "' has invalid " + type + " value: '" + value + "'", cause);
+    }
+
+    private static Duration parseDuration(String value)
+    {
+        if (value.startsWith("P") || value.startsWith("p") || value.startsWith("-P") || value.startsWith("-p"))
+        {
+            return Duration.parse(value);
+        }
+
+        int unitStart = 0;
+        while (unitStart < value.length() && Character.isDigit(value.charAt(unitStart)))
+        {
+            unitStart++;
+        }
+
+        if (unitStart == 0)
+        {
+            throw new IllegalArgumentException("Duration must start with a number");
+        }
+
+        long amount = Long.parseLong(value.substring(0, unitStart));
+
+        switch (value.substring(unitStart).trim().toLowerCase(Locale.ROOT))
+        {
+            case "":
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+            default:
+                throw new IllegalArgumentException("Unknown duration unit");
+        }
+    }
+
+    /**
+     * Called by {@link PropertyTypeValidator} with values it coerced, so typed accessors don't coerce them again.
+     * Values are only kept if the accessor would parse <code>expandedValue</code> to the same value,
+     * so accessors return the same results before validation, after it and after {@link #reload()}.
+     */
+    void putCoerced(String propertyName, String expandedValue, Object value)
+    {
+        PropertySnapshot current = snapshot;
+
+        int slot = current.slot(propertyName);
+
+        if (slot < 0 || !parsesTo(expandedValue, value))
+        {
+            return;
+        }
+
+        CoercedValues coerced = current.coerced();
+
+        if (value instanceof Integer)
+        {
+            coerced.putNumber(slot, CoercedValues.INT, (Integer) value);
+        }
+        else if (value instanceof Long)
+        {
+            coerced.putNumber(slot, CoercedValues.LONG, (Long) value);
+        }
+        else if (value instanceof Boolean)
+        {
+            coerced.putNumber(slot, CoercedValues.BOOLEAN, (Boolean) value ? 1 : 0);
+        }
+        else if (value instanceof Enum || value instanceof Duration)
+        {
+            coerced.putObject(slot, value);
+        }
+    }
+
+    /**
+     * @return Whether the typed accessor for the type of <code>coerced</code> parses <code>value</code>
+     * to <code>coerced</code>, {@link org.apache.tapestry5.commons.services.TypeCoercer} is more lenient
+     * for some types, i.e. it coerces <code>"no"</code> to <code>true</code>.
+     */
+    private static boolean parsesTo(String value, Object coerced)
+    {
+        String trimmed = value.trim();
+        try
+        {
+            if (coerced instanceof Integer)
+            {
+                return coerced.equals(Integer.parseInt(trimmed));
+            }
+            if (coerced instanceof Long)
+            {
+                return coerced.equals(Long.parseLong(trimmed));
+            }
+            if (coerced instanceof Boolean)
+            {
+                return coerced.equals(parseBoolean(trimmed));
+            }
+            if (coerced instanceof Duration)
+            {
+                return coerced.equals(parseDuration(trimmed));
+            }
+            if (coerced instanceof Enum)
+            {
+                return ((Enum<?>) coerced).name().equalsIgnoreCase(trimmed);
+            }
+        }
+        catch (IllegalArgumentException | DateTimeParseException e)
+        {
+            return false;
+        }
+        return false;
+    }
+
+    void setSymbolSource(SymbolSource symbolSource)
+    {
+        this.symbolSource = symbolSource;
     }
 
     /**
      * Copy properties from given {@link ConfigHelper} into this instance.
+     * <p>
+     * The <code>source</code> is kept, {@link #reload()} reloads it too and copies its properties again.
      *
      * @param source Source {@link ConfigHelper} to read properties from.
      */
-    public void copyFrom(ConfigHelper source)
+    public synchronized void copyFrom(ConfigHelper source)
+    {
+        if (source == this)
+        {
+            return;
+        }
+
+        if (copied.isEmpty())
+        {
+            ownSnapshot = snapshot;
+        }
+
+        copied.add(source);
+
+        swap(compose(Arrays.asList(this, source)));
+        sourceFiles = collectSourceFiles(sourceFiles, Collections.singletonList(source));
+    }
+
+    /**
+     * Replaces current snapshot, keeping references made to the current one.
+     */
+    private void swap(PropertySnapshot next)
+    {
+        referencedMissing.addAll(next.copyReferencesFrom(snapshot));
+
+        snapshot = next;
+    }
+
+    /**
+     * Reads properties again from the file or classpath resource this {@link ConfigHelper} was created from,
+     * including all files of the <code>extend</code> chain, and atomically replaces the current values.
+     * {@link ConfigHelper}s created by Tapestry IoC from a list of other {@link ConfigHelper}s reload all of them
+     * and compose them again, as well as {@link ConfigHelper}s copied with {@link #copyFrom(ConfigHelper)}.
+     * <p>
+     * Readers never see partially read values, they either see all the old or all the new ones.
+     * If reading fails the current values are kept. Instances created from {@link InputStream}s or {@link Properties}
+     * can't be re-read and keep their values, only the copied ones are reloaded.
+     * <p>
+     * Note that symbols contributed with <code>add...</code> and <code>override...</code> methods are read by
+     * Tapestry IoC once and won't change, use {@link #getRaw(String)} and {@link ConfigChangeListener}s
+     * for values that should be reloadable.
+     *
+     * @return <code>true</code> if any of the values changed, in which case change listeners were notified.
+     * @throws IOException on read errors.
+     * @see ConfigWatcher
+     */
+    public boolean reload() throws IOException
+    {
+        Set<String> changedKeys = reloadProperties();
+
+        if (changedKeys.isEmpty())
+        {
+            return false;
+        }
+
+        logger.info("Config reloaded, {} propert{} changed", changedKeys.size(), changedKeys.size() == 1 ? "y" : "ies");
+
+        for (ConfigChangeListener listener : listeners)
+        {
+            try
+            {
+                listener.configChanged(this, changedKeys);
+            }
+            catch (RuntimeException e)
+            {
+                logger.error("Error notifying {} about config change", listener, e);
+            }
+        }
+
+        return true;
+    }
+
+    private synchronized Set<String> reloadProperties() throws IOException
     {
-        for (String name : source.getPropertyNames())
+        PropertySnapshot next;
+        Set<File> files;
+
+        if (sources != null)
+        {
+            for (ConfigHelper source : sources)
+            {
+                source.reloadProperties();
+            }
+            next = compose(sources);
+            files = collectSourceFiles(sources);
+        }
+        else if (configFile != null || resourceName != null)
+        {
+            //  Read all files again, modification time may be too coarse to notice a quick edit
+            ConfigLayer layer = configFile != null
+                    ? ConfigLayer.fromFile(configFile, false)
+                    : ConfigLayer.fromClasspathResource(resourceName, false);
+
+            next = layer.index();
+            files = layer.getSourceFiles();
+        }
+        else if (!copied.isEmpty())
+        {
+            next = ownSnapshot;
+            files = Collections.emptySet();
+        }
+        else
         {
-            properties.put(name, source.getRaw(name));
+            return Collections.emptySet();
         }
+
+        if (!copied.isEmpty())
+        {
+            PropertySnapshot[] snapshots = new PropertySnapshot[copied.size() + 1];
+            snapshots[0] = next;
+            for (int i = 0; i < copied.size(); i++)
+            {
+                copied.get(i).reloadProperties();
+                snapshots[i + 1] = copied.get(i).snapshot;
+            }
+            ownSnapshot = next;
+            next = compose(snapshots);
+            files = collectSourceFiles(files, copied);
+        }
+
+        Set<String> changedKeys = diff(snapshot, next);
+
+        swap(next);
+        sourceFiles = files;
+
+        return changedKeys;
     }
 
-    private void extendFrom(ConfigHelper source)
+    private static Set<String> diff(PropertySnapshot before, PropertySnapshot after)
     {
-        for (String name : source.getPropertyNames())
+        Set<String> changedKeys = new HashSet<>();
+
+        for (String key : after.keySet())
+        {
+            if (!Objects.equals(after.get(key), before.get(key)))
+            {
+                changedKeys.add(key);
+            }
+        }
+
+        for (String key : before.keySet())
         {
-            if (!properties.containsKey(name))
+            if (!after.containsKey(key))
             {
-                properties.put(name, source.getRaw(name));
+                changedKeys.add(key);
             }
         }
+
+        return Collections.unmodifiableSet(changedKeys);
+    }
+
+    /**
+     * @param listener Listener to notify when {@link #reload()} changes any of the values.
+     */
+    public void addChangeListener(ConfigChangeListener listener)
+    {
+        assertNotNull(listener);
+
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener Listener previously added with {@link #addChangeListener(ConfigChangeListener)}.
+     */
+    public void removeChangeListener(ConfigChangeListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return Files that values of this {@link ConfigHelper} were read from, including the files of
+     * the <code>extend</code> chain. Classpath resources are only included if they were read from a directory.
+     */
+    public Set<File> getSourceFiles()
+    {
+        return sourceFiles;
     }
 
     private static void assertNotNull(Object object)
@@ -516,11 +1090,13 @@ public class ConfigHelper
         }
     }
 
-    private static void assertPropertyDefined(String propertyName, Properties properties)
+    private static int requireSlot(String propertyName, PropertySnapshot snapshot)
     {
-        if (!properties.containsKey(propertyName))
+        int slot = snapshot.slot(propertyName);
+        if (slot < 0)
         {
             throw new IllegalStateException("Required property not defined: " + propertyName);
         }
+        return slot;
     }
 }
\ No newline at end of file
@@ -24,12 +24,23 @@ import org.apache.tapestry5.http.services.Context;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Runs {@link ConfigHelperValidator}s. The initializer is contributed both to <code>ApplicationInitializer</code>
+ * and, when <code>anjlab.concurrent-initializer.modules</code> symbol of <code>anjlab-tapestry-commons</code>
+ * is <code>true</code>, to its <code>ConcurrentApplicationInitializer</code>,
+ * validators run only on the first invocation and later invocations just pass control to the next initializer.
+ */
 @UsesOrderedConfiguration(ConfigHelperValidator.class)
 public class ConfigHelperInitializer implements ApplicationInitializerFilter
 {
     private final List<ConfigHelperValidator> validators;
 
+    private final AtomicBoolean initialized = new AtomicBoolean();
+
+    private volatile long initializationNanos;
+
     public ConfigHelperInitializer(List<ConfigHelperValidator> validators)
     {
         this.validators = new ArrayList<ConfigHelperValidator>(validators);
@@ -38,15 +49,46 @@ public class ConfigHelperInitializer implements ApplicationInitializerFilter
     @Override
     public void initializeApplication(Context context, ApplicationInitializer initializer)
     {
+        if (!initialized.compareAndSet(false, true))
+        {
+            initializer.initializeApplication(context);
+            return;
+        }
+
+        long start = System.nanoTime();
+
         ObjectLocator objectLocator = (ObjectLocator) context.getAttribute(TapestryFilter.REGISTRY_CONTEXT_NAME);
 
         ConfigHelper configHelper = objectLocator.getService(ConfigHelper.class);
 
         for (ConfigHelperValidator validator : validators)
         {
-            validator.validate(configHelper);
+            Object event = ConfigEvents.beginValidation();
+            Object phase = ConfigMetrics.beginPhase("config validator " + validator.getClass().getName());
+            boolean passed = false;
+            try
+            {
+                validator.validate(configHelper);
+
+                passed = true;
+            }
+            finally
+            {
+                ConfigMetrics.endPhase(phase);
+                ConfigEvents.commitValidation(event, validator, passed);
+            }
         }
 
+        initializationNanos = System.nanoTime() - start;
+
         initializer.initializeApplication(context);
     }
+
+    /**
+     * @return Time that validators took, or <code>0</code> if they haven't run yet.
+     */
+    long getInitializationNanos()
+    {
+        return initializationNanos;
+    }
 }
@@ -15,12 +15,28 @@
  */
 package com.anjlab.tapestry5.config;
 
+import org.apache.tapestry5.commons.Configuration;
+import org.apache.tapestry5.commons.MappedConfiguration;
 import org.apache.tapestry5.commons.OrderedConfiguration;
 import org.apache.tapestry5.ioc.ServiceBinder;
+import org.apache.tapestry5.ioc.annotations.Inject;
+import org.apache.tapestry5.ioc.annotations.Optional;
+import org.apache.tapestry5.ioc.annotations.Startup;
+import org.apache.tapestry5.ioc.annotations.Symbol;
+import org.apache.tapestry5.ioc.services.RegistryShutdownHub;
 import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
 
+import com.anjlab.tapestry5.services.CommonsModule;
+
+import java.io.IOException;
+
 public class ConfigHelperModule
 {
+    /**
+     * Watch source files of the {@link ConfigHelper} service and reload it when they change, see {@link ConfigWatcher}.
+     */
+    public static final String RELOAD = "anjlab.config.reload";
+
     public static void bind(ServiceBinder binder)
     {
         binder.bind(ConfigHelper.class);
@@ -34,10 +50,79 @@ public class ConfigHelperModule
         configuration.add("ConfigHelper", configHelperInitializer);
     }
 
+    /**
+     * Runs {@link ConfigHelperInitializer} as <code>ConfigHelper</code> node of
+     * <code>ConcurrentApplicationInitializer</code> when <code>anjlab-tapestry-commons</code> is used and
+     * its <code>anjlab.concurrent-initializer.modules</code> symbol is <code>true</code>.
+     * The <code>ConfigHelper</code> filter then just passes control to the next initializer.
+     */
+    @Optional
+    public void contributeConcurrentApplicationInitializer(
+            MappedConfiguration<String, Object> configuration,
+            //  Constant is inlined, CommonsModule is not needed at runtime
+            @Inject @Symbol(CommonsModule.CONCURRENT_MODULE_INITIALIZERS) boolean concurrent,
+            ConfigHelperInitializer configHelperInitializer)
+    {
+        if (concurrent)
+        {
+            configuration.add("ConfigHelper", ConfigMetrics.concurrentInitializer(configHelperInitializer));
+        }
+    }
+
+    /**
+     * Registers meters of {@link ConfigHelper} in <code>MetricsRegistry</code> when
+     * <code>anjlab-tapestry-commons</code> is used, see {@link ConfigMetrics#meterBinder}.
+     */
+    @Optional
+    public void contributeMetricsRegistry(
+            Configuration<Object> configuration,
+            ConfigHelper configHelper,
+            ConfigHelperInitializer configHelperInitializer)
+    {
+        configuration.add(ConfigMetrics.meterBinder(configHelper, configHelperInitializer));
+    }
+
     public void contributeConfigHelperInitializer(
             OrderedConfiguration<ConfigHelperValidator> configuration)
     {
         configuration.addInstance("UnreferencedProperties", UnreferencedPropertiesValidator.class);
         configuration.addInstance("PropertyType", PropertyTypeValidator.class);
     }
+
+    public static void contributeFactoryDefaults(MappedConfiguration<String, Object> configuration)
+    {
+        configuration.add(RELOAD, "false");
+    }
+
+    @Startup
+    public void watchConfig(
+            @Inject @Symbol(RELOAD) boolean reload,
+            ConfigHelper configHelper,
+            RegistryShutdownHub shutdownHub) throws IOException
+    {
+        if (!reload)
+        {
+            return;
+        }
+
+        final ConfigWatcher watcher = new ConfigWatcher(configHelper);
+
+        watcher.start();
+
+        shutdownHub.addRegistryShutdownListener(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    watcher.close();
+                }
+                catch (IOException e)
+                {
+                    //  Nothing to do, the registry is going away
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,522 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Read-only properties of a single file or classpath resource, and the layers it extends with
+ * <code>extend</code> and <code>extend.N</code> properties.
+ * <p>
+ * Layers are never copied or modified, <code>extend.prefix</code> is applied when a {@link PropertySnapshot} is built
+ * from the layers by {@link #index()}.
+ * <p>
+ * Layers are cached for the whole process by canonical file path or classpath resource name, so a base file
+ * extended by several configs is read once and shared by all of them. A cached layer is used while size and
+ * modification time of its file and of all files it extends stay the same. Classpath resources inside jar files
+ * are cached until the class loader goes away.
+ * <p>
+ * Extensions of a layer are read in parallel in the common {@link java.util.concurrent.ForkJoinPool}.
+ * Cycles in the <code>extend</code> chain fail the load.
+ */
+final class ConfigLayer
+{
+    private static final Logger logger = LoggerFactory.getLogger(ConfigHelper.class);
+
+    private static final Map<String, ConfigLayer> CACHE = new ConcurrentHashMap<>();
+
+    private final File configFile;
+    private final String resourceName;
+    private final Object stamp;
+    private final PropertySnapshot properties;
+    private final List<ConfigLayer> extensions;
+    private final List<String> prefixes;
+
+    private ConfigLayer(File configFile, String resourceName, Object stamp, PropertySnapshot properties,
+                        List<ConfigLayer> extensions, List<String> prefixes)
+    {
+        this.configFile = configFile;
+        this.resourceName = resourceName;
+        this.stamp = stamp;
+        this.properties = properties;
+        this.extensions = extensions;
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * @param useCache <code>false</code> to read this file and all files it extends,
+     *                 even if they didn't change according to their modification time.
+     */
+    static ConfigLayer fromFile(File file, boolean useCache) throws IOException
+    {
+        return fromFile(file, useCache, Collections.<String>emptyList());
+    }
+
+    /**
+     * @param useCache <code>false</code> to read this resource and all resources it extends.
+     */
+    static ConfigLayer fromClasspathResource(String resourceName, boolean useCache) throws IOException
+    {
+        return fromClasspathResource(resourceName, useCache, Collections.<String>emptyList());
+    }
+
+    /**
+     * Reads a layer from the stream, which is not closed. Layers read from streams are not cached.
+     * Relative paths of extensions can't be resolved without a <code>resourceName</code>.
+     */
+    static ConfigLayer fromStream(InputStream input, String resourceName) throws IOException
+    {
+        return read(input, null, resourceName, null, true, Collections.<String>emptyList());
+    }
+
+    static void clearCache()
+    {
+        CACHE.clear();
+    }
+
+    private static ConfigLayer fromFile(File file, boolean useCache, List<String> chain) throws IOException
+    {
+        String key = "file:" + file.getCanonicalPath();
+
+        List<String> path = enter(chain, key);
+
+        ConfigLayer cached = useCache ? CACHE.get(key) : null;
+        if (cached != null && cached.isUpToDate())
+        {
+            return cached;
+        }
+
+        logger.info("Reading config from file: {}", file.getAbsoluteFile());
+
+        if (!file.exists())
+        {
+            throw new IllegalStateException("Configuration file not found: "
+                    + file.getAbsolutePath());
+        }
+
+        Object stamp = stampOf(file);
+
+        ConfigLayer layer;
+        InputStream input = new FileInputStream(file);
+        try
+        {
+            layer = read(input, file.getAbsoluteFile(), null, stamp, useCache, path);
+        }
+        finally
+        {
+            try
+            {
+                input.close();
+            }
+            catch (IOException e)
+            {
+            }
+        }
+
+        CACHE.put(key, layer);
+        return layer;
+    }
+
+    private static ConfigLayer fromClasspathResource(String resourceName, boolean useCache, List<String> chain)
+            throws IOException
+    {
+        String key = "classpath:" + new File(resourceName).toPath().normalize();
+
+        List<String> path = enter(chain, key);
+
+        ConfigLayer cached = useCache ? CACHE.get(key) : null;
+        if (cached != null && cached.isUpToDate())
+        {
+            return cached;
+        }
+
+        logger.info("Reading config from classpath: {}", resourceName);
+
+        InputStream input = ConfigHelper.class.getClassLoader().getResourceAsStream(resourceName);
+        if (input == null)
+        {
+            throw new IOException("Classpath resource not found: " + resourceName);
+        }
+
+        Object stamp = stampOf(resourceFile(resourceName));
+
+        ConfigLayer layer;
+        try
+        {
+            layer = read(input, null, resourceName, stamp, useCache, path);
+        }
+        finally
+        {
+            input.close();
+        }
+
+        CACHE.put(key, layer);
+        return layer;
+    }
+
+    /**
+     * @return Chain of layers that are being read, ending with the given <code>key</code>.
+     * @throws IllegalStateException if the <code>key</code> is already being read, i.e. a file extends itself.
+     */
+    private static List<String> enter(List<String> chain, String key)
+    {
+        if (chain.contains(key))
+        {
+            StringBuilder cycle = new StringBuilder();
+            for (String name : chain.subList(chain.indexOf(key), chain.size()))
+            {
+                cycle.append(name).append(" -> ");
+            }
+            cycle.append(key);
+
+            throw new IllegalStateException("Cycle in config " + ConfigHelper.EXTEND + " chain: " + cycle);
+        }
+
+        List<String> path = new ArrayList<>(chain.size() + 1);
+        path.addAll(chain);
+        path.add(key);
+        return path;
+    }
+
+    /**
+     * @return Stamp that changes when the file changes, or <code>null</code> if there's no file.
+     */
+    private static Object stampOf(File file)
+    {
+        if (file == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+
+            return attributes.lastModifiedTime() + "/" + attributes.size();
+        }
+        catch (IOException e)
+        {
+            //  Deleted, the layer will be read again and fail with a proper error
+            return "missing";
+        }
+    }
+
+    /**
+     * @return File of the classpath resource if it's loaded from a directory, i.e. during development.
+     */
+    private static File resourceFile(String resourceName)
+    {
+        URL url = ConfigHelper.class.getClassLoader().getResource(resourceName);
+
+        if (url != null && "file".equals(url.getProtocol()))
+        {
+            try
+            {
+                return new File(url.toURI());
+            }
+            catch (URISyntaxException | IllegalArgumentException e)
+            {
+                logger.debug("Unable to resolve file of classpath resource {}", resourceName, e);
+            }
+        }
+
+        return null;
+    }
+
+    private static ConfigLayer read(InputStream input, final File configFile, final String resourceName, Object stamp,
+                                    final boolean useCache, final List<String> path) throws IOException
+    {
+        Object event = ConfigEvents.beginLoad();
+        ConfigLayer layer = null;
+        try
+        {
+            Properties parsed = new Properties();
+            parsed.load(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+            List<String> relativePaths = new ArrayList<>();
+            List<String> prefixes = new ArrayList<>();
+
+            if (parsed.containsKey(ConfigHelper.EXTEND))
+            {
+                relativePaths.add(parsed.getProperty(ConfigHelper.EXTEND));
+                prefixes.add(parsed.getProperty(ConfigHelper.EXTEND + "." + ConfigHelper.PREFIX));
+            }
+
+            //  Support multiple ordered extensions
+            boolean canContinue = true;
+
+            for (int i = 0; canContinue; i++)
+            {
+                String key = ConfigHelper.EXTEND + "." + i;
+
+                if (parsed.containsKey(key))
+                {
+                    relativePaths.add(parsed.getProperty(key));
+                    prefixes.add(parsed.getProperty(key + "." + ConfigHelper.PREFIX));
+                }
+                else
+                {
+                    //  Support 0 and 1 based offsets
+                    canContinue = i < 1;
+                }
+            }
+
+            List<ConfigLayer> extensions = resolveAll(relativePaths, configFile, resourceName, useCache, path);
+
+            Map<String, String> values = new HashMap<>(parsed.size() * 2);
+            for (String name : parsed.stringPropertyNames())
+            {
+                values.put(name, parsed.getProperty(name));
+            }
+
+            layer = new ConfigLayer(configFile, resourceName, stamp, new PropertySnapshot(values), extensions, prefixes);
+
+            return layer;
+        }
+        finally
+        {
+            ConfigEvents.commitLoad(event,
+                    configFile != null ? configFile.getPath() : resourceName,
+                    layer == null ? 0 : layer.maxSize());
+        }
+    }
+
+    /**
+     * Reads extensions, in parallel if there's more than one.
+     */
+    private static List<ConfigLayer> resolveAll(final List<String> relativePaths, final File configFile,
+                                                final String resourceName, final boolean useCache,
+                                                final List<String> path) throws IOException
+    {
+        if (relativePaths.size() == 1)
+        {
+            return Collections.singletonList(resolve(relativePaths.get(0), configFile, resourceName, useCache, path));
+        }
+
+        final ConfigLayer[] extensions = new ConfigLayer[relativePaths.size()];
+        final Exception[] failures = new Exception[relativePaths.size()];
+
+        List<RecursiveAction> tasks = new ArrayList<>(relativePaths.size());
+
+        for (int i = 0; i < relativePaths.size(); i++)
+        {
+            final int index = i;
+            tasks.add(new RecursiveAction()
+            {
+                @Override
+                protected void compute()
+                {
+                    try
+                    {
+                        extensions[index] = resolve(relativePaths.get(index), configFile, resourceName, useCache, path);
+                    }
+                    catch (IOException | RuntimeException e)
+                    {
+                        failures[index] = e;
+                    }
+                }
+            });
+        }
+
+        ForkJoinTask.invokeAll(tasks);
+
+        //  Report the first failure in extend order, same as sequential loading would
+        for (Exception failure : failures)
+        {
+            if (failure instanceof IOException)
+            {
+                throw (IOException) failure;
+            }
+            if (failure != null)
+            {
+                throw (RuntimeException) failure;
+            }
+        }
+
+        List<ConfigLayer> result = new ArrayList<>(extensions.length);
+        Collections.addAll(result, extensions);
+        return result;
+    }
+
+    private static ConfigLayer resolve(String relativePath, File configFile, String resourceName,
+                                       boolean useCache, List<String> path) throws IOException
+    {
+        if (configFile != null)
+        {
+            return fromFile(FileUtils.getFile(configFile.getParentFile(), relativePath), useCache, path);
+        }
+        else if (resourceName != null)
+        {
+            File parentFile = new File(resourceName).getParentFile();
+            String basePath = new File(parentFile, relativePath).getPath();
+            return fromClasspathResource(basePath, useCache, path);
+        }
+        else
+        {
+            throw new RuntimeException("Unable to resolve relative path: " + relativePath);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if files of this layer and all its extensions didn't change since they were read.
+     */
+    private boolean isUpToDate()
+    {
+        File file = configFile != null
+                ? configFile
+                : resourceName != null ? resourceFile(resourceName) : null;
+
+        if (!Objects.equals(stamp, stampOf(file)))
+        {
+            return false;
+        }
+
+        for (ConfigLayer extension : extensions)
+        {
+            if (!extension.isUpToDate())
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    List<ConfigLayer> extensions()
+    {
+        return Collections.unmodifiableList(extensions);
+    }
+
+    /**
+     * @return Number of properties of this layer and all its extensions, counting overridden properties
+     * once per layer that defines them.
+     */
+    int maxSize()
+    {
+        int size = properties.size();
+        for (ConfigLayer extension : extensions)
+        {
+            size += extension.maxSize();
+        }
+        return size;
+    }
+
+    /**
+     * Builds lookup index of the properties of this layer and its extensions.
+     * Keys and values are shared with the layers, only the properties of extensions with a prefix get new keys.
+     */
+    PropertySnapshot index()
+    {
+        PropertySnapshot.Builder builder = new PropertySnapshot.Builder(maxSize());
+        index(builder, null);
+        return builder.build();
+    }
+
+    private void index(PropertySnapshot.Builder builder, String prefix)
+    {
+        //  Own properties override properties of extensions
+        for (int slot = 0; slot < properties.capacity(); slot++)
+        {
+            String key = properties.keyAt(slot);
+            if (key != null)
+            {
+                if (prefix == null)
+                {
+                    builder.putInternedIfAbsent(key, properties.valueAt(slot));
+                }
+                else
+                {
+                    builder.putIfAbsent(prefix + key, properties.valueAt(slot));
+                }
+            }
+        }
+
+        //  Later extensions override earlier ones
+        for (int i = extensions.size() - 1; i >= 0; i--)
+        {
+            extensions.get(i).index(builder, concat(prefix, prefixes.get(i)));
+        }
+    }
+
+    private static String concat(String outer, String inner)
+    {
+        boolean hasInner = inner != null && inner.trim().length() > 0;
+
+        if (outer == null)
+        {
+            return hasInner ? inner : null;
+        }
+
+        return hasInner ? outer + inner : outer;
+    }
+
+    /**
+     * @return Files of this layer and its extensions. Classpath resources are only included if they were
+     * read from a directory.
+     */
+    Set<File> getSourceFiles()
+    {
+        Set<File> files = new LinkedHashSet<>();
+        collectSourceFiles(files);
+        return Collections.unmodifiableSet(files);
+    }
+
+    private void collectSourceFiles(Set<File> files)
+    {
+        if (configFile != null)
+        {
+            files.add(configFile);
+        }
+        else if (resourceName != null)
+        {
+            File file = resourceFile(resourceName);
+            if (file != null)
+            {
+                files.add(file);
+            }
+        }
+
+        for (ConfigLayer extension : extensions)
+        {
+            extension.collectSourceFiles(files);
+        }
+    }
+}
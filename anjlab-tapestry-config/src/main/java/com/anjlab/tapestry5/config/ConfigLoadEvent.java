@@ -0,0 +1,44 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for reading properties of a file or classpath resource, including its extensions.
+ * Events of extensions are nested in the events of the files that extend them.
+ * <p>
+ * Only use through {@link ConfigEvents}, the class can't be loaded on JVMs without JFR.
+ */
+@Name("com.anjlab.tapestry5.ConfigLoad")
+@Label("Config Load")
+@Category({ "AnjLab Tapestry", "Config" })
+@Description("Properties read by ConfigHelper")
+@StackTrace(false)
+class ConfigLoadEvent extends jdk.jfr.Event
+{
+    @Label("Source")
+    @Description("File path or classpath resource name")
+    String source;
+
+    @Label("Properties")
+    @Description("Number of properties, including those of extensions, overridden properties are counted once per source")
+    int propertyCount;
+}
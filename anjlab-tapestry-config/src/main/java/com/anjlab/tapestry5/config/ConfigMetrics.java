@@ -0,0 +1,125 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
+
+import com.anjlab.tapestry5.services.ConcurrentInitializer;
+import com.anjlab.tapestry5.services.metrics.Counter;
+import com.anjlab.tapestry5.services.metrics.Gauge;
+import com.anjlab.tapestry5.services.metrics.MeterBinder;
+import com.anjlab.tapestry5.services.metrics.MetricsRegistry;
+import com.anjlab.tapestry5.services.metrics.StartupPhase;
+import com.anjlab.tapestry5.services.metrics.StartupTimeline;
+
+/**
+ * Reports {@link ConfigHelper} meters and startup phases to <code>anjlab-tapestry-commons</code>
+ * and runs {@link ConfigHelperInitializer} with its <code>ConcurrentApplicationInitializer</code>.
+ */
+final class ConfigMetrics
+{
+    private static final boolean AVAILABLE = isAvailable();
+
+    private ConfigMetrics()
+    {
+    }
+
+    private static boolean isAvailable()
+    {
+        try
+        {
+            Class.forName("com.anjlab.tapestry5.services.metrics.StartupTimeline");
+            return true;
+        }
+        catch (ClassNotFoundException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @return Started phase, or <code>null</code> if <code>anjlab-tapestry-commons</code> is not available.
+     */
+    static Object beginPhase(String name)
+    {
+        return AVAILABLE ? StartupTimeline.getDefault().begin(name) : null;
+    }
+
+    static void endPhase(Object handle)
+    {
+        if (handle != null)
+        {
+            ((StartupPhase) handle).end();
+        }
+    }
+
+    /**
+     * @return <code>ConcurrentInitializer</code> of the filter without dependencies.
+     */
+    static Object concurrentInitializer(ApplicationInitializerFilter filter)
+    {
+        return new ConcurrentInitializer(filter);
+    }
+
+    /**
+     * @return <code>MeterBinder</code> of <code>config.properties</code> gauge, <code>config.reloads</code>
+     * and <code>config.reloaded-properties</code> counters, and <code>startup.config-helper.millis</code> gauge.
+     */
+    static Object meterBinder(final ConfigHelper configHelper, final ConfigHelperInitializer configHelperInitializer)
+    {
+        return new MeterBinder()
+        {
+            @Override
+            public void bindTo(MetricsRegistry registry)
+            {
+                registry.gauge("config.properties", new Gauge()
+                {
+                    @Override
+                    public double getValue()
+                    {
+                        return configHelper.getPropertyNames().size();
+                    }
+                });
+
+                final Counter reloads = registry.counter("config.reloads");
+                final Counter reloadedProperties = registry.counter("config.reloaded-properties");
+
+                configHelper.addChangeListener(new ConfigChangeListener()
+                {
+                    @Override
+                    public void configChanged(ConfigHelper configHelper, Set<String> changedKeys)
+                    {
+                        reloads.increment();
+                        reloadedProperties.add(changedKeys.size());
+                    }
+                });
+
+                registry.gauge("startup.config-helper.millis", new Gauge()
+                {
+                    @Override
+                    public double getValue()
+                    {
+                        return configHelperInitializer.getInitializationNanos()
+                                / (double) TimeUnit.MILLISECONDS.toNanos(1);
+                    }
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches {@link ConfigHelper#getSourceFiles()} with a {@link WatchService} and calls {@link ConfigHelper#reload()}
+ * on the background thread when any of them changes.
+ * <p>
+ * Files of the <code>extend</code> chain are watched as well, and the set of watched files is updated after every
+ * reload, so adding or removing <code>extend</code> properties is picked up too.
+ * Failed reloads are logged and the previous values are kept.
+ */
+public class ConfigWatcher implements Closeable
+{
+    private static final Logger logger = LoggerFactory.getLogger(ConfigWatcher.class);
+
+    /**
+     * Time to wait for more changes before reloading. Editors and deployment tools often write files in several steps.
+     */
+    public static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final ConfigHelper configHelper;
+
+    private final WatchService watchService;
+
+    private final Set<Path> watchedDirectories = new HashSet<>();
+
+    private volatile Set<Path> watchedFiles = new HashSet<>();
+
+    private final Thread thread;
+
+    /**
+     * Creates a watcher for the given <code>configHelper</code>, use {@link #start()} to start watching.
+     *
+     * @param configHelper {@link ConfigHelper} to reload.
+     * @throws IOException if {@link WatchService} can't be created.
+     */
+    public ConfigWatcher(ConfigHelper configHelper) throws IOException
+    {
+        this.configHelper = configHelper;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                watch();
+            }
+        }, "config-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching source files of the {@link ConfigHelper} on a daemon thread.
+     *
+     * @throws IOException if source file directories can't be registered with the {@link WatchService}.
+     */
+    public void start() throws IOException
+    {
+        register();
+
+        if (watchedFiles.isEmpty())
+        {
+            logger.warn("Config has no files to watch, it was created from streams or resources inside jar files");
+        }
+
+        thread.start();
+    }
+
+    /**
+     * Stops watching, the {@link ConfigHelper} keeps its current values.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        watchService.close();
+    }
+
+    private void register() throws IOException
+    {
+        Set<Path> files = new HashSet<>();
+
+        for (File file : configHelper.getSourceFiles())
+        {
+            Path path = file.toPath().toAbsolutePath().normalize();
+
+            Path directory = path.getParent();
+
+            if (directory != null && watchedDirectories.add(directory))
+            {
+                directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            }
+
+            files.add(path);
+        }
+
+        watchedFiles = files;
+    }
+
+    private void watch()
+    {
+        try
+        {
+            while (true)
+            {
+                if (!affectsWatchedFiles(watchService.take()))
+                {
+                    continue;
+                }
+
+                //  Wait until the files settle
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null)
+                {
+                    affectsWatchedFiles(key);
+                }
+
+                reload();
+            }
+        }
+        catch (ClosedWatchServiceException e)
+        {
+            //  Closed
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean affectsWatchedFiles(WatchKey key)
+    {
+        boolean affects = false;
+
+        Path directory = (Path) key.watchable();
+
+        for (WatchEvent<?> event : key.pollEvents())
+        {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || watchedFiles.contains(directory.resolve((Path) event.context())))
+            {
+                affects = true;
+            }
+        }
+
+        key.reset();
+
+        return affects;
+    }
+
+    private void reload()
+    {
+        try
+        {
+            configHelper.reload();
+        }
+        catch (Exception e)
+        {
+            logger.error("Unable to reload config, keeping previous values", e);
+        }
+
+        try
+        {
+            register();
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to watch config files", e);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Immutable snapshot of {@link ConfigHelper} properties.
+ * <p>
+ * Values are kept in an open-addressing hash table with linear probing. Keys are interned, so lookups with
+ * string literals and other interned names usually succeed on a reference comparison.
+ * References made with {@link ConfigHelper#getRaw(String)} and friends are tracked in a bitset indexed by slot
+ * of the key, which is the only mutable part of the snapshot and is safe to update from any thread,
+ * along with the {@link CoercedValues} cache of typed values.
+ */
+final class PropertySnapshot
+{
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final String[] keys;
+    private final String[] values;
+    private final int mask;
+    private final int size;
+
+    private final AtomicLongArray referenced;
+
+    private final Set<String> keySet = new KeySet();
+
+    private volatile CoercedValues coerced;
+
+    PropertySnapshot(Map<String, String> properties)
+    {
+        this(Builder.of(properties));
+    }
+
+    private PropertySnapshot(Builder builder)
+    {
+        this.keys = builder.keys;
+        this.values = builder.values;
+        this.mask = keys.length - 1;
+        this.size = builder.size;
+        this.referenced = new AtomicLongArray((keys.length + 63) >>> 6);
+    }
+
+    /**
+     * Fills hash table of a new {@link PropertySnapshot}, the first value put for a key wins.
+     */
+    static final class Builder
+    {
+        private final String[] keys;
+        private final String[] values;
+        private int size;
+
+        /**
+         * @param maxSize Maximum number of distinct keys that will be put.
+         */
+        Builder(int maxSize)
+        {
+            int capacity = capacityFor(maxSize);
+
+            this.keys = new String[capacity];
+            this.values = new String[capacity];
+        }
+
+        private static Builder of(Map<String, String> properties)
+        {
+            Builder builder = new Builder(properties.size());
+            for (Map.Entry<String, String> entry : properties.entrySet())
+            {
+                builder.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            return builder;
+        }
+
+        void putIfAbsent(String key, String value)
+        {
+            putInternedIfAbsent(key.intern(), value);
+        }
+
+        /**
+         * Same as {@link #putIfAbsent(String, String)} for keys that are known to be interned,
+         * i.e. keys of other {@link PropertySnapshot}s.
+         */
+        void putInternedIfAbsent(String key, String value)
+        {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+
+            String candidate;
+            while ((candidate = keys[slot]) != null)
+            {
+                if (candidate == key)
+                {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        PropertySnapshot build()
+        {
+            return new PropertySnapshot(this);
+        }
+    }
+
+    private static int capacityFor(int size)
+    {
+        //  Keep load factor at or below 0.5 to keep probe sequences short
+        int capacity = 2;
+        while (capacity < size * 2)
+        {
+            if (capacity == MAX_CAPACITY)
+            {
+                throw new IllegalArgumentException("Too many properties: " + size);
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(String key)
+    {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return Slot of the given key, or <code>-1</code> if there's no such key.
+     */
+    int slot(String key)
+    {
+        int slot = hash(key) & mask;
+
+        String candidate;
+        while ((candidate = keys[slot]) != null)
+        {
+            if (candidate == key || candidate.equals(key))
+            {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    String get(String key)
+    {
+        int slot = slot(key);
+        return slot < 0 ? null : values[slot];
+    }
+
+    boolean containsKey(String key)
+    {
+        return slot(key) >= 0;
+    }
+
+    String keyAt(int slot)
+    {
+        return keys[slot];
+    }
+
+    String valueAt(int slot)
+    {
+        return values[slot];
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return Size of the hash table, slots from <code>0</code> to <code>capacity() - 1</code> may hold keys.
+     */
+    int capacity()
+    {
+        return keys.length;
+    }
+
+    /**
+     * @return Unmodifiable view of the keys.
+     */
+    Set<String> keySet()
+    {
+        return keySet;
+    }
+
+    void markReferenced(int slot)
+    {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+
+        long current = referenced.get(word);
+
+        //  Most references are repeated, avoid writes to the shared word for them
+        while ((current & bit) == 0)
+        {
+            if (referenced.compareAndSet(word, current, current | bit))
+            {
+                return;
+            }
+            current = referenced.get(word);
+        }
+    }
+
+    boolean isReferenced(int slot)
+    {
+        return (referenced.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    /**
+     * @return Keys of this snapshot that were marked as referenced.
+     */
+    Set<String> getReferencedKeys()
+    {
+        Set<String> result = new LinkedHashSet<>();
+
+        for (int slot = 0; slot < keys.length; slot++)
+        {
+            if (keys[slot] != null && isReferenced(slot))
+            {
+                result.add(keys[slot]);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Marks keys that were referenced in the <code>previous</code> snapshot as referenced in this one.
+     *
+     * @return Referenced keys of the <code>previous</code> snapshot that don't exist in this one.
+     */
+    Set<String> copyReferencesFrom(PropertySnapshot previous)
+    {
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String key : previous.getReferencedKeys())
+        {
+            int slot = slot(key);
+
+            if (slot < 0)
+            {
+                missing.add(key);
+            }
+            else
+            {
+                markReferenced(slot);
+            }
+        }
+
+        return missing;
+    }
+
+    /**
+     * @return Cache of typed values of this snapshot, created on first use.
+     */
+    CoercedValues coerced()
+    {
+        CoercedValues result = coerced;
+        if (result == null)
+        {
+            synchronized (this)
+            {
+                result = coerced;
+                if (result == null)
+                {
+                    coerced = result = new CoercedValues(keys.length);
+                }
+            }
+        }
+        return result;
+    }
+
+    private class KeySet extends AbstractSet<String>
+    {
+        @Override
+        public Iterator<String> iterator()
+        {
+            return new Iterator<String>()
+            {
+                private int slot = advance(0);
+
+                private int advance(int from)
+                {
+                    while (from < keys.length && keys[from] == null)
+                    {
+                        from++;
+                    }
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext()
+                {
+                    return slot < keys.length;
+                }
+
+                @Override
+                public String next()
+                {
+                    if (!hasNext())
+                    {
+                        throw new NoSuchElementException();
+                    }
+
+                    String key = keys[slot];
+                    slot = advance(slot + 1);
+                    return key;
+                }
+
+                @Override
+                public void remove()
+                {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            return o instanceof String && containsKey((String) o);
+        }
+    }
+}
@@ -37,6 +37,9 @@ public class PropertyTypeValidator implements ConfigHelperValidator
     @Override
     public void validate(ConfigHelper configHelper) throws RuntimeException
     {
+        //  For typed accessors of ConfigHelper
+        configHelper.setSymbolSource(symbolSource);
+
         for (String propertyName : configHelper.getPropertyNames())
         {
             Class<?> desiredType = configHelper.getPropertyType(propertyName);
@@ -58,7 +61,9 @@ public class PropertyTypeValidator implements ConfigHelperValidator
             String symbolValue = symbolSource.expandSymbols(propertyValue);
 
             //  This will throw RuntimeException if type can't be coerced
-            typeCoercer.coerce(symbolValue, desiredType);
+            Object value = typeCoercer.coerce(symbolValue, desiredType);
+
+            configHelper.putCoerced(propertyName, symbolValue, value);
         }
     }
 }
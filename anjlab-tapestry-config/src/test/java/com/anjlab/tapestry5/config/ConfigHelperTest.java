@@ -15,13 +15,30 @@
  */
 package com.anjlab.tapestry5.config;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class ConfigHelperTest
 {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testFromFile() throws IOException
     {
@@ -69,4 +86,239 @@ public class ConfigHelperTest
         Assert.assertEquals("Base Property 1", helper.getRaw("prop1"));
         Assert.assertEquals("Base Property 2", helper.getRaw("prop2"));
     }
+
+    @Test
+    public void testReload() throws IOException
+    {
+        File base = write("base.properties", "prop1=Base 1\nprop2=Base 2\nprop3=Base 3\n");
+        File config = write("config.properties", "extend=base.properties\nprop1=Config 1\n");
+
+        ConfigHelper helper = ConfigHelper.fromFile(config);
+
+        Assert.assertEquals(
+                new HashSet<>(Arrays.asList(config.getAbsoluteFile(), base.getAbsoluteFile())),
+                helper.getSourceFiles());
+
+        final List<Set<String>> changes = new ArrayList<>();
+        helper.addChangeListener(new ConfigChangeListener()
+        {
+            @Override
+            public void configChanged(ConfigHelper configHelper, Set<String> changedKeys)
+            {
+                changes.add(changedKeys);
+            }
+        });
+
+        Assert.assertFalse(helper.reload());
+        Assert.assertTrue(changes.isEmpty());
+
+        write("base.properties", "prop1=Base 1\nprop2=Changed 2\nprop4=Base 4\n");
+
+        Assert.assertTrue(helper.reload());
+        Assert.assertEquals(1, changes.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("prop2", "prop3", "prop4")), changes.get(0));
+        Assert.assertEquals("Config 1", helper.getRaw("prop1"));
+        Assert.assertEquals("Changed 2", helper.getRaw("prop2"));
+        Assert.assertNull(helper.getRaw("prop3"));
+        Assert.assertEquals("Base 4", helper.getRaw("prop4"));
+    }
+
+    @Test
+    public void testReloadKeepsValuesOnError() throws IOException
+    {
+        File base = write("base.properties", "prop1=Base 1\n");
+        File config = write("config.properties", "extend=base.properties\n");
+
+        ConfigHelper helper = ConfigHelper.fromFile(config);
+
+        Assert.assertTrue(base.delete());
+
+        try
+        {
+            helper.reload();
+            Assert.fail("Reload should fail if extended file is missing");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertTrue(e.getMessage().startsWith("Configuration file not found"));
+        }
+
+        Assert.assertEquals("Base 1", helper.getRaw("prop1"));
+    }
+
+    @Test
+    public void testReloadComposed() throws IOException
+    {
+        File first = write("first.properties", "prop1=First 1\nprop2=First 2\n");
+        File second = write("second.properties", "prop2=Second 2\n");
+
+        ConfigHelper helper = new ConfigHelper(Arrays.asList(
+                ConfigHelper.fromFile(first),
+                ConfigHelper.fromFile(second),
+                new ConfigHelper(new Properties())));
+
+        Assert.assertEquals(2, helper.getSourceFiles().size());
+        Assert.assertEquals("Second 2", helper.getRaw("prop2"));
+
+        write("first.properties", "prop1=Changed 1\nprop2=Changed 2\n");
+
+        Assert.assertTrue(helper.reload());
+        Assert.assertEquals("Changed 1", helper.getRaw("prop1"));
+        Assert.assertEquals("Second 2", helper.getRaw("prop2"));
+    }
+
+    @Test
+    public void testReloadKeepsCopiedProperties() throws IOException
+    {
+        File config = write("config.properties", "prop1=Config 1\nprop2=Config 2\n");
+        File copied = write("copied.properties", "prop2=Copied 2\nprop3=Copied 3\n");
+
+        ConfigHelper helper = ConfigHelper.fromFile(config);
+        helper.copyFrom(ConfigHelper.fromFile(copied));
+
+        Properties properties = new Properties();
+        properties.setProperty("prop4", "Properties 4");
+
+        ConfigHelper fromProperties = new ConfigHelper(properties);
+        fromProperties.copyFrom(helper);
+
+        Assert.assertEquals(2, fromProperties.getSourceFiles().size());
+
+        Assert.assertFalse(helper.reload());
+        Assert.assertFalse(fromProperties.reload());
+        Assert.assertEquals("Copied 2", helper.getRaw("prop2"));
+        Assert.assertEquals("Copied 3", helper.getRaw("prop3"));
+
+        write("copied.properties", "prop2=Changed 2\nprop3=Copied 3\n");
+
+        final List<Set<String>> changes = new ArrayList<>();
+        fromProperties.addChangeListener(new ConfigChangeListener()
+        {
+            @Override
+            public void configChanged(ConfigHelper configHelper, Set<String> changedKeys)
+            {
+                changes.add(changedKeys);
+            }
+        });
+
+        Assert.assertTrue(fromProperties.reload());
+        Assert.assertEquals(Collections.singletonList(Collections.singleton("prop2")), changes);
+        Assert.assertEquals("Config 1", fromProperties.getRaw("prop1"));
+        Assert.assertEquals("Changed 2", fromProperties.getRaw("prop2"));
+        Assert.assertEquals("Copied 3", fromProperties.getRaw("prop3"));
+        Assert.assertEquals("Properties 4", fromProperties.getRaw("prop4"));
+    }
+
+    @Test
+    public void testReferencedSurvivesReload() throws IOException
+    {
+        File config = write("config.properties", "prop1=1\nprop2=2\nprop3=3\n");
+
+        ConfigHelper helper = ConfigHelper.fromFile(config);
+
+        Assert.assertEquals("1", helper.getRaw("prop1"));
+        Assert.assertEquals("2", helper.getRaw("prop2"));
+        Assert.assertNull(helper.getRaw("prop4"));
+
+        write("config.properties", "prop1=1\nprop3=3\nprop4=4\n");
+
+        Assert.assertTrue(helper.reload());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("prop1", "prop2", "prop4")), helper.getReferenced());
+
+        Set<String> unreferenced = helper.getPropertyNames();
+        unreferenced.removeAll(helper.getReferenced());
+        Assert.assertEquals(Collections.singleton("prop3"), unreferenced);
+    }
+
+    @Test
+    public void testTypedAccessors() throws IOException
+    {
+        Properties properties = new Properties();
+        properties.put("int", " 42 ");
+        properties.put("long", "3000000000");
+        properties.put("boolean", "TRUE");
+        properties.put("duration", "30s");
+        properties.put("iso-duration", "PT1M");
+        properties.put("list", "a, b,,c ");
+        properties.put("enum", "seconds");
+        properties.put("invalid", "forty two");
+
+        ConfigHelper helper = new ConfigHelper(properties);
+
+        Assert.assertEquals(42, helper.getInt("int"));
+        Assert.assertEquals(42, helper.getInt("int"));
+        Assert.assertEquals(42L, helper.getLong("int"));
+        Assert.assertEquals(3000000000L, helper.getLong("long"));
+        Assert.assertTrue(helper.getBoolean("boolean"));
+        Assert.assertEquals(Duration.ofSeconds(30), helper.getDuration("duration"));
+        Assert.assertEquals(Duration.ofMinutes(1), helper.getDuration("iso-duration"));
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), helper.getList("list"));
+        Assert.assertSame(helper.getList("list"), helper.getList("list"));
+        Assert.assertEquals(TimeUnit.SECONDS, helper.getEnum(TimeUnit.class, "enum"));
+
+        Assert.assertTrue(helper.getReferenced().containsAll(Arrays.asList("int", "long", "list", "enum")));
+
+        try
+        {
+            helper.getInt("long");
+            Assert.fail("Value out of int range");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertEquals("Property 'long' has invalid int value: '3000000000'", e.getMessage());
+        }
+
+        try
+        {
+            helper.getBoolean("invalid");
+            Assert.fail("Not a boolean");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertEquals("Property 'invalid' has invalid boolean value: 'forty two'", e.getMessage());
+        }
+
+        try
+        {
+            helper.getInt("missing");
+            Assert.fail("Property doesn't exist");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertEquals("Required property not defined: missing", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTypedAccessorsAfterReload() throws IOException
+    {
+        File config = write("config.properties", "timeout=10s\nsymbol=${port}\n");
+
+        ConfigHelper helper = ConfigHelper.fromFile(config);
+
+        Assert.assertEquals(Duration.ofSeconds(10), helper.getDuration("timeout"));
+
+        try
+        {
+            helper.getInt("symbol");
+            Assert.fail("Symbols can't be expanded before application initialization");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertTrue(e.getMessage().startsWith("Property 'symbol' has symbols in its value"));
+        }
+
+        write("config.properties", "timeout=20s\n");
+
+        helper.reload();
+
+        Assert.assertEquals(Duration.ofSeconds(20), helper.getDuration("timeout"));
+    }
+
+    private File write(String name, String content) throws IOException
+    {
+        File file = new File(folder.getRoot(), name);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8.name());
+        return file;
+    }
 }
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class ConfigLayerTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPrecedenceAndPrefixes() throws IOException
+    {
+        write("base.properties", "prop1=Base 1\nprop2=Base 2\n");
+        write("middle.properties", "extend=base.properties\nextend.prefix=m.\nprop3=Middle 3\n");
+        File top = write("top.properties",
+                "extend.1=middle.properties\n"
+                        + "extend.1.prefix=t.\n"
+                        + "extend.2=base.properties\n"
+                        + "prop1=Top 1\n"
+                        + "t.prop3=Top 3\n");
+
+        PropertySnapshot snapshot = ConfigLayer.fromFile(top, true).index();
+
+        //  Own properties override extensions
+        Assert.assertEquals("Top 1", snapshot.get("prop1"));
+        Assert.assertEquals("Top 3", snapshot.get("t.prop3"));
+        //  Properties of extensions
+        Assert.assertEquals("Base 2", snapshot.get("prop2"));
+        //  Prefixes of nested extensions are concatenated
+        Assert.assertEquals("Base 1", snapshot.get("t.m.prop1"));
+        Assert.assertEquals("Base 2", snapshot.get("t.m.prop2"));
+        Assert.assertEquals("base.properties", snapshot.get("t.extend"));
+        Assert.assertNull(snapshot.get("m.prop1"));
+        Assert.assertEquals(10, snapshot.size());
+    }
+
+    @Test
+    public void testLaterExtensionsOverrideEarlier() throws IOException
+    {
+        write("first.properties", "prop1=First 1\nprop2=First 2\n");
+        write("second.properties", "prop1=Second 1\n");
+        File config = write("config.properties", "extend.0=first.properties\nextend.1=second.properties\n");
+
+        PropertySnapshot snapshot = ConfigLayer.fromFile(config, true).index();
+
+        Assert.assertEquals("Second 1", snapshot.get("prop1"));
+        Assert.assertEquals("First 2", snapshot.get("prop2"));
+    }
+
+    @Test
+    public void testCachedUntilModified() throws IOException
+    {
+        File base = write("base.properties", "prop1=Base 1\n");
+        File config = write("config.properties", "extend=base.properties\n");
+
+        ConfigLayer layer = ConfigLayer.fromFile(config, true);
+
+        Assert.assertSame(layer, ConfigLayer.fromFile(config, true));
+
+        //  Base is shared with other configs that extend it
+        File other = write("other.properties", "extend=base.properties\n");
+        Assert.assertSame(ConfigLayer.fromFile(base, true), ConfigLayer.fromFile(other, true).extensions().get(0));
+
+        //  Changes in extensions invalidate layers that extend them
+        FileUtils.writeStringToFile(base, "prop1=Changed base 1\n", StandardCharsets.UTF_8.name());
+
+        ConfigLayer changed = ConfigLayer.fromFile(config, true);
+        Assert.assertNotSame(layer, changed);
+        Assert.assertEquals("Changed base 1", changed.index().get("prop1"));
+
+        //  Reading without cache gets a fresh layer
+        Assert.assertNotSame(changed, ConfigLayer.fromFile(config, false));
+    }
+
+    @Test
+    public void testParallelExtensions() throws IOException
+    {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 16; i++)
+        {
+            write("part" + i + ".properties", "shared=Part " + i + "\nprop" + i + "=Value " + i + "\n");
+            content.append("extend.").append(i).append("=part").append(i).append(".properties\n");
+        }
+        File config = write("config.properties", content.toString());
+
+        PropertySnapshot snapshot = ConfigLayer.fromFile(config, false).index();
+
+        Assert.assertEquals("Part 15", snapshot.get("shared"));
+        for (int i = 0; i < 16; i++)
+        {
+            Assert.assertEquals("Value " + i, snapshot.get("prop" + i));
+        }
+    }
+
+    @Test
+    public void testMissingExtension() throws IOException
+    {
+        write("first.properties", "prop1=First 1\n");
+        File config = write("config.properties", "extend.0=first.properties\nextend.1=missing.properties\n");
+
+        try
+        {
+            ConfigLayer.fromFile(config, true);
+            Assert.fail("Missing extension should fail the load");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Configuration file not found"));
+        }
+    }
+
+    @Test
+    public void testCycle() throws IOException
+    {
+        write("a.properties", "extend=b.properties\n");
+        write("b.properties", "extend.0=c.properties\nextend.1=a.properties\n");
+        write("c.properties", "prop1=C 1\n");
+        File config = write("config.properties", "extend=a.properties\n");
+
+        try
+        {
+            ConfigLayer.fromFile(config, true);
+            Assert.fail("Cycle should fail the load");
+        }
+        catch (IllegalStateException e)
+        {
+            String a = new File(folder.getRoot(), "a.properties").getCanonicalPath();
+            String b = new File(folder.getRoot(), "b.properties").getCanonicalPath();
+
+            Assert.assertEquals("Cycle in config extend chain: file:" + a + " -> file:" + b + " -> file:" + a,
+                    e.getMessage());
+        }
+    }
+
+    private File write(String name, String content) throws IOException
+    {
+        File file = new File(folder.getRoot(), name);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8.name());
+        return file;
+    }
+}
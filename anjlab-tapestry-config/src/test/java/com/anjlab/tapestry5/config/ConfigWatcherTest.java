@@ -0,0 +1,84 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ConfigWatcherTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReloadOnChange() throws Exception
+    {
+        File base = folder.newFile("base.properties");
+        File config = folder.newFile("config.properties");
+        FileUtils.writeStringToFile(base, "prop1=Base 1\n", StandardCharsets.UTF_8.name());
+        FileUtils.writeStringToFile(config, "extend=base.properties\n", StandardCharsets.UTF_8.name());
+
+        ConfigHelper helper = ConfigHelper.fromFile(config);
+
+        final BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+        helper.addChangeListener(new ConfigChangeListener()
+        {
+            @Override
+            public void configChanged(ConfigHelper configHelper, Set<String> changedKeys)
+            {
+                changes.add(changedKeys);
+            }
+        });
+
+        ConfigWatcher watcher = new ConfigWatcher(helper);
+        try
+        {
+            watcher.start();
+
+            //  Change a file from the extend chain
+            FileUtils.writeStringToFile(base, "prop1=Changed 1\n", StandardCharsets.UTF_8.name());
+
+            Assert.assertEquals(Collections.singleton("prop1"), changes.poll(30, TimeUnit.SECONDS));
+            Assert.assertEquals("Changed 1", helper.getRaw("prop1"));
+
+            //  Extend chain changes are picked up
+            File other = folder.newFile("other.properties");
+            FileUtils.writeStringToFile(other, "prop2=Other 2\n", StandardCharsets.UTF_8.name());
+            FileUtils.writeStringToFile(config, "extend=other.properties\n", StandardCharsets.UTF_8.name());
+
+            Set<String> changedKeys = changes.poll(30, TimeUnit.SECONDS);
+            Assert.assertNotNull(changedKeys);
+            Assert.assertTrue(changedKeys.contains("prop2"));
+            Assert.assertTrue(helper.getSourceFiles().contains(other.getAbsoluteFile()));
+        }
+        finally
+        {
+            watcher.close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.config;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class PropertySnapshotTest
+{
+    @Test
+    public void testLookup()
+    {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            properties.put("property" + i, "value" + i);
+        }
+        //  Strings with the same hash code
+        properties.put("Aa", "Aa");
+        properties.put("BB", "BB");
+
+        PropertySnapshot snapshot = new PropertySnapshot(properties);
+
+        Assert.assertEquals(properties.size(), snapshot.size());
+        Assert.assertEquals(properties.keySet(), new HashSet<>(snapshot.keySet()));
+
+        for (Map.Entry<String, String> entry : properties.entrySet())
+        {
+            //  Not interned
+            String key = new String(entry.getKey().toCharArray());
+
+            Assert.assertEquals(entry.getValue(), snapshot.get(key));
+            Assert.assertSame(entry.getKey().intern(), snapshot.keyAt(snapshot.slot(key)));
+        }
+
+        Assert.assertNull(snapshot.get("property1000"));
+        Assert.assertFalse(snapshot.keySet().contains("property1000"));
+        Assert.assertEquals(-1, snapshot.slot("property1000"));
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        PropertySnapshot snapshot = new PropertySnapshot(new HashMap<String, String>());
+
+        Assert.assertEquals(0, snapshot.size());
+        Assert.assertTrue(snapshot.keySet().isEmpty());
+        Assert.assertNull(snapshot.get("property"));
+    }
+
+    @Test
+    public void testConcurrentReferences() throws InterruptedException
+    {
+        final Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < 10000; i++)
+        {
+            properties.put("property" + i, "value" + i);
+        }
+
+        final PropertySnapshot snapshot = new PropertySnapshot(properties);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++)
+        {
+            final int offset = t;
+            executor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    //  Threads mark neighbouring slots, which share words of the bitset
+                    for (int i = offset; i < 10000; i += 8)
+                    {
+                        snapshot.markReferenced(snapshot.slot("property" + i));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Assert.assertEquals(properties.keySet(), snapshot.getReferencedKeys());
+    }
+
+    @Test
+    public void testCopyReferences()
+    {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("kept", "1");
+        properties.put("removed", "2");
+        properties.put("unreferenced", "3");
+
+        PropertySnapshot previous = new PropertySnapshot(properties);
+        previous.markReferenced(previous.slot("kept"));
+        previous.markReferenced(previous.slot("removed"));
+
+        properties.remove("removed");
+
+        PropertySnapshot next = new PropertySnapshot(properties);
+
+        Set<String> missing = next.copyReferencesFrom(previous);
+
+        Assert.assertEquals(Collections.singleton("removed"), missing);
+        Assert.assertEquals(Collections.singleton("kept"), next.getReferencedKeys());
+    }
+}
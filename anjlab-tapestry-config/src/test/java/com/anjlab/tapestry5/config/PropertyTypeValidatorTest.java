@@ -18,6 +18,7 @@ package com.anjlab.tapestry5.config;
 import org.apache.tapestry5.commons.MappedConfiguration;
 import org.apache.tapestry5.ioc.services.SymbolSource;
 import org.apache.tapestry5.commons.services.TypeCoercer;
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -85,4 +86,74 @@ public class PropertyTypeValidatorTest
                 .verify(typeCoercer, Mockito.calls(1))
                 .coerce("true", Boolean.class);
     }
+
+    @Test
+    public void shouldReuseCoercedValuesInTypedAccessors()
+    {
+        Properties properties = new Properties();
+        properties.put("port", "${symbol}");
+        properties.put("timeout", "${timeout}");
+
+        MappedConfiguration<String, Object> configuration = Mockito.mock(MappedConfiguration.class);
+        TypeCoercer typeCoercer = Mockito.mock(TypeCoercer.class);
+        SymbolSource symbolSource = Mockito.mock(SymbolSource.class);
+
+        Mockito.when(symbolSource.expandSymbols("${symbol}")).thenReturn("8080");
+        Mockito.when(symbolSource.expandSymbols("${timeout}")).thenReturn("5");
+        Mockito.when(typeCoercer.coerce("8080", Integer.class)).thenReturn(8080);
+
+        ConfigHelper configHelper = new ConfigHelper(properties);
+        configHelper.add(Integer.class, "port", configuration);
+        configHelper.add("timeout", configuration);
+
+        PropertyTypeValidator validator = new PropertyTypeValidator(typeCoercer, symbolSource);
+
+        validator.validate(configHelper);
+
+        Assert.assertEquals(8080, configHelper.getInt("port"));
+        //  Property without type is expanded with the SymbolSource on first access
+        Assert.assertEquals(5L, configHelper.getLong("timeout"));
+
+        Mockito.verify(symbolSource, Mockito.times(1)).expandSymbols("${symbol}");
+        Mockito.verify(symbolSource, Mockito.times(1)).expandSymbols("${timeout}");
+    }
+
+    @Test
+    public void shouldNotReuseCoercedValuesThatTypedAccessorsWouldReject()
+    {
+        Properties properties = new Properties();
+        properties.put("enabled", "${enabled}");
+        properties.put("port", "${port}");
+
+        MappedConfiguration<String, Object> configuration = Mockito.mock(MappedConfiguration.class);
+        TypeCoercer typeCoercer = Mockito.mock(TypeCoercer.class);
+        SymbolSource symbolSource = Mockito.mock(SymbolSource.class);
+
+        Mockito.when(symbolSource.expandSymbols("${enabled}")).thenReturn("0");
+        Mockito.when(symbolSource.expandSymbols("${port}")).thenReturn("8080");
+        //  TypeCoercer coerces any string except "false" to true
+        Mockito.when(typeCoercer.coerce("0", Boolean.class)).thenReturn(true);
+        Mockito.when(typeCoercer.coerce("8080", Integer.class)).thenReturn(8080);
+
+        ConfigHelper configHelper = new ConfigHelper(properties);
+        configHelper.add(Boolean.class, "enabled", configuration);
+        configHelper.add(Integer.class, "port", configuration);
+
+        PropertyTypeValidator validator = new PropertyTypeValidator(typeCoercer, symbolSource);
+
+        validator.validate(configHelper);
+
+        try
+        {
+            configHelper.getBoolean("enabled");
+            Assert.fail("Typed accessor should parse the value the same way as before validation");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertEquals("Property 'enabled' has invalid boolean value: '0'", e.getMessage());
+        }
+
+        Assert.assertEquals(8080, configHelper.getInt("port"));
+        Mockito.verify(symbolSource, Mockito.times(1)).expandSymbols("${port}");
+    }
 }
@@ -25,6 +25,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.servlet.ServletContext;
 import javax.servlet.ServletContextEvent;
@@ -57,6 +58,12 @@ public class LiquibaseInitializerImpl implements LiquibaseInitializer
 
     private Map<String, List<LiquibaseConfigurer>> configurers;
 
+    /**
+     * The initializer may be contributed to both <code>ApplicationInitializer</code> and
+     * <code>ConcurrentApplicationInitializer</code>, configurations are only applied once.
+     */
+    private final AtomicBoolean initialized = new AtomicBoolean();
+
     public LiquibaseInitializerImpl(List<LiquibaseConfigurer> configurers)
     {
         this.configurers = new HashMap<>();
@@ -118,6 +125,12 @@ public class LiquibaseInitializerImpl implements LiquibaseInitializer
     @Override
     public void initializeApplication(Context context, ApplicationInitializer initializer)
     {
+        if (!initialized.compareAndSet(false, true))
+        {
+            initializer.initializeApplication(context);
+            return;
+        }
+
         Map<String, String> names = getNames();
 
         String listenerClassName = names.get(LIQUIBASE_LISTENER_CLASS_NAME);
@@ -126,6 +139,9 @@ public class LiquibaseInitializerImpl implements LiquibaseInitializer
         {
             Map<String, String> configuration = getConfiguration(names);
 
+            Object event = LiquibaseEvents.beginUpdate();
+            boolean succeeded = false;
+
             try
             {
                 logger.info("Processing configuration '" + configurationName + "'");
@@ -140,11 +156,17 @@ public class LiquibaseInitializerImpl implements LiquibaseInitializer
                 apply(listenerClassName, configuration);
 
                 logger.info("Configuration '" + configurationName + "' succeeded");
+
+                succeeded = true;
             }
             catch (RuntimeException e)
             {
                 throw new RuntimeException("Configuration '" + configurationName + "' failed", e);
             }
+            finally
+            {
+                LiquibaseEvents.commitUpdate(event, configurationName, succeeded);
+            }
         }
 
         initializer.initializeApplication(context);
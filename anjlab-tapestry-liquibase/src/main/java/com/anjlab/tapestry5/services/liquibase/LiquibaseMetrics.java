@@ -0,0 +1,99 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.liquibase;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.tapestry5.http.services.ApplicationInitializer;
+import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
+import org.apache.tapestry5.http.services.Context;
+
+import com.anjlab.tapestry5.services.ConcurrentInitializer;
+import com.anjlab.tapestry5.services.metrics.Gauge;
+import com.anjlab.tapestry5.services.metrics.MeterBinder;
+import com.anjlab.tapestry5.services.metrics.MetricsRegistry;
+
+/**
+ * Reports Liquibase meters to <code>anjlab-tapestry-commons</code> and runs {@link LiquibaseInitializer}
+ * with its <code>ConcurrentApplicationInitializer</code>. Its methods are only called from contributions
+ * to services of <code>anjlab-tapestry-commons</code>.
+ */
+final class LiquibaseMetrics
+{
+    private LiquibaseMetrics()
+    {
+    }
+
+    /**
+     * @param nanos Receives the time of the first run of the filter, before it passed control
+     *              to the next initializer.
+     * @return Filter that measures the time of the <code>filter</code>.
+     */
+    static ApplicationInitializerFilter timed(final ApplicationInitializerFilter filter, final AtomicLong nanos)
+    {
+        return new ApplicationInitializerFilter()
+        {
+            @Override
+            public void initializeApplication(Context context, final ApplicationInitializer initializer)
+            {
+                final long start = System.nanoTime();
+
+                filter.initializeApplication(context, new ApplicationInitializer()
+                {
+                    @Override
+                    public void initializeApplication(Context context)
+                    {
+                        //  Later runs only pass control further, see LiquibaseInitializerImpl
+                        nanos.compareAndSet(0, System.nanoTime() - start);
+
+                        initializer.initializeApplication(context);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * @return <code>ConcurrentInitializer</code> of the filter.
+     */
+    static Object concurrentInitializer(ApplicationInitializerFilter filter, String... dependencies)
+    {
+        return new ConcurrentInitializer(filter, dependencies);
+    }
+
+    /**
+     * @return <code>MeterBinder</code> of <code>startup.liquibase.millis</code> gauge.
+     */
+    static Object meterBinder(final AtomicLong initializerNanos)
+    {
+        return new MeterBinder()
+        {
+            @Override
+            public void bindTo(MetricsRegistry registry)
+            {
+                registry.gauge("startup.liquibase.millis", new Gauge()
+                {
+                    @Override
+                    public double getValue()
+                    {
+                        return initializerNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+                    }
+                });
+            }
+        };
+    }
+}
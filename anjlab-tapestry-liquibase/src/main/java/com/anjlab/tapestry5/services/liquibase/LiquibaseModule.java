@@ -16,14 +16,19 @@
 package com.anjlab.tapestry5.services.liquibase;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.tapestry5.commons.Configuration;
 import org.apache.tapestry5.commons.MappedConfiguration;
 import org.apache.tapestry5.commons.OrderedConfiguration;
 import org.apache.tapestry5.ioc.ServiceBinder;
 import org.apache.tapestry5.ioc.annotations.Inject;
+import org.apache.tapestry5.ioc.annotations.Optional;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.http.services.ApplicationInitializerFilter;
 
+import com.anjlab.tapestry5.services.CommonsModule;
+
 public class LiquibaseModule
 {
     public static final String LIQUIBASE_VERSION = "liquibase.version";
@@ -40,6 +45,11 @@ public class LiquibaseModule
     
     public static final String LIQUIBASE_SHOULD_RUN = "liquibase.should.run";
     
+    /**
+     * Time that {@link LiquibaseInitializer} took on startup.
+     */
+    private final AtomicLong initializerNanos = new AtomicLong();
+    
     public static void bind(ServiceBinder binder)
     {
         binder.bind(LiquibaseInitializer.class);
@@ -72,10 +82,42 @@ public class LiquibaseModule
     {
         if (shouldRunLiquibase)
         {
-            configuration.add("Liquibase", liquibaseInitializer);
+            configuration.add("Liquibase", LiquibaseMetrics.timed(liquibaseInitializer, initializerNanos));
+        }
+    }
+
+    /**
+     * Runs {@link LiquibaseInitializer} as <code>Liquibase</code> node of <code>ConcurrentApplicationInitializer</code>
+     * when <code>anjlab-tapestry-commons</code> is used and its <code>anjlab.concurrent-initializer.modules</code>
+     * symbol is <code>true</code>. The node depends on <code>ConfigHelper</code>, so migrations don't run
+     * when properties fail validation. The <code>Liquibase</code> filter then just passes control
+     * to the next initializer.
+     */
+    @Optional
+    public void contributeConcurrentApplicationInitializer(
+            MappedConfiguration<String, Object> configuration,
+            @Inject @Symbol(LIQUIBASE_SHOULD_RUN) boolean shouldRunLiquibase,
+            //  Constant is inlined, CommonsModule is not needed at runtime
+            @Inject @Symbol(CommonsModule.CONCURRENT_MODULE_INITIALIZERS) boolean concurrent,
+            LiquibaseInitializer liquibaseInitializer)
+    {
+        if (shouldRunLiquibase && concurrent)
+        {
+            configuration.add("Liquibase", LiquibaseMetrics.concurrentInitializer(
+                    LiquibaseMetrics.timed(liquibaseInitializer, initializerNanos), "ConfigHelper"));
         }
     }
 
+    /**
+     * Registers meters of Liquibase in <code>MetricsRegistry</code> when
+     * <code>anjlab-tapestry-commons</code> is used, see {@link LiquibaseMetrics#meterBinder}.
+     */
+    @Optional
+    public void contributeMetricsRegistry(Configuration<Object> configuration)
+    {
+        configuration.add(LiquibaseMetrics.meterBinder(initializerNanos));
+    }
+
     public void contributeLiquibaseInitializer(
             OrderedConfiguration<LiquibaseConfigurer> configuration)
     {
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.liquibase;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a run of a single Liquibase configuration.
+ * <p>
+ * Only use through {@link LiquibaseEvents}, the class can't be loaded on JVMs without JFR.
+ */
+@Name("com.anjlab.tapestry5.LiquibaseUpdate")
+@Label("Liquibase Update")
+@Category({ "AnjLab Tapestry", "Liquibase" })
+@Description("Run of a Liquibase configuration by LiquibaseInitializer")
+@StackTrace(false)
+class LiquibaseUpdateEvent extends jdk.jfr.Event
+{
+    @Label("Configuration")
+    String configurationName;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
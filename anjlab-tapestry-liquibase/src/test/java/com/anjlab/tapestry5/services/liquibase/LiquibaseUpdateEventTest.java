@@ -0,0 +1,69 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.liquibase;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class LiquibaseUpdateEventTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testUpdateIsRecorded() throws Exception
+    {
+        File dump = temporaryFolder.newFile("update.jfr");
+
+        Recording recording = new Recording();
+        try
+        {
+            recording.enable("com.anjlab.tapestry5.LiquibaseUpdate");
+            recording.start();
+
+            Object succeeded = LiquibaseEvents.beginUpdate();
+            LiquibaseEvents.commitUpdate(succeeded, "main", true);
+
+            Object failed = LiquibaseEvents.beginUpdate();
+            LiquibaseEvents.commitUpdate(failed, "audit", false);
+
+            recording.stop();
+            recording.dump(dump.toPath());
+        }
+        finally
+        {
+            recording.close();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.toPath());
+
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals("main", events.get(0).getString("configurationName"));
+        Assert.assertTrue(events.get(0).getBoolean("succeeded"));
+        Assert.assertEquals("audit", events.get(1).getString("configurationName"));
+        Assert.assertFalse(events.get(1).getBoolean("succeeded"));
+        Assert.assertNull(events.get(0).getStackTrace());
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.quartz;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a job execution, from the moment the job is fired till it completes.
+ */
+@Name("com.anjlab.tapestry5.QuartzJob")
+@Label("Quartz Job")
+@Category({ "AnjLab Tapestry", "Quartz" })
+@Description("Execution of a Quartz job")
+@StackTrace(false)
+class QuartzJobEvent extends jdk.jfr.Event
+{
+    @Label("Job")
+    String job;
+
+    @Label("Trigger")
+    String trigger;
+
+    @Label("Refire Count")
+    int refireCount;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.quartz;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerFactory;
+import org.quartz.listeners.JobListenerSupport;
+
+import com.anjlab.tapestry5.services.metrics.Counter;
+import com.anjlab.tapestry5.services.metrics.MeterBinder;
+import com.anjlab.tapestry5.services.metrics.MetricsRegistry;
+import com.anjlab.tapestry5.services.metrics.StartupPhase;
+import com.anjlab.tapestry5.services.metrics.StartupTimeline;
+import com.anjlab.tapestry5.services.metrics.Timer;
+
+/**
+ * Reports Quartz meters and startup phases to <code>anjlab-tapestry-commons</code>.
+ */
+final class QuartzMetrics
+{
+    private static final boolean AVAILABLE = isAvailable();
+
+    private QuartzMetrics()
+    {
+    }
+
+    private static boolean isAvailable()
+    {
+        try
+        {
+            Class.forName("com.anjlab.tapestry5.services.metrics.StartupTimeline");
+            return true;
+        }
+        catch (ClassNotFoundException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @return Started phase, or <code>null</code> if <code>anjlab-tapestry-commons</code> is not available.
+     */
+    static Object beginPhase(String name)
+    {
+        return AVAILABLE ? StartupTimeline.getDefault().begin(name) : null;
+    }
+
+    static void endPhase(Object handle)
+    {
+        if (handle != null)
+        {
+            ((StartupPhase) handle).end();
+        }
+    }
+
+    /**
+     * @return Factory that records creation of the default scheduler as <code>quartz scheduler</code>
+     * startup phase, or <code>null</code> if <code>anjlab-tapestry-commons</code> is not available.
+     */
+    static SchedulerFactory timed(final SchedulerFactory delegate)
+    {
+        if (!AVAILABLE)
+        {
+            return null;
+        }
+
+        final AtomicBoolean created = new AtomicBoolean();
+
+        return new SchedulerFactory()
+        {
+            @Override
+            public Scheduler getScheduler() throws SchedulerException
+            {
+                if (!created.compareAndSet(false, true))
+                {
+                    return delegate.getScheduler();
+                }
+
+                //  The first call creates the scheduler with its thread pool and job store
+                StartupPhase phase = StartupTimeline.getDefault().begin("quartz scheduler");
+                try
+                {
+                    return delegate.getScheduler();
+                }
+                finally
+                {
+                    phase.end();
+                }
+            }
+
+            @Override
+            public Scheduler getScheduler(String schedName) throws SchedulerException
+            {
+                return delegate.getScheduler(schedName);
+            }
+
+            @Override
+            public Collection<Scheduler> getAllSchedulers() throws SchedulerException
+            {
+                return delegate.getAllSchedulers();
+            }
+        };
+    }
+
+    /**
+     * @return <code>MeterBinder</code> of <code>quartz.jobs.executed</code>, <code>quartz.jobs.failed</code> and
+     * <code>quartz.jobs.vetoed</code> counters and <code>quartz.jobs.duration</code> timer.
+     */
+    static Object meterBinder(final SchedulerFactory schedulerFactory)
+    {
+        return new MeterBinder()
+        {
+            @Override
+            public void bindTo(MetricsRegistry registry)
+            {
+                JobMetricsListener listener = new JobMetricsListener(registry);
+
+                try
+                {
+                    Collection<Scheduler> schedulers = new LinkedHashSet<Scheduler>(schedulerFactory.getAllSchedulers());
+                    schedulers.add(schedulerFactory.getScheduler());
+
+                    for (Scheduler scheduler : schedulers)
+                    {
+                        scheduler.getListenerManager().addJobListener(listener);
+                    }
+                }
+                catch (SchedulerException e)
+                {
+                    throw new RuntimeException("Error adding job metrics listener", e);
+                }
+            }
+        };
+    }
+
+    private static class JobMetricsListener extends JobListenerSupport
+    {
+        private final Counter executed;
+        private final Counter failed;
+        private final Counter vetoed;
+        private final Timer duration;
+
+        JobMetricsListener(MetricsRegistry metricsRegistry)
+        {
+            this.executed = metricsRegistry.counter("quartz.jobs.executed");
+            this.failed = metricsRegistry.counter("quartz.jobs.failed");
+            this.vetoed = metricsRegistry.counter("quartz.jobs.vetoed");
+            this.duration = metricsRegistry.timer("quartz.jobs.duration");
+        }
+
+        @Override
+        public String getName()
+        {
+            return "Metrics";
+        }
+
+        @Override
+        public void jobExecutionVetoed(JobExecutionContext context)
+        {
+            vetoed.increment();
+        }
+
+        @Override
+        public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException)
+        {
+            executed.increment();
+
+            if (jobException != null)
+            {
+                failed.increment();
+            }
+
+            duration.record(context.getJobRunTime(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
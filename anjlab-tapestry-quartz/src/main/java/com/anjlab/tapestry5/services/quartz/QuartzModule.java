@@ -22,10 +22,12 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Properties;
 
+import org.apache.tapestry5.commons.Configuration;
 import org.apache.tapestry5.commons.MappedConfiguration;
 import org.apache.tapestry5.commons.Resource;
 import org.apache.tapestry5.ioc.ServiceBinder;
 import org.apache.tapestry5.ioc.annotations.Inject;
+import org.apache.tapestry5.ioc.annotations.Optional;
 import org.apache.tapestry5.ioc.annotations.Startup;
 import org.apache.tapestry5.ioc.annotations.Symbol;
 import org.apache.tapestry5.ioc.services.PerthreadManager;
@@ -107,6 +109,26 @@ public class QuartzModule
         return sf;
     }
     
+    /**
+     * Records creation of the default scheduler as a startup phase when <code>anjlab-tapestry-commons</code>
+     * is used, see {@link QuartzMetrics#timed}.
+     */
+    public static SchedulerFactory decorateSchedulerFactory(SchedulerFactory delegate)
+    {
+        return QuartzMetrics.timed(delegate);
+    }
+    
+    /**
+     * Registers job meters in <code>MetricsRegistry</code> when <code>anjlab-tapestry-commons</code> is used,
+     * see {@link QuartzMetrics#meterBinder}.
+     */
+    @Optional
+    public static void contributeMetricsRegistry(Configuration<Object> configuration,
+            SchedulerFactory schedulerFactory)
+    {
+        configuration.add(QuartzMetrics.meterBinder(schedulerFactory));
+    }
+    
     public static Scheduler buildScheduler(SchedulerFactory schedulerFactory, JobFactory jobFactory)
             throws SchedulerException
     {
@@ -126,57 +148,103 @@ public class QuartzModule
                         @Inject @Symbol(START_SCHEDULERS)
                         final boolean startSchedulers) throws SchedulerException
     {
-        final JobListenerSupport cleanupThread = new JobListenerSupport()
+        Object phase = QuartzMetrics.beginPhase("quartz startup");
+        try
         {
-            @Override
-            public String getName()
+            final JobListenerSupport cleanupThread = new JobListenerSupport()
             {
-                return "PerthreadManager.cleanup()";
-            }
+                @Override
+                public String getName()
+                {
+                    return "PerthreadManager.cleanup()";
+                }
             
-            @Override
-            public void jobWasExecuted(JobExecutionContext context,
-                    JobExecutionException jobException)
+                @Override
+                public void jobWasExecuted(JobExecutionContext context,
+                        JobExecutionException jobException)
+                {
+                    perthreadManager.cleanup();
+                }
+            };
+        
+            final JobListenerSupport flightRecorder = new JobListenerSupport()
             {
-                perthreadManager.cleanup();
-            }
-        };
+                @Override
+                public String getName()
+                {
+                    return "FlightRecorder";
+                }
+            
+                @Override
+                public void jobToBeExecuted(JobExecutionContext context)
+                {
+                    QuartzJobEvent event = new QuartzJobEvent();
+                
+                    if (event.isEnabled())
+                    {
+                        event.begin();
+                        context.put(QuartzJobEvent.class, event);
+                    }
+                }
+            
+                @Override
+                public void jobWasExecuted(JobExecutionContext context,
+                        JobExecutionException jobException)
+                {
+                    QuartzJobEvent event = (QuartzJobEvent) context.get(QuartzJobEvent.class);
+                
+                    if (event != null && event.shouldCommit())
+                    {
+                        event.job = context.getJobDetail().getKey().toString();
+                        event.trigger = context.getTrigger().getKey().toString();
+                        event.refireCount = context.getRefireCount();
+                        event.failed = jobException != null;
+                        event.commit();
+                    }
+                }
+            };
         
-        Collection<Scheduler> allSchedulers = new ArrayList<Scheduler>();
+            Collection<Scheduler> allSchedulers = new ArrayList<Scheduler>();
         
-        allSchedulers.addAll(schedulerFactory.getAllSchedulers());
-        allSchedulers.add(schedulerFactory.getScheduler());
+            allSchedulers.addAll(schedulerFactory.getAllSchedulers());
+            allSchedulers.add(schedulerFactory.getScheduler());
         
-        for (Scheduler scheduler : allSchedulers)
-        {
-            if (!scheduler.isStarted())
+            for (Scheduler scheduler : allSchedulers)
             {
-                scheduler.getListenerManager().addJobListener(cleanupThread);
-
-                if (startSchedulers)
+                if (!scheduler.isStarted())
                 {
-                    scheduler.start();
+                    scheduler.getListenerManager().addJobListener(cleanupThread);
+                    scheduler.getListenerManager().addJobListener(flightRecorder);
+
+                    if (startSchedulers)
+                    {
+                        scheduler.start();
+                    }
                 }
             }
-        }
         
-        shutdownHub.addRegistryWillShutdownListener(new Runnable()
-        {
-            @Override
-            public void run()
+            shutdownHub.addRegistryWillShutdownListener(new Runnable()
             {
-                try
+                @Override
+                public void run()
                 {
-                    for (Scheduler scheduler : schedulerFactory.getAllSchedulers())
+                    try
                     {
-                        scheduler.shutdown(waitForJobsToComplete);
+                        for (Scheduler scheduler : schedulerFactory.getAllSchedulers())
+                        {
+                            scheduler.shutdown(waitForJobsToComplete);
+                        }
+                    }
+                    catch (SchedulerException e)
+                    {
+                        logger.error("Error shutting down scheduler", e);
                     }
                 }
-                catch (SchedulerException e)
-                {
-                    logger.error("Error shutting down scheduler", e);
-                }
-            }
-        });
+            });
+        }
+        finally
+        {
+            QuartzMetrics.endPhase(phase);
+        }
     }
 }
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2026 AnjLab
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anjlab.tapestry5.services.quartz;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tapestry5.http.modules.TapestryHttpModule;
+import org.apache.tapestry5.ioc.Registry;
+import org.apache.tapestry5.ioc.RegistryBuilder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class QuartzJobEventTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testJobIsRecorded() throws Exception
+    {
+        Registry registry = new RegistryBuilder().add(
+                        TapestryHttpModule.class,
+                        QuartzModule.class)
+                .build();
+
+        File dump = temporaryFolder.newFile("job.jfr");
+
+        Recording recording = new Recording();
+        try
+        {
+            registry.performRegistryStartup();
+
+            Scheduler scheduler = registry.getService(Scheduler.class);
+
+            JobDetail job = JobBuilder.newJob(HelloJob.class).withIdentity("recorded", "jfr").build();
+            Trigger trigger = TriggerBuilder.newTrigger().withIdentity("recorded", "jfr").startNow().build();
+
+            QuartzJobFuture<String> future = new QuartzJobFuture<>(scheduler, job.getKey());
+
+            recording.enable("com.anjlab.tapestry5.QuartzJob");
+            recording.start();
+
+            scheduler.scheduleJob(job, trigger);
+
+            //  The event is committed by a listener added on startup, before the one of the future
+            future.get(5, TimeUnit.SECONDS);
+
+            recording.stop();
+            recording.dump(dump.toPath());
+        }
+        finally
+        {
+            recording.close();
+            registry.shutdown();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.toPath());
+
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals("jfr.recorded", events.get(0).getString("job"));
+        Assert.assertEquals("jfr.recorded", events.get(0).getString("trigger"));
+        Assert.assertEquals(0, events.get(0).getInt("refireCount"));
+        Assert.assertFalse(events.get(0).getBoolean("failed"));
+    }
+}